@@ -0,0 +1,10 @@
+#!/bin/bash
+# Records throughput and allocation baselines for every benchmark into baselines/<version>.json.
+set -e
+cd "$(dirname "$0")"
+
+VERSION=$(mvn -q help:evaluate -Dexpression=project.dependencies[0].version -DforceStdout)
+
+mvn -q clean package
+mkdir -p baselines
+java -jar target/benchmarks.jar -prof gc -rf json -rff "baselines/${VERSION}.json" "$@"
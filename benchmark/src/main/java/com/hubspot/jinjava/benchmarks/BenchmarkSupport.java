@@ -0,0 +1,72 @@
+package com.hubspot.jinjava.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.loader.ResourceLocator;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Shared setup for the per-subsystem benchmarks.
+ */
+public final class BenchmarkSupport {
+
+  private BenchmarkSupport() {
+  }
+
+  public static void quietLogging() {
+    ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
+    logger.setLevel(Level.WARN);
+  }
+
+  /**
+   * Serves templates from memory, so that include / extends benchmarks measure rendering rather than disk access. The
+   * templates are versioned, so their parsed trees are cached as they would be for a versioned locator.
+   */
+  public static ResourceLocator inMemoryLocator(Map<String, String> templates) {
+    final Map<String, String> copy = ImmutableMap.copyOf(templates);
+    return new ResourceLocator() {
+      @Override
+      public String getString(String fullName, Charset encoding, JinjavaInterpreter interpreter) throws IOException {
+        String template = copy.get(fullName);
+        if (template == null) {
+          throw new IOException("No template named " + fullName);
+        }
+        return template;
+      }
+
+      @Override
+      public Optional<String> getVersion(String fullName, JinjavaInterpreter interpreter) {
+        // the templates never change, so parsed trees can always be reused
+        return copy.containsKey(fullName) ? Optional.of("1") : Optional.empty();
+      }
+    };
+  }
+
+  /**
+   * A mid-sized template exercising text, expressions, filters, loops and conditionals.
+   */
+  public static String sampleTemplate(int repetitions) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < repetitions; i++) {
+      sb.append("<div class=\"item-").append(i).append("\">\n")
+          .append("  <h2>{{ title|upper }} {{ loop_index + ").append(i).append(" }}</h2>\n")
+          .append("  {% if items and items|length > 2 %}\n")
+          .append("    <ul>{% for item in items %}<li>{{ item.name|e }} - {{ item.price * 2 }}</li>{% endfor %}</ul>\n")
+          .append("  {% else %}\n")
+          .append("    {# nothing to show #}<p>empty</p>\n")
+          .append("  {% endif %}\n")
+          .append("  {% set total = items|map(attribute='price')|sum %}{{ total }}\n")
+          .append("</div>\n");
+    }
+    return sb.toString();
+  }
+
+}
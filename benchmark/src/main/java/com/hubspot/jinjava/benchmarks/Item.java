@@ -0,0 +1,44 @@
+package com.hubspot.jinjava.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Item {
+
+  private final int id;
+  private final String name;
+  private final String category;
+  private final double price;
+
+  public Item(int id, String name, String category, double price) {
+    this.id = id;
+    this.name = name;
+    this.category = category;
+    this.price = price;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public double getPrice() {
+    return price;
+  }
+
+  public static List<Item> sampleItems(int count) {
+    List<Item> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      items.add(new Item(i, "Item <" + (count - i) + "> & co", "category-" + (i % 7), (i * 37 % 1000) / 10.0));
+    }
+    return items;
+  }
+
+}
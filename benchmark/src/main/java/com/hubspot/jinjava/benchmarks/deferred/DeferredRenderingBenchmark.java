@@ -0,0 +1,68 @@
+package com.hubspot.jinjava.benchmarks.deferred;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+import com.hubspot.jinjava.interpret.DeferredValue;
+
+/**
+ * Renders templates where a share of the expressions depend on a deferred value and must be preserved for a later
+ * pass. Rendering with and without {@code controlFlowStackTraces} shows what filling in the stack traces of the
+ * exceptions thrown on reaching a deferred value costs.
+ */
+@State(Scope.Benchmark)
+public class DeferredRenderingBenchmark {
+
+  @Param({ "10", "100" })
+  public int size;
+
+  @Param({ "false", "true" })
+  public boolean controlFlowStackTraces;
+
+  public Jinjava jinjava;
+  public Map<String, Object> bindings;
+
+  public String deferredExpressions;
+  public String deferredConditionals;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    jinjava = new Jinjava(
+        JinjavaConfig.newBuilder().withControlFlowStackTracesEnabled(controlFlowStackTraces).build());
+    bindings = new HashMap<>();
+    bindings.put("items", Item.sampleItems(size));
+    bindings.put("deferred", DeferredValue.instance());
+
+    StringBuilder expressions = new StringBuilder();
+    StringBuilder conditionals = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      expressions.append("<p>{{ items[").append(i).append("].name|e }} {{ deferred.label }} {{ items[").append(i).append("].price }}</p>\n");
+      conditionals.append("{% if deferred %}{{ items[").append(i).append("].name }}{% else %}{{ items[").append(i).append("].id }}{% endif %}\n");
+    }
+    deferredExpressions = expressions.toString();
+    deferredConditionals = conditionals.toString() + "{% set total = deferred %}{{ total }}";
+  }
+
+  @Benchmark
+  public String deferredExpressions() {
+    return jinjava.render(deferredExpressions, bindings);
+  }
+
+  @Benchmark
+  public String deferredConditionals() {
+    return jinjava.render(deferredConditionals, bindings);
+  }
+
+}
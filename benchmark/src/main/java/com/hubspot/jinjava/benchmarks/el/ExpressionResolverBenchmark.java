@@ -0,0 +1,91 @@
+package com.hubspot.jinjava.benchmarks.el;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.ExpressionNode;
+import com.hubspot.jinjava.tree.Node;
+
+/**
+ * Measures ExpressionResolver.resolveExpression through the interpreter, both with and without a node to hang the
+ * parsed expression tree on.
+ */
+@State(Scope.Thread)
+public class ExpressionResolverBenchmark {
+
+  public JinjavaInterpreter interpreter;
+
+  public String literalExpression = "1 + 2 * 3";
+  public String propertyExpression = "item.name";
+  public String filterExpression = "item.name|lower|replace('item', 'thing')|length";
+  public String methodExpression = "items[3].getName().toUpperCase() ~ ' ' ~ user.address.city";
+
+  public Node propertyNode;
+  public Node filterNode;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    interpreter = new Jinjava().newInterpreter();
+    JinjavaInterpreter.pushCurrent(interpreter);
+
+    Map<String, Object> address = ImmutableMap.of("city", "Cambridge", "zip", "02141");
+    interpreter.getContext().put("item", Item.sampleItems(1).get(0));
+    interpreter.getContext().put("items", Item.sampleItems(10));
+    interpreter.getContext().put("user", ImmutableMap.of("name", "Jane", "address", address));
+
+    propertyNode = firstExpression("{{ " + propertyExpression + " }}");
+    filterNode = firstExpression("{{ " + filterExpression + " }}");
+  }
+
+  @TearDown
+  public void teardown() {
+    JinjavaInterpreter.popCurrent();
+  }
+
+  private ExpressionNode firstExpression(String template) {
+    return (ExpressionNode) interpreter.parse(template).getChildren().get(0);
+  }
+
+  @Benchmark
+  public Object literal() {
+    return interpreter.resolveELExpression(literalExpression, 1);
+  }
+
+  @Benchmark
+  public Object property() {
+    return interpreter.resolveELExpression(propertyExpression, 1);
+  }
+
+  @Benchmark
+  public Object filterChain() {
+    return interpreter.resolveELExpression(filterExpression, 1);
+  }
+
+  @Benchmark
+  public Object methodInvocation() {
+    return interpreter.resolveELExpression(methodExpression, 1);
+  }
+
+  @Benchmark
+  public Object propertyOnNode() {
+    return interpreter.resolveELExpression(propertyExpression, propertyNode);
+  }
+
+  @Benchmark
+  public Object filterChainOnNode() {
+    return interpreter.resolveELExpression(filterExpression, filterNode);
+  }
+
+}
@@ -0,0 +1,70 @@
+package com.hubspot.jinjava.benchmarks.filter;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.Node;
+
+/**
+ * Renders a single pre-parsed expression per hot filter over a list of items, so that the filter dominates the cost.
+ */
+@State(Scope.Thread)
+public class FilterBenchmark {
+
+  private static final ImmutableMap<String, String> TEMPLATES = ImmutableMap.<String, String> builder()
+      .put("escape", "{% for item in items %}{{ item.name|escape }}{% endfor %}")
+      .put("sort", "{{ items|sort(false, false, 'name')|length }}")
+      .put("map", "{{ items|map(attribute='price')|sum }}")
+      .put("groupby", "{% for group in items|groupby('category') %}{{ group.grouper }}{{ group.list|length }}{% endfor %}")
+      .put("tojson", "{{ names|tojson }}")
+      .put("datetimeformat", "{% for item in items %}{{ now|datetimeformat('%Y-%m-%d %H:%M') }}{% endfor %}")
+      .build();
+
+  @Param({ "escape", "sort", "map", "groupby", "tojson", "datetimeformat" })
+  public String filter;
+
+  @Param({ "100" })
+  public int size;
+
+  public JinjavaInterpreter interpreter;
+  public Node template;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    interpreter = new Jinjava().newInterpreter();
+    JinjavaInterpreter.pushCurrent(interpreter);
+
+    List<Item> items = Item.sampleItems(size);
+    interpreter.getContext().put("items", items);
+    interpreter.getContext().put("names", items.stream().map(Item::getName).toArray());
+    interpreter.getContext().put("now", ZonedDateTime.of(2019, 6, 1, 12, 30, 0, 0, ZoneOffset.UTC));
+
+    template = interpreter.parse(TEMPLATES.get(filter));
+  }
+
+  @TearDown
+  public void teardown() {
+    JinjavaInterpreter.popCurrent();
+  }
+
+  @Benchmark
+  public String render() {
+    return interpreter.render(template);
+  }
+
+}
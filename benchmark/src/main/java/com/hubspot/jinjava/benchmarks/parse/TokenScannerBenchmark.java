@@ -0,0 +1,100 @@
+package com.hubspot.jinjava.benchmarks.parse;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.tree.parse.Token;
+import com.hubspot.jinjava.tree.parse.TokenScanner;
+
+@State(Scope.Benchmark)
+public class TokenScannerBenchmark {
+
+  @Param({ "1", "50" })
+  public int repetitions;
+
+  public JinjavaConfig config;
+  public String template;
+  public String textOnlyTemplate;
+  public String largeHtmlTemplate;
+
+  /**
+   * Counts the characters scanned, which JMH reports as a rate next to the operation rate. The templates are ASCII, so
+   * {@code scannedChars} in ops/s is the scan throughput in bytes per second; divide by 10^6 for MB/s.
+   */
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class Throughput {
+    public long scannedChars;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      scannedChars = 0;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    config = JinjavaConfig.newBuilder().build();
+    template = BenchmarkSupport.sampleTemplate(repetitions);
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < repetitions * 20; i++) {
+      sb.append("<p>Plain markup without any template syntax, line ").append(i).append(".</p>\n");
+    }
+    textOnlyTemplate = sb.toString();
+
+    // roughly 20KB of page markup per repetition, with a handful of tags and expressions in each section
+    StringBuilder html = new StringBuilder();
+    for (int i = 0; i < repetitions; i++) {
+      html.append("<section class=\"content-").append(i).append("\">\n")
+          .append("  <style>.content-").append(i).append(" { margin: 0 auto; padding: 4px 8px; }</style>\n")
+          .append("  <h2>{{ title }}</h2>\n");
+      for (int j = 0; j < 200; j++) {
+        html.append("  <p class=\"para\" data-index=\"").append(j)
+            .append("\">Static copy that makes up most of a real page.</p>\n");
+      }
+      html.append("  {% if show_footer %}<footer>{{ footer|e }}</footer>{% endif %}\n")
+          .append("</section>\n");
+    }
+    largeHtmlTemplate = html.toString();
+  }
+
+  @Benchmark
+  public void scanMixedTemplate(Blackhole bh) {
+    TokenScanner scanner = new TokenScanner(template, config);
+    while (scanner.hasNext()) {
+      Token token = scanner.next();
+      bh.consume(token);
+    }
+  }
+
+  @Benchmark
+  public void scanTextOnlyTemplate(Blackhole bh) {
+    TokenScanner scanner = new TokenScanner(textOnlyTemplate, config);
+    while (scanner.hasNext()) {
+      Token token = scanner.next();
+      bh.consume(token);
+    }
+  }
+
+  @Benchmark
+  public void scanLargeHtmlTemplate(Throughput throughput, Blackhole bh) {
+    TokenScanner scanner = new TokenScanner(largeHtmlTemplate, config);
+    while (scanner.hasNext()) {
+      Token token = scanner.next();
+      bh.consume(token);
+    }
+    throughput.scannedChars += largeHtmlTemplate.length();
+  }
+
+}
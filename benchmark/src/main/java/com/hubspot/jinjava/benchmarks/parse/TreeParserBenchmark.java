@@ -0,0 +1,42 @@
+package com.hubspot.jinjava.benchmarks.parse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.TreeParser;
+
+@State(Scope.Benchmark)
+public class TreeParserBenchmark {
+
+  @Param({ "1", "50" })
+  public int repetitions;
+
+  public JinjavaInterpreter interpreter;
+  public String template;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    interpreter = new Jinjava().newInterpreter();
+    template = BenchmarkSupport.sampleTemplate(repetitions);
+  }
+
+  @Benchmark
+  public Node buildTree() {
+    return new TreeParser(interpreter, template).buildTree();
+  }
+
+  @Benchmark
+  public Node parseCached() {
+    return interpreter.parseCached(template);
+  }
+
+}
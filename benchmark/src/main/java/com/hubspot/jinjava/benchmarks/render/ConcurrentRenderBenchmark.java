@@ -0,0 +1,49 @@
+package com.hubspot.jinjava.benchmarks.render;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+
+/**
+ * Renders the same template with one shared {@link Jinjava} from a single thread and from as many threads as there are
+ * cores. Renders share only the global context and the parsed tree cache, so the throughput of the multi-threaded
+ * benchmark should be the single-threaded throughput times the number of cores.
+ */
+@State(Scope.Benchmark)
+public class ConcurrentRenderBenchmark {
+
+  public Jinjava jinjava;
+  public Map<String, ?> bindings;
+  public String template;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    jinjava = new Jinjava();
+    bindings = ImmutableMap.of("title", "Products", "loop_index", 1, "items", Item.sampleItems(10));
+    template = BenchmarkSupport.sampleTemplate(10);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String renderOnOneThread() {
+    return jinjava.render(template, bindings);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public String renderOnEveryCore() {
+    return jinjava.render(template, bindings);
+  }
+
+}
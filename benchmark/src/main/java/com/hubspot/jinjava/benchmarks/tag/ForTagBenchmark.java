@@ -0,0 +1,55 @@
+package com.hubspot.jinjava.benchmarks.tag;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+
+@State(Scope.Benchmark)
+public class ForTagBenchmark {
+
+  @Param({ "10", "1000", "10000" })
+  public int size;
+
+  public Jinjava jinjava;
+  public Map<String, ?> bindings;
+
+  public String simpleLoop = "{% for item in items %}{{ item.id }},{% endfor %}";
+  public String loopWithLoopVars = "{% for item in items %}{% if loop.first %}[{% endif %}{{ loop.index }}:{{ item.name }}{% if not loop.last %},{% else %}]{% endif %}{% endfor %}";
+  public String nestedLoop = "{% for row in rows %}{% for item in row %}{{ item.id }}{% endfor %}{% endfor %}";
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    jinjava = new Jinjava();
+    List<Item> items = Item.sampleItems(size);
+    bindings = ImmutableMap.of("items", items, "rows", Lists.partition(items, 10));
+  }
+
+  @Benchmark
+  public String simpleLoop() {
+    return jinjava.render(simpleLoop, bindings);
+  }
+
+  @Benchmark
+  public String loopWithLoopVars() {
+    return jinjava.render(loopWithLoopVars, bindings);
+  }
+
+  @Benchmark
+  public String nestedLoop() {
+    return jinjava.render(nestedLoop, bindings);
+  }
+
+}
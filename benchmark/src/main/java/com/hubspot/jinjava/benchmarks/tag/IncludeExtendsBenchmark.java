@@ -0,0 +1,65 @@
+package com.hubspot.jinjava.benchmarks.tag;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+
+/**
+ * Renders chains of includes and of extends of configurable depth, served from memory.
+ */
+@State(Scope.Benchmark)
+public class IncludeExtendsBenchmark {
+
+  @Param({ "1", "5" })
+  public int depth;
+
+  public Jinjava jinjava;
+  public Map<String, ?> bindings;
+
+  public String includeChain;
+  public String extendsChain;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    ImmutableMap.Builder<String, String> templates = ImmutableMap.builder();
+    for (int i = 0; i < depth; i++) {
+      String next = i + 1 < depth ? "{% include 'include-" + (i + 1) + ".jinja' %}" : "";
+      templates.put("include-" + i + ".jinja", "<section>{% for item in items %}{{ item.name|e }}{% endfor %}" + next + "</section>");
+
+      String parent = i + 1 < depth ? "{% extends 'layout-" + (i + 1) + ".jinja' %}" : "";
+      String body = i + 1 < depth
+          ? "{% block footer %}<footer>layout " + i + "</footer>{% endblock %}"
+          : "<html><body>{% block content %}{% endblock %}{% block footer %}{% endblock %}</body></html>";
+      templates.put("layout-" + i + ".jinja", parent + body);
+    }
+
+    jinjava = new Jinjava();
+    jinjava.setResourceLocator(BenchmarkSupport.inMemoryLocator(templates.build()));
+    bindings = ImmutableMap.of("items", Item.sampleItems(20));
+
+    includeChain = "{% include 'include-0.jinja' %}";
+    extendsChain = "{% extends 'layout-0.jinja' %}{% block content %}<main>{% for item in items %}{{ item.id }}{% endfor %}</main>{% endblock %}";
+  }
+
+  @Benchmark
+  public String includeChain() {
+    return jinjava.render(includeChain, bindings);
+  }
+
+  @Benchmark
+  public String extendsChain() {
+    return jinjava.render(extendsChain, bindings);
+  }
+
+}
@@ -0,0 +1,60 @@
+package com.hubspot.jinjava.benchmarks.tag;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.benchmarks.BenchmarkSupport;
+import com.hubspot.jinjava.benchmarks.Item;
+
+@State(Scope.Benchmark)
+public class MacroBenchmark {
+
+  private static final String MACROS = "{% macro price(value, currency='$') %}{{ currency }}{{ value|round(2) }}{% endmacro %}"
+      + "{% macro row(item) %}<tr><td>{{ item.name|e }}</td><td>{{ price(item.price) }}</td></tr>{% endmacro %}";
+
+  @Param({ "100" })
+  public int size;
+
+  public Jinjava jinjava;
+  public Map<String, ?> bindings;
+
+  public String localMacroCalls;
+  public String nestedMacroCalls;
+  public String importedMacroCalls;
+
+  @Setup
+  public void setup() {
+    BenchmarkSupport.quietLogging();
+
+    jinjava = new Jinjava();
+    jinjava.setResourceLocator(BenchmarkSupport.inMemoryLocator(ImmutableMap.of("macros.jinja", MACROS)));
+    bindings = ImmutableMap.of("items", Item.sampleItems(size));
+
+    localMacroCalls = MACROS + "{% for item in items %}{{ price(item.price) }}{% endfor %}";
+    nestedMacroCalls = MACROS + "<table>{% for item in items %}{{ row(item) }}{% endfor %}</table>";
+    importedMacroCalls = "{% import 'macros.jinja' as m %}<table>{% for item in items %}{{ m.row(item) }}{% endfor %}</table>";
+  }
+
+  @Benchmark
+  public String localMacroCalls() {
+    return jinjava.render(localMacroCalls, bindings);
+  }
+
+  @Benchmark
+  public String nestedMacroCalls() {
+    return jinjava.render(nestedMacroCalls, bindings);
+  }
+
+  @Benchmark
+  public String importedMacroCalls() {
+    return jinjava.render(importedMacroCalls, bindings);
+  }
+
+}
@@ -18,13 +18,17 @@ package com.hubspot.jinjava;
 import com.hubspot.jinjava.doc.JinjavaDoc;
 import com.hubspot.jinjava.doc.JinjavaDocFactory;
 import com.hubspot.jinjava.el.ExtendedSyntaxBuilder;
+import com.hubspot.jinjava.el.MacroFunctionMapper;
 import com.hubspot.jinjava.el.TruthyTypeConverter;
+import com.hubspot.jinjava.el.expr.ExprTree;
 import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.DeferredValue;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 import com.hubspot.jinjava.interpret.InterpretException;
 import com.hubspot.jinjava.interpret.InvalidArgumentException;
 import com.hubspot.jinjava.interpret.InvalidInputException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.PrerenderedTemplate;
 import com.hubspot.jinjava.interpret.RenderResult;
 import com.hubspot.jinjava.interpret.TemplateError;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
@@ -35,13 +39,22 @@ import com.hubspot.jinjava.lib.fn.ELFunctionDefinition;
 import com.hubspot.jinjava.lib.tag.Tag;
 import com.hubspot.jinjava.loader.ClasspathResourceLocator;
 import com.hubspot.jinjava.loader.ResourceLocator;
+import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.cache.DefaultParsedTreeCache;
+import com.hubspot.jinjava.tree.cache.ParsedTreeCache;
 import de.odysseus.el.ExpressionFactoryImpl;
 import de.odysseus.el.misc.TypeConverter;
 import de.odysseus.el.tree.TreeBuilder;
+import de.odysseus.el.tree.TreeStore;
+import de.odysseus.el.tree.impl.Builder.Feature;
+import de.odysseus.el.tree.impl.Cache;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.el.ExpressionFactory;
 
@@ -60,10 +73,17 @@ import javax.el.ExpressionFactory;
  * @author jstehler
  */
 public class Jinjava {
+  private static final int EXPRESSION_CACHE_SIZE = 1000;
+
   private ExpressionFactory expressionFactory;
+  private TreeBuilder expressionTreeBuilder;
+  private TreeStore expressionTreeStore;
+  private TypeConverter typeConverter;
   private ResourceLocator resourceLocator;
+  private ParsedTreeCache parsedTreeCache;
 
   private Context globalContext;
+  private volatile LibrarySnapshot librarySnapshot;
   private JinjavaConfig globalConfig;
 
   /**
@@ -83,26 +103,51 @@ public class Jinjava {
     this.globalConfig = globalConfig;
     this.globalContext = new Context();
 
-    Properties expConfig = new Properties();
-    expConfig.setProperty(
-      TreeBuilder.class.getName(),
-      ExtendedSyntaxBuilder.class.getName()
+    // the same features and cache size JUEL's factory uses by default
+    TreeBuilder treeBuilder = new ExtendedSyntaxBuilder(
+      Feature.METHOD_INVOCATIONS,
+      Feature.VARARGS
     );
-
-    TypeConverter converter = new TruthyTypeConverter();
-    this.expressionFactory = new ExpressionFactoryImpl(expConfig, converter);
+    this.expressionTreeBuilder = treeBuilder;
+    this.typeConverter = new TruthyTypeConverter();
+    // trees are stored ready to be evaluated directly, for expressions resolved without a
+    // node to store their tree on, or whose node already stores as many as it holds
+    TreeBuilder storedTreeBuilder = expression ->
+      ExprTree.of(treeBuilder.build(expression));
+    this.expressionTreeStore =
+      new TreeStore(storedTreeBuilder, new Cache(EXPRESSION_CACHE_SIZE));
+    this.expressionFactory =
+      new ExpressionFactoryImpl(expressionTreeStore, typeConverter);
 
     this.resourceLocator = new ClasspathResourceLocator();
+    this.parsedTreeCache = DefaultParsedTreeCache.newBuilder().build();
   }
 
   /**
-   * Set the object responsible for locating templates referenced in other templates
+   * Set the object responsible for locating templates referenced in other templates. Trees parsed from resources
+   * loaded by the previous locator are dropped from the parsed tree cache, as the new locator may serve different
+   * contents at the same locations and versions.
    *
    * @param resourceLocator
    *          the locator to use for loading all templates
    */
   public void setResourceLocator(ResourceLocator resourceLocator) {
     this.resourceLocator = resourceLocator;
+    parsedTreeCache.invalidateAll();
+  }
+
+  /**
+   * Set the cache used to share parsed template trees between render operations performed by this instance
+   *
+   * @param parsedTreeCache
+   *          the cache to store parsed trees in
+   */
+  public void setParsedTreeCache(ParsedTreeCache parsedTreeCache) {
+    this.parsedTreeCache = parsedTreeCache;
+  }
+
+  public ParsedTreeCache getParsedTreeCache() {
+    return parsedTreeCache;
   }
 
   /**
@@ -112,6 +157,28 @@ public class Jinjava {
     return expressionFactory;
   }
 
+  /**
+   * @return The builder used to parse expressions into trees which can be evaluated directly, bypassing the EL factory.
+   */
+  public TreeBuilder getExpressionTreeBuilder() {
+    return expressionTreeBuilder;
+  }
+
+  /**
+   * @return The store of parsed expression trees shared by every render performed by this instance, which the EL
+   *         factory also parses expressions through.
+   */
+  public TreeStore getExpressionTreeStore() {
+    return expressionTreeStore;
+  }
+
+  /**
+   * @return The converter used to coerce the results of expressions evaluated by this instance.
+   */
+  public TypeConverter getTypeConverter() {
+    return typeConverter;
+  }
+
   /**
    * @return The global config used as a base for all render operations performed by this instance.
    */
@@ -132,6 +199,14 @@ public class Jinjava {
     return copyGlobalContext();
   }
 
+  /**
+   * @return the functions registered on the global context keyed by qualified name, shared
+   *         by the expression resolvers of every interpreter created by this instance
+   */
+  public Map<String, Method> getGlobalFunctions() {
+    return getLibrarySnapshot().functions;
+  }
+
   public ResourceLocator getResourceLocator() {
     return resourceLocator;
   }
@@ -156,7 +231,109 @@ public class Jinjava {
    */
   public String render(String template, Map<String, ?> bindings) {
     RenderResult result = renderForResult(template, bindings);
+    throwFatalErrors(template, result);
+    return result.getOutput();
+  }
+
+  /**
+   * Render the given template using the given context bindings, writing the output to the given sink as it's rendered rather than building up the whole page into a single
+   * string. The bodies of for and if tags, and of macros called on their own in an expression, are written as they're rendered, while other tags such as includes are
+   * written once they've been rendered in full. See {@link JinjavaInterpreter#render(com.hubspot.jinjava.tree.Node, Appendable)} for when output is held back. Output may
+   * already have been written when a fatal error is encountered.
+   *
+   * @param template
+   *          jinja source template
+   * @param bindings
+   *          map of objects to put into scope for this rendering action
+   * @param out
+   *          sink to write the rendered template to
+   * @throws IOException
+   *           if writing to the sink fails
+   * @throws InterpretException
+   *           if any syntax errors were encountered during rendering
+   */
+  public void render(String template, Map<String, ?> bindings, Appendable out)
+    throws IOException {
+    RenderResult result = renderForResult(
+      interpreter -> interpreter.parseCached(template),
+      bindings,
+      globalConfig,
+      out
+    );
+    throwFatalErrors(template, result);
+  }
+
+  /**
+   * Render the given template as far as it can be without the values bound to a {@link DeferredValue}, for the rest to be completed later by {@link #render(PrerenderedTemplate, Map)}. The
+   * result can be rendered many times with different bindings, and only the deferred parts of the template are evaluated each time.
+   *
+   * @param template
+   *          jinja source template
+   * @param bindings
+   *          map of objects to put into scope for the first pass, with {@link DeferredValue}s for anything only known in the second
+   * @return the partially rendered template
+   * @throws InterpretException
+   *           if any syntax errors were encountered during rendering
+   */
+  public PrerenderedTemplate prerender(String template, Map<String, ?> bindings) {
+    RenderResult result = renderForResult(template, bindings);
+    throwFatalErrors(template, result);
+    return PrerenderedTemplate.from(
+      result.getOutput(),
+      result.getContext(),
+      new JinjavaInterpreter(this, getLibrarySnapshot().context, globalConfig)
+    );
+  }
+
+  /**
+   * Complete the render of a template prerendered by {@link #prerender(String, Map)}.
+   *
+   * @param prerendered
+   *          partially rendered template
+   * @param bindings
+   *          map of objects to put into scope for the deferred parts of the template, in addition to the values captured by the first pass
+   * @return the rendered template
+   * @throws InterpretException
+   *           if any syntax errors were encountered during rendering
+   */
+  public String render(PrerenderedTemplate prerendered, Map<String, ?> bindings) {
+    RenderResult result = renderForResult(prerendered, bindings);
+    if (result.hasErrors()) {
+      throwFatalErrors(prerendered.getImage(), result);
+    }
+    return result.getOutput();
+  }
 
+  /**
+   * Complete the render of a template prerendered by {@link #prerender(String, Map)}, returning metadata about the render process along with the output, as
+   * {@link #renderForResult(String, Map)} does.
+   *
+   * @param prerendered
+   *          partially rendered template
+   * @param bindings
+   *          map of objects to put into scope for the deferred parts of the template, in addition to the values captured by the first pass
+   * @return result object containing rendered output, render context, and any encountered errors
+   */
+  public RenderResult renderForResult(
+    PrerenderedTemplate prerendered,
+    Map<String, ?> bindings
+  ) {
+    Map<String, Object> allBindings = new HashMap<>(prerendered.getBindings());
+    allBindings.putAll(bindings);
+    try {
+      return renderForResult(
+        interpreter -> prerendered.getRoot(),
+        allBindings,
+        globalConfig,
+        null
+      );
+    } catch (IOException e) {
+      // nothing is written anywhere when rendering to a string
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void throwFatalErrors(String template, RenderResult result) {
     List<TemplateError> fatalErrors = result
       .getErrors()
       .stream()
@@ -166,8 +343,6 @@ public class Jinjava {
     if (!fatalErrors.isEmpty()) {
       throw new FatalTemplateErrorsException(template, fatalErrors);
     }
-
-    return result.getOutput();
   }
 
   /**
@@ -201,6 +376,26 @@ public class Jinjava {
     Map<String, ?> bindings,
     JinjavaConfig renderConfig
   ) {
+    try {
+      return renderForResult(
+        interpreter -> interpreter.parseCached(template),
+        bindings,
+        renderConfig,
+        null
+      );
+    } catch (IOException e) {
+      // nothing is written anywhere when rendering to a string
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private RenderResult renderForResult(
+    Function<JinjavaInterpreter, Node> parser,
+    Map<String, ?> bindings,
+    JinjavaConfig renderConfig,
+    Appendable out
+  )
+    throws IOException {
     Context context;
     JinjavaInterpreter parentInterpreter = JinjavaInterpreter.getCurrent();
     if (parentInterpreter != null) {
@@ -211,12 +406,13 @@ public class Jinjava {
       }
       context =
         new Context(
-          copyGlobalContext(),
+          getLibrarySnapshot().context,
           bindingsWithParentContext,
           renderConfig.getDisabled()
         );
     } else {
-      context = new Context(copyGlobalContext(), bindings, renderConfig.getDisabled());
+      context =
+        new Context(getLibrarySnapshot().context, bindings, renderConfig.getDisabled());
     }
 
     JinjavaInterpreter interpreter = globalConfig
@@ -225,11 +421,18 @@ public class Jinjava {
     JinjavaInterpreter.pushCurrent(interpreter);
 
     try {
-      String result = interpreter.render(template);
+      String result;
+      if (out == null) {
+        result = interpreter.render(parser.apply(interpreter), true);
+      } else {
+        interpreter.render(parser.apply(interpreter), out);
+        result = "";
+      }
       return new RenderResult(
         result,
         interpreter.getContext(),
-        interpreter.getErrorsCopy()
+        interpreter.getErrorsCopy(),
+        interpreter.getProfile().orElse(null)
       );
     } catch (InterpretException e) {
       if (e instanceof TemplateSyntaxException) {
@@ -256,6 +459,8 @@ public class Jinjava {
         interpreter.getContext(),
         interpreter.getErrorsCopy()
       );
+    } catch (IOException e) {
+      throw e;
     } catch (Exception e) {
       return new RenderResult(
         TemplateError.fromException(e),
@@ -263,7 +468,8 @@ public class Jinjava {
         interpreter.getErrorsCopy()
       );
     } finally {
-      globalContext.reset();
+      // what the render resolved is kept on its own context, as the library snapshot it's
+      // rendered under doesn't record it, so nothing is left on any shared context to clear
       JinjavaInterpreter.popCurrent();
     }
   }
@@ -295,6 +501,18 @@ public class Jinjava {
     globalContext.registerExpTest(t);
   }
 
+  private LibrarySnapshot getLibrarySnapshot() {
+    LibrarySnapshot snapshot = librarySnapshot;
+    int modificationCount = globalContext.getLibraryModificationCount();
+    if (snapshot == null || snapshot.modificationCount != modificationCount) {
+      snapshot = new LibrarySnapshot(modificationCount, globalContext);
+      librarySnapshot = snapshot;
+      // cached trees hold on to the tag instances they were parsed with
+      parsedTreeCache.invalidateAll();
+    }
+    return snapshot;
+  }
+
   private Context copyGlobalContext() {
     Context context = new Context(null, globalContext);
     // copy registered.
@@ -304,4 +522,20 @@ public class Jinjava {
     globalContext.getAllTags().forEach(context::registerTag);
     return context;
   }
+
+  /**
+   * The libraries registered on the global context at a point in time, shared as the root
+   * context of every render until another exp test, filter, function or tag is registered.
+   */
+  private static class LibrarySnapshot {
+    private final int modificationCount;
+    private final Context context;
+    private final Map<String, Method> functions;
+
+    LibrarySnapshot(int modificationCount, Context globalContext) {
+      this.modificationCount = modificationCount;
+      this.context = Context.newSnapshot(globalContext);
+      this.functions = MacroFunctionMapper.buildFunctionMap(context.getAllFunctions());
+    }
+  }
 }
@@ -21,6 +21,7 @@ import com.hubspot.jinjava.interpret.Context.Library;
 import com.hubspot.jinjava.interpret.InterpreterFactory;
 import com.hubspot.jinjava.interpret.JinjavaInterpreterFactory;
 import com.hubspot.jinjava.random.RandomNumberGeneratorStrategy;
+import com.hubspot.jinjava.tree.output.OutputSizeUnit;
 import com.hubspot.jinjava.tree.parse.DefaultTokenScannerSymbols;
 import com.hubspot.jinjava.tree.parse.TokenScannerSymbols;
 import java.nio.charset.Charset;
@@ -30,7 +31,11 @@ import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import javax.el.ELResolver;
 
 public class JinjavaConfig {
@@ -59,6 +64,10 @@ public class JinjavaConfig {
   private final ELResolver elResolver;
   private final boolean iterateOverMapKeys;
   private final boolean preserveForFinalPass;
+  private final boolean profilingEnabled;
+  private final OutputSizeUnit outputSizeUnit;
+  private final Executor parallelRenderExecutor;
+  private final boolean controlFlowStackTracesEnabled;
 
   public static Builder newBuilder() {
     return new Builder();
@@ -110,6 +119,10 @@ public class JinjavaConfig {
     elResolver = builder.elResolver;
     iterateOverMapKeys = builder.iterateOverMapKeys;
     preserveForFinalPass = builder.preserveForFinalPass;
+    profilingEnabled = builder.profilingEnabled;
+    outputSizeUnit = builder.outputSizeUnit;
+    parallelRenderExecutor = builder.parallelRenderExecutor;
+    controlFlowStackTracesEnabled = builder.controlFlowStackTracesEnabled;
   }
 
   public Charset getCharset() {
@@ -204,6 +217,30 @@ public class JinjavaConfig {
     return preserveForFinalPass;
   }
 
+  public boolean isProfilingEnabled() {
+    return profilingEnabled;
+  }
+
+  public OutputSizeUnit getOutputSizeUnit() {
+    return outputSizeUnit;
+  }
+
+  /**
+   * @return the executor used to render independent includes and blocks concurrently, if
+   *         parallel rendering is enabled
+   */
+  public Optional<Executor> getParallelRenderExecutor() {
+    return Optional.ofNullable(parallelRenderExecutor);
+  }
+
+  /**
+   * @return whether exceptions used for flow control, such as those thrown on reaching a
+   *         deferred value, record where they were thrown
+   */
+  public boolean isControlFlowStackTracesEnabled() {
+    return controlFlowStackTracesEnabled;
+  }
+
   public static class Builder {
     private Charset charset = StandardCharsets.UTF_8;
     private Locale locale = Locale.ENGLISH;
@@ -228,6 +265,10 @@ public class JinjavaConfig {
     private ELResolver elResolver = JinjavaInterpreterResolver.DEFAULT_RESOLVER_READ_ONLY;
     private boolean iterateOverMapKeys;
     private boolean preserveForFinalPass;
+    private boolean profilingEnabled = false;
+    private OutputSizeUnit outputSizeUnit = OutputSizeUnit.UTF8_BYTES;
+    private Executor parallelRenderExecutor;
+    private boolean controlFlowStackTracesEnabled = false;
     private int maxListSize = Integer.MAX_VALUE;
     private int maxMapSize = Integer.MAX_VALUE;
 
@@ -353,8 +394,64 @@ public class JinjavaConfig {
       return this;
     }
 
+    public Builder withProfilingEnabled(boolean profilingEnabled) {
+      this.profilingEnabled = profilingEnabled;
+      return this;
+    }
+
+    public Builder withOutputSizeUnit(OutputSizeUnit outputSizeUnit) {
+      this.outputSizeUnit = outputSizeUnit;
+      return this;
+    }
+
+    /**
+     * Render side-effect-free includes and block overrides concurrently on the given
+     * executor. Includes and blocks which could set variables, register macros or call
+     * methods are still rendered in order on the rendering thread.
+     */
+    public Builder withParallelRenderExecutor(Executor parallelRenderExecutor) {
+      this.parallelRenderExecutor = parallelRenderExecutor;
+      return this;
+    }
+
+    /**
+     * Enable parallel rendering on a shared default executor, which starts a virtual thread
+     * per task when the JVM supports them and uses the common fork-join pool otherwise.
+     */
+    public Builder withParallelRenderingEnabled(boolean parallelRenderingEnabled) {
+      this.parallelRenderExecutor =
+        parallelRenderingEnabled ? DefaultRenderExecutor.INSTANCE : null;
+      return this;
+    }
+
+    /**
+     * Fill in the stack traces of the {@link com.hubspot.jinjava.interpret.DeferredValueException}
+     * and {@link com.hubspot.jinjava.interpret.TagCycleException} thrown while rendering. They
+     * unwind rendering rather than report bugs, and are thrown often enough when rendering
+     * deferred values that filling in their traces is costly, so by default they have none.
+     */
+    public Builder withControlFlowStackTracesEnabled(
+      boolean controlFlowStackTracesEnabled
+    ) {
+      this.controlFlowStackTracesEnabled = controlFlowStackTracesEnabled;
+      return this;
+    }
+
     public JinjavaConfig build() {
       return new JinjavaConfig(this);
     }
   }
+
+  private static class DefaultRenderExecutor {
+    private static final Executor INSTANCE = create();
+
+    private static Executor create() {
+      try {
+        return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+      } catch (ReflectiveOperationException e) {
+        return ForkJoinPool.commonPool();
+      }
+    }
+  }
 }
@@ -4,6 +4,8 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMess
 
 import com.google.common.collect.ImmutableMap;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.el.expr.Expr;
+import com.hubspot.jinjava.el.expr.ExprTree;
 import com.hubspot.jinjava.el.ext.NamedParameter;
 import com.hubspot.jinjava.interpret.DeferredValueException;
 import com.hubspot.jinjava.interpret.DisabledException;
@@ -20,9 +22,14 @@ import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
 import com.hubspot.jinjava.interpret.TemplateSyntaxException;
 import com.hubspot.jinjava.interpret.UnknownTokenException;
 import com.hubspot.jinjava.interpret.errorcategory.BasicTemplateErrorCategory;
-import com.hubspot.jinjava.lib.fn.ELFunctionDefinition;
+import com.hubspot.jinjava.tree.Node;
+import de.odysseus.el.misc.TypeConverter;
+import de.odysseus.el.tree.Bindings;
+import de.odysseus.el.tree.Tree;
 import de.odysseus.el.tree.TreeBuilderException;
+import de.odysseus.el.tree.TreeStore;
 import java.util.List;
+import java.util.Optional;
 import javax.el.ELException;
 import javax.el.ExpressionFactory;
 import javax.el.PropertyNotFoundException;
@@ -35,6 +42,8 @@ import org.apache.commons.lang3.StringUtils;
 public class ExpressionResolver {
   private final JinjavaInterpreter interpreter;
   private final ExpressionFactory expressionFactory;
+  private final TreeStore treeStore;
+  private final TypeConverter typeConverter;
   private final JinjavaInterpreterResolver resolver;
   private final JinjavaELContext elContext;
 
@@ -44,12 +53,12 @@ public class ExpressionResolver {
   public ExpressionResolver(JinjavaInterpreter interpreter, Jinjava jinjava) {
     this.interpreter = interpreter;
     this.expressionFactory = jinjava.getExpressionFactory();
+    this.treeStore = jinjava.getExpressionTreeStore();
+    this.typeConverter = jinjava.getTypeConverter();
 
     this.resolver = new JinjavaInterpreterResolver(interpreter);
-    this.elContext = new JinjavaELContext(interpreter, resolver);
-    for (ELFunctionDefinition fn : jinjava.getGlobalContext().getAllFunctions()) {
-      this.elContext.setFunction(fn.getNamespace(), fn.getLocalName(), fn.getMethod());
-    }
+    this.elContext =
+      new JinjavaELContext(interpreter, resolver, jinjava.getGlobalFunctions());
   }
 
   /**
@@ -59,6 +68,18 @@ public class ExpressionResolver {
    * @return Value of expression.
    */
   public Object resolveExpression(String expression) {
+    return resolveExpression(expression, null);
+  }
+
+  /**
+   * Resolve expression against current context, using the expression tree cached on the
+   * given node if there is one.
+   *
+   * @param expression Jinja expression.
+   * @param node Node which owns the expression, or null to go through the expression factory.
+   * @return Value of expression.
+   */
+  public Object resolveExpression(String expression, Node node) {
     if (StringUtils.isBlank(expression)) {
       return null;
     }
@@ -66,14 +87,36 @@ public class ExpressionResolver {
     interpreter.getContext().addResolvedExpression(expression.trim());
 
     try {
-      String elExpression =
-        EXPRESSION_START_TOKEN + expression.trim() + EXPRESSION_END_TOKEN;
-      ValueExpression valueExp = expressionFactory.createValueExpression(
-        elContext,
-        elExpression,
-        Object.class
-      );
-      Object result = valueExp.getValue(elContext);
+      Object result;
+      if (node == null) {
+        String elExpression =
+          EXPRESSION_START_TOKEN + expression.trim() + EXPRESSION_END_TOKEN;
+        ValueExpression valueExp = expressionFactory.createValueExpression(
+          elContext,
+          elExpression,
+          Object.class
+        );
+        result = valueExp.getValue(elContext);
+      } else {
+        // constant expressions are folded when the tree is built
+        result = node.getConstantValue(expression, interpreter);
+        if (result == null) {
+          Tree tree = node.getExpressionTree(expression, this::buildTree);
+          Optional<Expr> expr = tree instanceof ExprTree
+            ? ((ExprTree) tree).getExpr()
+            : Optional.empty();
+          if (expr.isPresent()) {
+            result = typeConverter.convert(expr.get().eval(elContext), Object.class);
+          } else {
+            Bindings bindings = tree.bind(
+              elContext.getFunctionMapper(),
+              elContext.getVariableMapper(),
+              typeConverter
+            );
+            result = tree.getRoot().getValue(bindings, elContext, Object.class);
+          }
+        }
+      }
       if (result == null && interpreter.getConfig().isFailOnUnknownTokens()) {
         throw new UnknownTokenException(
           expression,
@@ -211,6 +254,25 @@ public class ExpressionResolver {
     return null;
   }
 
+  /**
+   * Parse an expression without resolving it, caching the tree on the node just as
+   * {@link #resolveExpression(String, Node)} does.
+   *
+   * @param expression Jinja expression.
+   * @param node Node which owns the expression.
+   * @return Parsed expression tree.
+   * @throws TreeBuilderException if the expression can't be parsed.
+   */
+  public Tree getExpressionTree(String expression, Node node) {
+    return node.getExpressionTree(expression, this::buildTree);
+  }
+
+  private Tree buildTree(String expression) {
+    return ExprTree.of(
+      treeStore.get(EXPRESSION_START_TOKEN + expression.trim() + EXPRESSION_END_TOKEN)
+    );
+  }
+
   private void validateResult(Object result) {
     if (result instanceof NamedParameter) {
       throw new ELException(
@@ -3,10 +3,13 @@ package com.hubspot.jinjava.el;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import de.odysseus.el.util.SimpleContext;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
 import javax.el.ELResolver;
 
 public class JinjavaELContext extends SimpleContext {
   private JinjavaInterpreter interpreter;
+  private Map<String, Method> functions = Collections.emptyMap();
   private MacroFunctionMapper functionMapper;
 
   public JinjavaELContext() {
@@ -18,10 +21,19 @@ public class JinjavaELContext extends SimpleContext {
     this.interpreter = interpreter;
   }
 
+  public JinjavaELContext(
+    JinjavaInterpreter interpreter,
+    ELResolver resolver,
+    Map<String, Method> functions
+  ) {
+    this(interpreter, resolver);
+    this.functions = functions;
+  }
+
   @Override
   public MacroFunctionMapper getFunctionMapper() {
     if (functionMapper == null) {
-      functionMapper = new MacroFunctionMapper(interpreter);
+      functionMapper = new MacroFunctionMapper(interpreter, functions);
     }
     return functionMapper;
   }
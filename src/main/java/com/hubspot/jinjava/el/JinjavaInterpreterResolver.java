@@ -2,8 +2,10 @@ package com.hubspot.jinjava.el;
 
 import static com.hubspot.jinjava.util.Logging.ENGINE_LOG;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.hubspot.jinjava.el.ext.AbstractCallableMethod;
+import com.hubspot.jinjava.el.ext.BeanAccessors;
 import com.hubspot.jinjava.el.ext.ExtendedParser;
 import com.hubspot.jinjava.el.ext.JinjavaBeanELResolver;
 import com.hubspot.jinjava.el.ext.JinjavaListELResolver;
@@ -18,6 +20,9 @@ import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
 import com.hubspot.jinjava.interpret.errorcategory.BasicTemplateErrorCategory;
+import com.hubspot.jinjava.interpret.profile.ProfileKind;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
+import com.hubspot.jinjava.lib.filter.Filter;
 import com.hubspot.jinjava.objects.PyWrapper;
 import com.hubspot.jinjava.objects.collections.SizeLimitingPyList;
 import com.hubspot.jinjava.objects.collections.SizeLimitingPyMap;
@@ -50,33 +55,53 @@ import org.apache.commons.lang3.LocaleUtils;
 import org.apache.commons.lang3.StringUtils;
 
 public class JinjavaInterpreterResolver extends SimpleResolver {
-  public static final ELResolver DEFAULT_RESOLVER_READ_ONLY = new CompositeELResolver() {
-
-    {
-      add(new ArrayELResolver(true));
-      add(new JinjavaListELResolver(true));
-      add(new MapELResolver(true));
-      add(new ResourceBundleELResolver());
-      add(new JinjavaBeanELResolver(true));
-    }
-  };
-
-  public static final ELResolver DEFAULT_RESOLVER_READ_WRITE = new CompositeELResolver() {
-
-    {
-      add(new ArrayELResolver(false));
-      add(new JinjavaListELResolver(false));
-      add(new MapELResolver(false));
-      add(new ResourceBundleELResolver());
-      add(new JinjavaBeanELResolver(false));
-    }
-  };
+  private static final List<ELResolver> READ_ONLY_RESOLVERS = ImmutableList.of(
+    new ArrayELResolver(true),
+    new JinjavaListELResolver(true),
+    new MapELResolver(true),
+    new ResourceBundleELResolver(),
+    new JinjavaBeanELResolver(true)
+  );
+
+  private static final List<ELResolver> READ_WRITE_RESOLVERS = ImmutableList.of(
+    new ArrayELResolver(false),
+    new JinjavaListELResolver(false),
+    new MapELResolver(false),
+    new ResourceBundleELResolver(),
+    new JinjavaBeanELResolver(false)
+  );
+
+  public static final ELResolver DEFAULT_RESOLVER_READ_ONLY = composite(
+    READ_ONLY_RESOLVERS
+  );
+
+  public static final ELResolver DEFAULT_RESOLVER_READ_WRITE = composite(
+    READ_WRITE_RESOLVERS
+  );
 
   private final JinjavaInterpreter interpreter;
+  private final WrappedValueCache wrappedValues = new WrappedValueCache();
+  // the resolvers making up the configured resolver, if it's one of the defaults
+  private final List<ELResolver> propertyResolvers;
 
   public JinjavaInterpreterResolver(JinjavaInterpreter interpreter) {
     super(interpreter.getConfig().getElResolver());
     this.interpreter = interpreter;
+
+    ELResolver resolver = interpreter.getConfig().getElResolver();
+    if (resolver == DEFAULT_RESOLVER_READ_ONLY) {
+      propertyResolvers = READ_ONLY_RESOLVERS;
+    } else if (resolver == DEFAULT_RESOLVER_READ_WRITE) {
+      propertyResolvers = READ_WRITE_RESOLVERS;
+    } else {
+      propertyResolvers = null;
+    }
+  }
+
+  private static ELResolver composite(List<ELResolver> resolvers) {
+    CompositeELResolver composite = new CompositeELResolver();
+    resolvers.forEach(composite::add);
+    return composite;
   }
 
   @Override
@@ -88,7 +113,7 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
     Object[] params
   ) {
     try {
-      Object methodProperty = getValue(context, base, method, false);
+      Object methodProperty = getValue(context, base, method, false, null);
       if (methodProperty instanceof AbstractCallableMethod) {
         context.setPropertyResolved(true);
         return interpreter.getContext().isValidationMode()
@@ -99,15 +124,45 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
       // failed to access property, continue with method calls
     }
 
-    return interpreter.getContext().isValidationMode()
-      ? ""
-      : super.invoke(
+    if (interpreter.getContext().isValidationMode()) {
+      return "";
+    }
+
+    Optional<RenderProfile> profile = interpreter.getProfile();
+    if (!profile.isPresent() || !(base instanceof Filter) || !"filter".equals(method)) {
+      return super.invoke(
         context,
         base,
         method,
         paramTypes,
         generateMethodParams(method, params)
       );
+    }
+
+    profile
+      .get()
+      .enter(
+        ProfileKind.FILTER,
+        ((Filter) base).getName(),
+        interpreter.getCurrentTemplatePath(),
+        interpreter.getLineNumber()
+      );
+    Object result = null;
+    try {
+      result =
+        super.invoke(
+          context,
+          base,
+          method,
+          paramTypes,
+          generateMethodParams(method, params)
+        );
+      return result;
+    } finally {
+      profile
+        .get()
+        .exit(result instanceof CharSequence ? ((CharSequence) result).length() : 0);
+    }
   }
 
   /**
@@ -117,7 +172,20 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
    */
   @Override
   public Object getValue(ELContext context, Object base, Object property) {
-    return getValue(context, base, property, true);
+    return getValue(context, base, property, true, null);
+  }
+
+  /**
+   * Gets a property as {@link #getValue(ELContext, Object, Object)} does, using the given
+   * cache to find which resolver reads it from the base object.
+   */
+  public Object getValue(
+    ELContext context,
+    Object base,
+    Object property,
+    PropertyAccessCache cache
+  ) {
+    return getValue(context, base, property, true, cache);
   }
 
   /*
@@ -154,7 +222,8 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
     ELContext context,
     Object base,
     Object property,
-    boolean errOnUnknownProp
+    boolean errOnUnknownProp,
+    PropertyAccessCache cache
   ) {
     String propertyName = Objects.toString(property, "");
     Object value = null;
@@ -225,7 +294,7 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
               }
             }
 
-            value = super.getValue(context, base, propertyName);
+            value = getProperty(context, base, propertyName, cache);
 
             if (value instanceof Optional) {
               Optional<?> optValue = (Optional<?>) value;
@@ -280,7 +349,53 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
     return wrap(value);
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Reads a property of a non-null base object with the configured resolver. If it's one of
+   * the defaults and there's a cache, the resolver which reads the property from objects of
+   * the base's class is remembered, rather than asking each resolver in turn every time.
+   */
+  private Object getProperty(
+    ELContext context,
+    Object base,
+    String property,
+    PropertyAccessCache cache
+  ) {
+    if (cache == null || propertyResolvers == null) {
+      return super.getValue(context, base, property);
+    }
+
+    Class<?> type = base.getClass();
+    PropertyAccessCache.Entry entry = cache.find(type, propertyResolvers);
+    if (entry != null) {
+      Object value = entry.getValue(context, base, property);
+      if (context.isPropertyResolved()) {
+        return value;
+      }
+    }
+
+    // as the composite resolver would, remembering which resolver read the property
+    context.setPropertyResolved(false);
+    for (ELResolver resolver : propertyResolvers) {
+      Object value = resolver.getValue(context, base, property);
+      if (context.isPropertyResolved()) {
+        if (entry == null) {
+          cache.add(
+            new PropertyAccessCache.Entry(
+              type,
+              propertyResolvers,
+              resolver,
+              resolver instanceof JinjavaBeanELResolver
+                ? BeanAccessors.forClass(type).getGetter(property).orElse(null)
+                : null
+            )
+          );
+        }
+        return value;
+      }
+    }
+    return null;
+  }
+
   Object wrap(Object value) {
     if (value == null) {
       return null;
@@ -294,6 +409,38 @@ public class JinjavaInterpreterResolver extends SimpleResolver {
       return value;
     }
 
+    Object wrapped = wrappedValues.get(value);
+    if (wrapped != null && isStillValid(value, wrapped)) {
+      return wrapped;
+    }
+
+    wrapped = wrapUncached(value);
+    if (wrapped != value && !(wrapped instanceof String)) {
+      wrappedValues.put(value, wrapped);
+    }
+    return wrapped;
+  }
+
+  /**
+   * Checks a cached wrapper against its value again, since the value may have changed
+   * since it was wrapped. Lists and maps are still subject to the size limits, which are
+   * otherwise only enforced when they're wrapped or modified through the wrapper.
+   */
+  private boolean isStillValid(Object value, Object wrapped) {
+    if (value instanceof List) {
+      return ((List<?>) value).size() <= interpreter.getConfig().getMaxListSize();
+    }
+    if (value instanceof Map) {
+      return ((Map<?, ?>) value).size() <= interpreter.getConfig().getMaxMapSize();
+    }
+    if (value instanceof Date) {
+      return ((Date) value).getTime() == ((Date) wrapped).getTime();
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Object wrapUncached(Object value) {
     if (List.class.isAssignableFrom(value.getClass())) {
       return new SizeLimitingPyList(
         (List<Object>) value,
@@ -1,11 +1,14 @@
 package com.hubspot.jinjava.el;
 
+import com.google.common.collect.ImmutableMap;
 import com.hubspot.jinjava.el.ext.AbstractCallableMethod;
 import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.DisabledException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.lib.fn.ELFunctionDefinition;
 import com.hubspot.jinjava.lib.fn.MacroFunction;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,7 +19,30 @@ public class MacroFunctionMapper extends FunctionMapper {
   private Map<String, Method> map = Collections.emptyMap();
 
   public MacroFunctionMapper(JinjavaInterpreter interpreter) {
+    this(interpreter, Collections.emptyMap());
+  }
+
+  /**
+   * @param functions
+   *          functions keyed by qualified name, as built by {@link #buildFunctionMap}. The
+   *          map may be shared between mappers and is copied before it is modified.
+   */
+  public MacroFunctionMapper(
+    JinjavaInterpreter interpreter,
+    Map<String, Method> functions
+  ) {
     this.interpreter = interpreter;
+    this.map = functions;
+  }
+
+  public static Map<String, Method> buildFunctionMap(
+    Collection<ELFunctionDefinition> functions
+  ) {
+    Map<String, Method> map = new HashMap<>();
+    for (ELFunctionDefinition fn : functions) {
+      map.put(buildFunctionName(fn.getNamespace(), fn.getLocalName()), fn.getMethod());
+    }
+    return ImmutableMap.copyOf(map);
   }
 
   private static String buildFunctionName(String prefix, String name) {
@@ -46,8 +72,8 @@ public class MacroFunctionMapper extends FunctionMapper {
   }
 
   public void setFunction(String prefix, String localName, Method method) {
-    if (map.isEmpty()) {
-      map = new HashMap<>();
+    if (!(map instanceof HashMap)) {
+      map = new HashMap<>(map);
     }
     map.put(buildFunctionName(prefix, localName), method);
   }
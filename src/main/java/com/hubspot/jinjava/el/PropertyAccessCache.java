@@ -0,0 +1,95 @@
+package com.hubspot.jinjava.el;
+
+import com.hubspot.jinjava.el.ext.JinjavaBeanELResolver;
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.List;
+import javax.el.ELContext;
+import javax.el.ELResolver;
+
+/**
+ * An inline cache for a single property access in an expression, such as {@code item.name}.
+ * It remembers which of the default resolvers read the property for the last few classes of
+ * object it was read from, and for beans the getter it was read with, so that reading it from
+ * another object of one of those classes, such as the next item of a loop, goes straight to
+ * that resolver instead of asking each resolver in turn.
+ *
+ * <p>Up to {@link #SIZE} classes are remembered, after which other classes are left to the
+ * resolvers as before. Expressions are shared between threads, so entries are replaced rather
+ * than modified, and an entry lost to a race is simply added again by a later read.
+ */
+public final class PropertyAccessCache {
+  private static final int SIZE = 4;
+  private static final Entry[] EMPTY = new Entry[0];
+
+  private volatile Entry[] entries = EMPTY;
+
+  /**
+   * Gets a property of the base object as {@code context.getELResolver()} would, through this
+   * cache if the resolver is a {@link JinjavaInterpreterResolver}.
+   */
+  public Object getValue(ELContext context, Object base, Object property) {
+    ELResolver resolver = context.getELResolver();
+    if (resolver instanceof JinjavaInterpreterResolver) {
+      return ((JinjavaInterpreterResolver) resolver).getValue(
+          context,
+          base,
+          property,
+          this
+        );
+    }
+    return resolver.getValue(context, base, property);
+  }
+
+  /**
+   * @return the entry for the given class read through the given resolvers, or null
+   */
+  Entry find(Class<?> type, List<ELResolver> resolvers) {
+    for (Entry entry : entries) {
+      if (entry.type == type && entry.resolvers == resolvers) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  void add(Entry entry) {
+    Entry[] current = entries;
+    if (current.length < SIZE) {
+      Entry[] updated = Arrays.copyOf(current, current.length + 1);
+      updated[current.length] = entry;
+      entries = updated;
+    }
+  }
+
+  static final class Entry {
+    private final Class<?> type;
+    private final List<ELResolver> resolvers;
+    private final ELResolver resolver;
+    private final MethodHandle getter;
+
+    Entry(
+      Class<?> type,
+      List<ELResolver> resolvers,
+      ELResolver resolver,
+      MethodHandle getter
+    ) {
+      this.type = type;
+      this.resolvers = resolvers;
+      this.resolver = resolver;
+      this.getter = getter;
+    }
+
+    /**
+     * Reads the property with the remembered getter or resolver, leaving the property
+     * unresolved if the resolver no longer handles it.
+     */
+    Object getValue(ELContext context, Object base, String property) {
+      if (getter != null) {
+        return JinjavaBeanELResolver.invokeGetter(context, base, getter);
+      }
+      context.setPropertyResolved(false);
+      return resolver.getValue(context, base, property);
+    }
+  }
+}
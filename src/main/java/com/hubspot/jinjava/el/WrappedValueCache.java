@@ -0,0 +1,36 @@
+package com.hubspot.jinjava.el;
+
+/**
+ * A small, fixed size cache from values read by a {@link JinjavaInterpreterResolver} to the
+ * wrappers it returned for them, matched by identity. Reading the same list, map or date
+ * again, such as a property of each item in a loop, then reuses its wrapper instead of
+ * allocating a new one. Entries are simply overwritten when two values land in the same
+ * slot, so the cache never holds on to more than a few values.
+ *
+ * <p>Not thread safe; each interpreter has its own resolver.
+ */
+class WrappedValueCache {
+  private static final int SIZE = 64;
+
+  private final Object[] values = new Object[SIZE];
+  private final Object[] wrappers = new Object[SIZE];
+
+  /**
+   * @return the wrapper cached for this exact value, or null
+   */
+  Object get(Object value) {
+    int slot = slot(value);
+    return values[slot] == value ? wrappers[slot] : null;
+  }
+
+  void put(Object value, Object wrapper) {
+    int slot = slot(value);
+    values[slot] = value;
+    wrappers[slot] = wrapper;
+  }
+
+  private static int slot(Object value) {
+    int hash = System.identityHashCode(value);
+    return (hash ^ (hash >>> 16)) & (SIZE - 1);
+  }
+}
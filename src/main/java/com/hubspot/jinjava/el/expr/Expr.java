@@ -0,0 +1,18 @@
+package com.hubspot.jinjava.el.expr;
+
+import javax.el.ELContext;
+
+/**
+ * A node of an expression which is evaluated directly against the context's resolver,
+ * rather than through a JUEL tree bound to the context. See {@link ExprTree}.
+ */
+public abstract class Expr {
+
+  Expr() {}
+
+  /**
+   * Evaluates the expression, with the same result and the same exceptions as evaluating the
+   * JUEL node it was built from.
+   */
+  public abstract Object eval(ELContext context);
+}
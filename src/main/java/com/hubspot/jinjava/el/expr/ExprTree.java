@@ -0,0 +1,128 @@
+package com.hubspot.jinjava.el.expr;
+
+import com.google.common.collect.Lists;
+import com.hubspot.jinjava.el.ext.AstLibraryMethod;
+import com.hubspot.jinjava.el.ext.AstNamedParameter;
+import com.hubspot.jinjava.el.ext.JinjavaAstDot;
+import de.odysseus.el.tree.Tree;
+import de.odysseus.el.tree.impl.ast.AstBoolean;
+import de.odysseus.el.tree.impl.ast.AstBracket;
+import de.odysseus.el.tree.impl.ast.AstEval;
+import de.odysseus.el.tree.impl.ast.AstIdentifier;
+import de.odysseus.el.tree.impl.ast.AstNested;
+import de.odysseus.el.tree.impl.ast.AstNode;
+import de.odysseus.el.tree.impl.ast.AstNull;
+import de.odysseus.el.tree.impl.ast.AstNumber;
+import de.odysseus.el.tree.impl.ast.AstString;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A parsed expression, along with an {@link Expr} to evaluate it directly when it only
+ * reads variables, properties, literals, filters and tests. Those make up most of the
+ * expressions in a template, and evaluating them directly skips binding the tree to the
+ * context's function and variable mappers on every evaluation, and JUEL's dispatch from
+ * node to node. Any other expression is evaluated by its JUEL tree as before.
+ *
+ * <p>The expression is still parsed by JUEL, so both forms accept the same syntax and
+ * report the same errors.
+ */
+public final class ExprTree extends Tree {
+  private final Expr expr;
+
+  private ExprTree(Tree tree, Expr expr) {
+    super(
+      tree.getRoot(),
+      Lists.newArrayList(tree.getFunctionNodes()),
+      Lists.newArrayList(tree.getIdentifierNodes()),
+      tree.isDeferred()
+    );
+    this.expr = expr;
+  }
+
+  public static ExprTree of(Tree tree) {
+    if (tree instanceof ExprTree) {
+      return (ExprTree) tree;
+    }
+    Expr expr = tree.getRoot() instanceof AstEval
+      ? build(((AstEval) tree.getRoot()).getChild(0))
+      : null;
+    return new ExprTree(tree, expr);
+  }
+
+  /**
+   * @return the expression to evaluate directly, if it can be
+   */
+  public Optional<Expr> getExpr() {
+    return Optional.ofNullable(expr);
+  }
+
+  /**
+   * @return the direct form of the node, or null if it doesn't have one
+   */
+  private static Expr build(AstNode node) {
+    Class<?> type = node.getClass();
+    if (type == AstIdentifier.class) {
+      return new IdentifierExpr(((AstIdentifier) node).getName());
+    }
+    if (type == AstString.class || type == AstNumber.class || type == AstBoolean.class) {
+      return new LiteralExpr(node.eval(null, null));
+    }
+    if (type == AstNull.class) {
+      return new LiteralExpr(null);
+    }
+    if (type == AstNested.class) {
+      return build(((AstNested) node).getChild(0));
+    }
+    if (type == JinjavaAstDot.class) {
+      Expr base = build(((JinjavaAstDot) node).getBase());
+      return base == null
+        ? null
+        : new PropertyExpr(base, ((JinjavaAstDot) node).getPropertyName());
+    }
+    if (type == AstBracket.class) {
+      return buildBracket((AstBracket) node);
+    }
+    if (type == AstNamedParameter.class) {
+      AstNamedParameter parameter = (AstNamedParameter) node;
+      Expr value = build(parameter.getValue());
+      return value == null
+        ? null
+        : new NamedParameterExpr(parameter.getName().getName(), value);
+    }
+    if (node instanceof AstLibraryMethod) {
+      return buildLibraryCall((AstLibraryMethod<?>) node);
+    }
+    return null;
+  }
+
+  private static Expr buildBracket(AstBracket node) {
+    // only literal properties, which can't be null
+    Expr property = build(node.getChild(1));
+    if (
+      !(property instanceof LiteralExpr) || ((LiteralExpr) property).getValue() == null
+    ) {
+      return null;
+    }
+    Expr base = build(node.getChild(0));
+    return base == null
+      ? null
+      : new PropertyExpr(base, ((LiteralExpr) property).getValue());
+  }
+
+  private static <T> Expr buildLibraryCall(AstLibraryMethod<T> node) {
+    Expr input = build(node.getInput());
+    if (input == null) {
+      return null;
+    }
+    List<AstNode> argNodes = node.getArgs();
+    Expr[] args = new Expr[argNodes.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = build(argNodes.get(i));
+      if (args[i] == null) {
+        return null;
+      }
+    }
+    return new LibraryCallExpr<>(node, input, args);
+  }
+}
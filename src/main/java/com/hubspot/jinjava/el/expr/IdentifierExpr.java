@@ -0,0 +1,25 @@
+package com.hubspot.jinjava.el.expr;
+
+import de.odysseus.el.misc.LocalMessages;
+import javax.el.ELContext;
+import javax.el.PropertyNotFoundException;
+
+final class IdentifierExpr extends Expr {
+  private final String name;
+
+  IdentifierExpr(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public Object eval(ELContext context) {
+    context.setPropertyResolved(false);
+    Object result = context.getELResolver().getValue(context, null, name);
+    if (!context.isPropertyResolved()) {
+      throw new PropertyNotFoundException(
+        LocalMessages.get("error.identifier.property.notfound", name)
+      );
+    }
+    return result;
+  }
+}
@@ -0,0 +1,39 @@
+package com.hubspot.jinjava.el.expr;
+
+import com.hubspot.jinjava.el.ext.AstLibraryMethod;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import javax.el.ELContext;
+
+/**
+ * A filter or expression test, looked up and called just as its {@link AstLibraryMethod}
+ * does, with its input and arguments evaluated directly.
+ */
+final class LibraryCallExpr<T> extends Expr {
+  private final AstLibraryMethod<T> method;
+  private final Expr input;
+  private final Expr[] args;
+
+  LibraryCallExpr(AstLibraryMethod<T> method, Expr input, Expr[] args) {
+    this.method = method;
+    this.input = input;
+    this.args = args;
+  }
+
+  @Override
+  public Object eval(ELContext context) {
+    JinjavaInterpreter interpreter = AstLibraryMethod.getInterpreter(context);
+
+    T target = method.bind(interpreter);
+    if (target == null) {
+      return null;
+    }
+
+    Object value = input.eval(context);
+    Object[] argValues = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      argValues[i] = args[i].eval(context);
+    }
+
+    return method.invoke(target, value, argValues, interpreter, context);
+  }
+}
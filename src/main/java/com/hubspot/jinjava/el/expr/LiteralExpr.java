@@ -0,0 +1,20 @@
+package com.hubspot.jinjava.el.expr;
+
+import javax.el.ELContext;
+
+final class LiteralExpr extends Expr {
+  private final Object value;
+
+  LiteralExpr(Object value) {
+    this.value = value;
+  }
+
+  Object getValue() {
+    return value;
+  }
+
+  @Override
+  public Object eval(ELContext context) {
+    return value;
+  }
+}
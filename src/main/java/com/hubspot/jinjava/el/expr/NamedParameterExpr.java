@@ -0,0 +1,19 @@
+package com.hubspot.jinjava.el.expr;
+
+import com.hubspot.jinjava.el.ext.NamedParameter;
+import javax.el.ELContext;
+
+final class NamedParameterExpr extends Expr {
+  private final String name;
+  private final Expr value;
+
+  NamedParameterExpr(String name, Expr value) {
+    this.name = name;
+    this.value = value;
+  }
+
+  @Override
+  public Object eval(ELContext context) {
+    return new NamedParameter(name, value.eval(context));
+  }
+}
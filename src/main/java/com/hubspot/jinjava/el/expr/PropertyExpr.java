@@ -0,0 +1,37 @@
+package com.hubspot.jinjava.el.expr;
+
+import com.hubspot.jinjava.el.PropertyAccessCache;
+import de.odysseus.el.misc.LocalMessages;
+import javax.el.ELContext;
+import javax.el.PropertyNotFoundException;
+
+/**
+ * A property accessed with {@code .}, or with {@code []} and a literal.
+ */
+final class PropertyExpr extends Expr {
+  private final Expr base;
+  private final Object property;
+  private final PropertyAccessCache cache = new PropertyAccessCache();
+
+  PropertyExpr(Expr base, Object property) {
+    this.base = base;
+    this.property = property;
+  }
+
+  @Override
+  public Object eval(ELContext context) {
+    Object value = base.eval(context);
+    if (value == null) {
+      return null;
+    }
+
+    context.setPropertyResolved(false);
+    Object result = cache.getValue(context, value, property);
+    if (!context.isPropertyResolved()) {
+      throw new PropertyNotFoundException(
+        LocalMessages.get("error.property.property.notfound", property, value)
+      );
+    }
+    return result;
+  }
+}
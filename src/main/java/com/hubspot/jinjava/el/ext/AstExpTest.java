@@ -0,0 +1,60 @@
+package com.hubspot.jinjava.el.ext;
+
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
+import com.hubspot.jinjava.lib.exptest.ExpTest;
+import de.odysseus.el.tree.impl.ast.AstParameters;
+import de.odysseus.el.tree.impl.ast.AstProperty;
+import java.lang.reflect.Array;
+
+/**
+ * An expression test applied with {@code is} or {@code is not}.
+ */
+public class AstExpTest extends AstLibraryMethod<ExpTest> {
+  private final boolean negated;
+
+  public AstExpTest(AstProperty property, AstParameters params, boolean negated) {
+    super(property, params, ExtendedParser.EXPTEST_PREFIX);
+    this.negated = negated;
+  }
+
+  public boolean isNegated() {
+    return negated;
+  }
+
+  @Override
+  protected ExpTest lookup(Context context, String name) {
+    return context.getExpTest(name);
+  }
+
+  @Override
+  protected ErrorItem getErrorItem() {
+    return ErrorItem.EXPRESSION_TEST;
+  }
+
+  @Override
+  protected Object call(
+    ExpTest expTest,
+    Object value,
+    JinjavaInterpreter interpreter,
+    Object[] args
+  ) {
+    // a single array argument is spread over the varargs, as it would be by reflection
+    if (args.length == 1 && args[0] != null && args[0].getClass().isArray()) {
+      if (args[0] instanceof Object[]) {
+        args = (Object[]) args[0];
+      } else {
+        Object array = args[0];
+        args = new Object[Array.getLength(array)];
+        for (int i = 0; i < args.length; i++) {
+          args[i] = Array.get(array, i);
+        }
+      }
+    }
+
+    return negated
+      ? expTest.evaluateNegated(value, interpreter, args)
+      : expTest.evaluate(value, interpreter, args);
+  }
+}
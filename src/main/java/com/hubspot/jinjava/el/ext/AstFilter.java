@@ -0,0 +1,99 @@
+package com.hubspot.jinjava.el.ext;
+
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
+import com.hubspot.jinjava.interpret.profile.ProfileKind;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
+import com.hubspot.jinjava.lib.filter.Filter;
+import de.odysseus.el.tree.impl.ast.AstParameters;
+import de.odysseus.el.tree.impl.ast.AstProperty;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.el.MethodNotFoundException;
+
+/**
+ * A filter applied with {@code |}. Named arguments are passed to the filter as keyword
+ * arguments and the rest as positional arguments, in the order they're given.
+ */
+public class AstFilter extends AstLibraryMethod<Filter> {
+
+  public AstFilter(AstProperty property, AstParameters params) {
+    super(property, params, ExtendedParser.FILTER_PREFIX);
+  }
+
+  @Override
+  protected Filter lookup(Context context, String name) {
+    return context.getFilter(name);
+  }
+
+  @Override
+  protected ErrorItem getErrorItem() {
+    return ErrorItem.FILTER;
+  }
+
+  @Override
+  protected Object call(
+    Filter filter,
+    Object value,
+    JinjavaInterpreter interpreter,
+    Object[] args
+  ) {
+    Map<String, Object> kwargs = Collections.emptyMap();
+    int named = 0;
+    for (Object arg : args) {
+      if (arg instanceof NamedParameter) {
+        named++;
+      }
+    }
+    if (named > 0) {
+      Object[] positional = new Object[args.length - named];
+      kwargs = new LinkedHashMap<>();
+      int i = 0;
+      for (Object arg : args) {
+        if (arg instanceof NamedParameter) {
+          NamedParameter namedParameter = (NamedParameter) arg;
+          kwargs.put(namedParameter.getName(), namedParameter.getValue());
+        } else {
+          positional[i++] = arg;
+        }
+      }
+      args = positional;
+    }
+
+    Optional<RenderProfile> profile = interpreter.getProfile();
+    if (!profile.isPresent()) {
+      return filter.filter(value, interpreter, args, kwargs);
+    }
+
+    profile
+      .get()
+      .enter(
+        ProfileKind.FILTER,
+        filter.getName(),
+        interpreter.getCurrentTemplatePath(),
+        interpreter.getLineNumber()
+      );
+    Object result = null;
+    try {
+      result = filter.filter(value, interpreter, args, kwargs);
+      return result;
+    } finally {
+      profile
+        .get()
+        .exit(result instanceof CharSequence ? ((CharSequence) result).length() : 0);
+    }
+  }
+
+  @Override
+  protected Object checkResult(Filter filter, Object result) {
+    if (JinjavaBeanELResolver.isRestricted(result)) {
+      throw new MethodNotFoundException(
+        "Cannot find method 'filter' in " + filter.getClass()
+      );
+    }
+    return result;
+  }
+}
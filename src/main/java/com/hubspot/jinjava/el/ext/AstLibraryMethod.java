@@ -0,0 +1,216 @@
+package com.hubspot.jinjava.el.ext;
+
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.DisabledException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import de.odysseus.el.tree.Bindings;
+import de.odysseus.el.tree.impl.ast.AstIdentifier;
+import de.odysseus.el.tree.impl.ast.AstMethod;
+import de.odysseus.el.tree.impl.ast.AstNode;
+import de.odysseus.el.tree.impl.ast.AstParameters;
+import de.odysseus.el.tree.impl.ast.AstProperty;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.el.ELContext;
+import javax.el.ELException;
+
+/**
+ * A call to a filter or expression test. It keeps the shape of the method call on a
+ * prefixed identifier, such as {@code filter:upper.filter(value, interpreter, args...)},
+ * so code inspecting the tree still sees what it used to, but it's evaluated by looking
+ * the filter or test up and calling it directly, instead of resolving the prefixed name
+ * and invoking the method by reflection.
+ *
+ * <p>The lookup is remembered for as long as the same scope is current and no filters or
+ * tests are registered on it or its parents, so a filter used in a loop is looked up once
+ * per loop.
+ */
+public abstract class AstLibraryMethod<T> extends AstMethod {
+  private final String prefixedName;
+  private final String name;
+  private final String methodName;
+  private final AstNode input;
+  private final AstNode[] args;
+  private transient volatile Binding<T> binding;
+
+  protected AstLibraryMethod(AstProperty property, AstParameters params, String prefix) {
+    super(property, params);
+    this.prefixedName = ((AstIdentifier) property.getChild(0)).getName();
+    this.name = prefixedName.substring(prefix.length());
+    this.methodName =
+      property instanceof JinjavaAstDot
+        ? ((JinjavaAstDot) property).getPropertyName()
+        : null;
+    this.input = params.getChild(0);
+    // the interpreter is the second parameter, and the arguments follow it
+    this.args = new AstNode[params.getCardinality() - 2];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = params.getChild(i + 2);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the filter or test with the given name, or null if there isn't one
+   * @throws DisabledException if it's disabled
+   */
+  protected abstract T lookup(Context context, String name);
+
+  protected abstract ErrorItem getErrorItem();
+
+  /**
+   * Calls the filter or test with the evaluated value and arguments. Any exception it throws
+   * is wrapped in an {@link ELException}, as it would be by a reflective invocation.
+   */
+  protected abstract Object call(
+    T target,
+    Object value,
+    JinjavaInterpreter interpreter,
+    Object[] args
+  );
+
+  /**
+   * @return the result to evaluate to, or throws if the result can't be used
+   */
+  protected Object checkResult(T target, Object result) {
+    return result;
+  }
+
+  public AstNode getInput() {
+    return input;
+  }
+
+  /**
+   * @return the arguments following the input
+   */
+  public List<AstNode> getArgs() {
+    return Collections.unmodifiableList(Arrays.asList(args));
+  }
+
+  @Override
+  public Object eval(Bindings bindings, ELContext context) {
+    JinjavaInterpreter interpreter = getInterpreter(context);
+
+    T target = bind(interpreter);
+    if (target == null) {
+      return null;
+    }
+
+    Object value = input.eval(bindings, context);
+    Object[] argValues = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      argValues[i] = args[i].eval(bindings, context);
+    }
+
+    return invoke(target, value, argValues, interpreter, context);
+  }
+
+  public static JinjavaInterpreter getInterpreter(ELContext context) {
+    return (JinjavaInterpreter) context
+      .getELResolver()
+      .getValue(context, null, ExtendedParser.INTERPRETER);
+  }
+
+  /**
+   * Calls the filter or test found by {@link #bind(JinjavaInterpreter)} with the evaluated
+   * value and arguments, as {@link #eval(Bindings, ELContext)} does.
+   */
+  public Object invoke(
+    T target,
+    Object value,
+    Object[] args,
+    JinjavaInterpreter interpreter,
+    ELContext context
+  ) {
+    context.setPropertyResolved(true);
+    if (interpreter.getContext().isValidationMode()) {
+      return "";
+    }
+
+    Object result;
+    try {
+      result = call(target, value, interpreter, args);
+    } catch (RuntimeException e) {
+      throw new ELException(e);
+    }
+    return checkResult(target, result);
+  }
+
+  /**
+   * Looks up the filter or test in the interpreter's current scope, reusing the last lookup
+   * if it's still valid. Like the reflective call, it records the prefixed name and, if it's
+   * found, the name of the method called on it as resolved values.
+   *
+   * @return the filter or test, or null if there isn't one or it's disabled, in which case
+   *         an error has been added
+   */
+  public T bind(JinjavaInterpreter interpreter) {
+    Context scope = interpreter.getContext();
+    scope.addResolvedValue(prefixedName);
+
+    Binding<T> current = binding;
+    if (current != null && current.isFor(scope)) {
+      addResolvedMethodName(scope);
+      return current.target;
+    }
+
+    T target;
+    try {
+      target = lookup(scope, name);
+    } catch (DisabledException e) {
+      interpreter.addError(
+        new TemplateError(
+          ErrorType.FATAL,
+          ErrorReason.DISABLED,
+          getErrorItem(),
+          e.getMessage(),
+          prefixedName,
+          interpreter.getLineNumber(),
+          -1,
+          e
+        )
+      );
+      return null;
+    }
+
+    if (target != null) {
+      binding = new Binding<>(scope, target);
+      addResolvedMethodName(scope);
+    }
+    return target;
+  }
+
+  private void addResolvedMethodName(Context scope) {
+    if (methodName != null) {
+      scope.addResolvedValue(methodName);
+    }
+  }
+
+  private static final class Binding<T> {
+    private final WeakReference<Context> scope;
+    private final int libraryModificationCount;
+    private final T target;
+
+    Binding(Context scope, T target) {
+      this.scope = new WeakReference<>(scope);
+      this.libraryModificationCount = scope.getScopeLibraryModificationCount();
+      this.target = target;
+    }
+
+    boolean isFor(Context context) {
+      return (
+        scope.get() == context &&
+        context.getScopeLibraryModificationCount() == libraryModificationCount
+      );
+    }
+  }
+}
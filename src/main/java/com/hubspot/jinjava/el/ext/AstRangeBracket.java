@@ -148,6 +148,16 @@ public class AstRangeBracket extends AstBracket {
     return result >= 0 ? result : baseLength + result;
   }
 
+  @Override
+  public int getCardinality() {
+    return 3;
+  }
+
+  @Override
+  public AstNode getChild(int i) {
+    return i == 2 ? rangeMax : super.getChild(i);
+  }
+
   @Override
   public String toString() {
     return "[:]";
@@ -0,0 +1,138 @@
+package com.hubspot.jinjava.el.ext;
+
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableMap;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The getters of a class's readable bean properties, looked up once per class. Each getter
+ * is found under every name {@link JinjavaBeanELResolver} resolves to its property: the
+ * property name itself, and its snake case form. Restricted properties have no getter.
+ */
+public final class BeanAccessors {
+  // a ClassValue is dropped along with its class, so cached beans don't pin their loaders
+  private static final ClassValue<BeanAccessors> CACHE = new ClassValue<BeanAccessors>() {
+
+    @Override
+    protected BeanAccessors computeValue(Class<?> type) {
+      return introspect(type);
+    }
+  };
+  private static final MethodType GETTER_TYPE = MethodType.methodType(
+    Object.class,
+    Object.class
+  );
+
+  private final Map<String, Optional<MethodHandle>> getters;
+
+  private BeanAccessors(Map<String, Optional<MethodHandle>> getters) {
+    this.getters = getters;
+  }
+
+  public static BeanAccessors forClass(Class<?> type) {
+    return CACHE.get(type);
+  }
+
+  /**
+   * @return a getter taking the bean as an {@link Object} and returning the property value,
+   *         or empty if the property doesn't exist, is restricted, or can't be read through
+   *         a public method
+   */
+  public Optional<MethodHandle> getGetter(String name) {
+    return getters.getOrDefault(name, Optional.empty());
+  }
+
+  private static BeanAccessors introspect(Class<?> type) {
+    PropertyDescriptor[] properties;
+    try {
+      properties = Introspector.getBeanInfo(type).getPropertyDescriptors();
+    } catch (IntrospectionException e) {
+      return new BeanAccessors(ImmutableMap.of());
+    }
+
+    Set<String> restricted = JinjavaBeanELResolver.RESTRICTED_PROPERTIES;
+    Map<String, Optional<MethodHandle>> getters = new HashMap<>();
+    for (PropertyDescriptor property : properties) {
+      String name = property.getName();
+      if (restricted.contains(name)) {
+        continue;
+      }
+
+      Optional<MethodHandle> getter = toGetter(
+        findPublicMethod(property.getReadMethod())
+      );
+      if (!getter.isPresent()) {
+        continue;
+      }
+
+      if (name.indexOf('_') == -1) {
+        getters.put(name, getter);
+      }
+      String snakeCase = CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, name);
+      if (
+        snakeCase.indexOf('_') != -1 &&
+        name.equals(JinjavaBeanELResolver.transformPropertyName(snakeCase))
+      ) {
+        getters.putIfAbsent(snakeCase, getter);
+      }
+    }
+    return new BeanAccessors(ImmutableMap.copyOf(getters));
+  }
+
+  private static Optional<MethodHandle> toGetter(Method method) {
+    if (method == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(
+        MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE)
+      );
+    } catch (IllegalAccessException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Finds a public method of a public type which the given method implements, the same way
+   * {@link javax.el.BeanELResolver} does, so that it can be called from outside the package.
+   */
+  private static Method findPublicMethod(Method method) {
+    if (method == null || !Modifier.isPublic(method.getModifiers())) {
+      return null;
+    }
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (Modifier.isPublic(declaringClass.getModifiers())) {
+      return method;
+    }
+
+    for (Class<?> iface : declaringClass.getInterfaces()) {
+      Method found = findPublicMethod(iface, method);
+      if (found != null) {
+        return found;
+      }
+    }
+    Class<?> superclass = declaringClass.getSuperclass();
+    return superclass == null ? null : findPublicMethod(superclass, method);
+  }
+
+  private static Method findPublicMethod(Class<?> type, Method method) {
+    try {
+      return findPublicMethod(
+        type.getMethod(method.getName(), method.getParameterTypes())
+      );
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -347,6 +347,28 @@ public class ExtendedParser extends Parser {
     );
   }
 
+  @Override
+  protected AstDot createAstDot(AstNode prefix, String property, boolean lvalue) {
+    return new JinjavaAstDot(
+      prefix,
+      property,
+      lvalue,
+      context.isEnabled(Feature.IGNORE_RETURN_TYPE)
+    );
+  }
+
+  protected AstFilter createAstFilter(AstProperty property, AstParameters params) {
+    return new AstFilter(property, params);
+  }
+
+  protected AstExpTest createAstExpTest(
+    AstProperty property,
+    AstParameters params,
+    boolean negated
+  ) {
+    return new AstExpTest(property, params, negated);
+  }
+
   @Override
   protected AstNode value() throws ScanException, ParseException {
     boolean lvalue = true;
@@ -417,7 +439,7 @@ public class ExtendedParser extends Parser {
                 "filter",
                 true
               );
-              v = createAstMethod(filterProperty, new AstParameters(filterParams)); // function("filter:" + filterName, new AstParameters(filterParams));
+              v = createAstFilter(filterProperty, new AstParameters(filterParams));
             } while ("|".equals(getToken().getImage()));
           } else if (
             "is".equals(getToken().getImage()) &&
@@ -426,13 +448,13 @@ public class ExtendedParser extends Parser {
           ) {
             consumeToken(); // 'is'
             consumeToken(); // 'not'
-            v = buildAstMethodForIdentifier(v, "evaluateNegated");
+            v = buildAstMethodForIdentifier(v, "evaluateNegated", true);
           } else if (
             "is".equals(getToken().getImage()) &&
             isPossibleExpTest(lookahead(0).getSymbol())
           ) {
             consumeToken(); // 'is'
-            v = buildAstMethodForIdentifier(v, "evaluate");
+            v = buildAstMethodForIdentifier(v, "evaluate", false);
           }
 
           return v;
@@ -444,7 +466,11 @@ public class ExtendedParser extends Parser {
     return VALID_SYMBOLS_FOR_EXP_TEST.contains(symbol);
   }
 
-  private AstNode buildAstMethodForIdentifier(AstNode astNode, String property)
+  private AstNode buildAstMethodForIdentifier(
+    AstNode astNode,
+    String property,
+    boolean negated
+  )
     throws ScanException, ParseException {
     String exptestName = consumeToken().getImage();
     List<AstNode> exptestParams = Lists.newArrayList(astNode, interpreter());
@@ -460,7 +486,7 @@ public class ExtendedParser extends Parser {
       property,
       true
     );
-    return createAstMethod(exptestProperty, new AstParameters(exptestParams));
+    return createAstExpTest(exptestProperty, new AstParameters(exptestParams), negated);
   }
 
   @Override
@@ -0,0 +1,51 @@
+package com.hubspot.jinjava.el.ext;
+
+import com.hubspot.jinjava.el.PropertyAccessCache;
+import de.odysseus.el.misc.LocalMessages;
+import de.odysseus.el.tree.Bindings;
+import de.odysseus.el.tree.impl.ast.AstDot;
+import de.odysseus.el.tree.impl.ast.AstNode;
+import javax.el.ELContext;
+import javax.el.PropertyNotFoundException;
+
+/**
+ * A property accessed with {@code .}, which exposes the property's name, and reads it through
+ * a {@link PropertyAccessCache}.
+ */
+public class JinjavaAstDot extends AstDot {
+  private final PropertyAccessCache cache = new PropertyAccessCache();
+
+  public JinjavaAstDot(
+    AstNode base,
+    String property,
+    boolean lvalue,
+    boolean ignoreReturnType
+  ) {
+    super(base, property, lvalue, ignoreReturnType);
+  }
+
+  public String getPropertyName() {
+    return property;
+  }
+
+  public AstNode getBase() {
+    return prefix;
+  }
+
+  @Override
+  public Object eval(Bindings bindings, ELContext context) {
+    Object base = prefix.eval(bindings, context);
+    if (base == null) {
+      return null;
+    }
+
+    context.setPropertyResolved(false);
+    Object result = cache.getValue(context, base, property);
+    if (!context.isPropertyResolved()) {
+      throw new PropertyNotFoundException(
+        LocalMessages.get("error.property.property.notfound", property, base)
+      );
+    }
+    return result;
+  }
+}
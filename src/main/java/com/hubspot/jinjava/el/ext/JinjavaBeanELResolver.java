@@ -3,19 +3,24 @@ package com.hubspot.jinjava.el.ext;
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.ImmutableSet;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Optional;
 import java.util.Set;
 import javax.el.BeanELResolver;
 import javax.el.ELContext;
+import javax.el.ELException;
 import javax.el.MethodNotFoundException;
 
 /**
- * {@link BeanELResolver} supporting snake case property names.
+ * {@link BeanELResolver} supporting snake case property names. Property values are read
+ * through the getters cached by {@link BeanAccessors}, falling back to the reflective lookup
+ * of {@link BeanELResolver} for anything they don't cover.
  */
 public class JinjavaBeanELResolver extends BeanELResolver {
-  private static final Set<String> RESTRICTED_PROPERTIES = ImmutableSet
+  static final Set<String> RESTRICTED_PROPERTIES = ImmutableSet
     .<String>builder()
     .add("class")
     .build();
@@ -52,10 +57,34 @@ public class JinjavaBeanELResolver extends BeanELResolver {
 
   @Override
   public Object getValue(ELContext context, Object base, Object property) {
+    if (context != null && base != null && property != null) {
+      Optional<MethodHandle> getter = BeanAccessors
+        .forClass(base.getClass())
+        .getGetter(property.toString());
+      if (getter.isPresent()) {
+        return invokeGetter(context, base, getter.get());
+      }
+    }
+
     Object result = super.getValue(context, base, validatePropertyName(property));
     return result instanceof Class ? null : result;
   }
 
+  /**
+   * Reads a property of the base object with a getter found by {@link BeanAccessors}, as
+   * {@link #getValue(ELContext, Object, Object)} does.
+   */
+  public static Object invokeGetter(ELContext context, Object base, MethodHandle getter) {
+    Object result;
+    try {
+      result = (Object) getter.invokeExact(base);
+    } catch (Throwable t) {
+      throw new ELException(t);
+    }
+    context.setPropertyResolved(true);
+    return result instanceof Class ? null : result;
+  }
+
   @Override
   public boolean isReadOnly(ELContext context, Object base, Object property) {
     return super.isReadOnly(context, base, validatePropertyName(property));
@@ -110,7 +139,7 @@ public class JinjavaBeanELResolver extends BeanELResolver {
   /**
    * Transform snake case to property name.
    */
-  private String transformPropertyName(Object property) {
+  static String transformPropertyName(Object property) {
     if (property == null) {
       return null;
     }
@@ -123,6 +152,10 @@ public class JinjavaBeanELResolver extends BeanELResolver {
   }
 
   protected boolean isRestrictedClass(Object o) {
+    return isRestricted(o);
+  }
+
+  static boolean isRestricted(Object o) {
     if (o == null) {
       return false;
     }
@@ -35,19 +35,26 @@ import com.hubspot.jinjava.util.ScopeMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EmptyStackException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.stream.Collectors;
 
 public class Context extends ScopeMap<String, Object> {
   public static final String GLOBAL_MACROS_SCOPE_KEY = "__macros__";
   public static final String IMPORT_RESOURCE_PATH_KEY = "import_resource_path";
 
-  private SetMultimap<String, String> dependencies = HashMultimap.create();
+  private static final AtomicIntegerFieldUpdater<Context> LIBRARY_MODIFICATION_COUNT = AtomicIntegerFieldUpdater.newUpdater(
+    Context.class,
+    "libraryModificationCount"
+  );
+
+  private SetMultimap<String, String> dependencies;
   private Map<Library, Set<String>> disabled;
 
   public boolean isValidationMode() {
@@ -66,23 +73,25 @@ public class Context extends ScopeMap<String, Object> {
     TAG
   }
 
-  private final CallStack extendPathStack;
-  private final CallStack importPathStack;
-  private final CallStack includePathStack;
-  private final CallStack macroStack;
-  private final CallStack fromStack;
-  private final CallStack currentPathStack;
+  // A new context is pushed for every scope, such as each loop iteration or macro call, so
+  // anything which most scopes never use is only allocated when first needed.
+  private CallStack extendPathStack;
+  private CallStack importPathStack;
+  private CallStack includePathStack;
+  private CallStack macroStack;
+  private CallStack fromStack;
+  private CallStack currentPathStack;
 
-  private final Set<String> resolvedExpressions = new HashSet<>();
-  private final Set<String> resolvedValues = new HashSet<>();
-  private final Set<String> resolvedFunctions = new HashSet<>();
+  private Set<String> resolvedExpressions;
+  private Set<String> resolvedValues;
+  private Set<String> resolvedFunctions;
 
-  private Set<Node> deferredNodes = new HashSet<>();
+  private Set<Node> deferredNodes;
 
-  private final ExpTestLibrary expTestLibrary;
-  private final FilterLibrary filterLibrary;
-  private final FunctionLibrary functionLibrary;
-  private final TagLibrary tagLibrary;
+  private ExpTestLibrary expTestLibrary;
+  private FilterLibrary filterLibrary;
+  private FunctionLibrary functionLibrary;
+  private TagLibrary tagLibrary;
 
   private final Context parent;
 
@@ -90,10 +99,14 @@ public class Context extends ScopeMap<String, Object> {
   private Boolean autoEscape;
   private List<? extends Node> superBlock;
 
-  private final Stack<String> renderStack = new Stack<>();
+  private Stack<String> renderStack;
 
   private boolean validationMode = false;
   private boolean hideInterpreterErrors = false;
+  private boolean hasScopedTags = false;
+  private boolean isSnapshot = false;
+  private boolean isDetached = false;
+  private volatile int libraryModificationCount;
 
   public Context() {
     this(null, null, null);
@@ -112,7 +125,16 @@ public class Context extends ScopeMap<String, Object> {
     Map<String, ?> bindings,
     Map<Library, Set<String>> disabled
   ) {
-    super(parent);
+    this(parent, parent, bindings, disabled);
+  }
+
+  private Context(
+    Context parent,
+    ScopeMap<String, Object> scopeParent,
+    Map<String, ?> bindings,
+    Map<Library, Set<String>> disabled
+  ) {
+    super(scopeParent);
     this.disabled = disabled;
 
     if (bindings != null) {
@@ -121,56 +143,183 @@ public class Context extends ScopeMap<String, Object> {
 
     this.parent = parent;
 
-    this.extendPathStack =
-      new CallStack(
-        parent == null ? null : parent.getExtendPathStack(),
-        ExtendsTagCycleException.class
-      );
-    this.importPathStack =
-      new CallStack(
-        parent == null ? null : parent.getImportPathStack(),
-        ImportTagCycleException.class
-      );
-    this.includePathStack =
-      new CallStack(
-        parent == null ? null : parent.getIncludePathStack(),
-        IncludeTagCycleException.class
-      );
-    this.macroStack =
-      new CallStack(
-        parent == null ? null : parent.getMacroStack(),
-        MacroTagCycleException.class
-      );
-    this.fromStack =
-      new CallStack(
-        parent == null ? null : parent.getFromStack(),
-        FromTagCycleException.class
-      );
-    this.currentPathStack =
-      new CallStack(
-        parent == null ? null : parent.getCurrentPathStack(),
-        TagCycleException.class
-      );
+    // root contexts hold the default libraries, and a library with disabled entries must
+    // exist to reject them; other scopes only get a library once something is registered
+    if (parent == null || isDisabled(Library.EXP_TEST)) {
+      getOrCreateExpTestLibrary();
+    }
+    if (parent == null || isDisabled(Library.FILTER)) {
+      getOrCreateFilterLibrary();
+    }
+    if (parent == null || isDisabled(Library.TAG)) {
+      getOrCreateTagLibrary();
+    }
+    if (parent == null || isDisabled(Library.FUNCTION)) {
+      getOrCreateFunctionLibrary();
+    }
+  }
 
+  private boolean isDisabled(Library library) {
     if (disabled == null) {
-      disabled = new HashMap<>();
+      return false;
+    }
+    Set<String> disabledNames = disabled.get(library);
+    return disabledNames != null && !disabledNames.isEmpty();
+  }
+
+  private Set<String> getDisabled(Library library) {
+    return disabled == null ? null : disabled.get(library);
+  }
+
+  private ExpTestLibrary getOrCreateExpTestLibrary() {
+    if (expTestLibrary == null) {
+      expTestLibrary = new ExpTestLibrary(parent == null, getDisabled(Library.EXP_TEST));
+    }
+    return expTestLibrary;
+  }
+
+  private FilterLibrary getOrCreateFilterLibrary() {
+    if (filterLibrary == null) {
+      filterLibrary = new FilterLibrary(parent == null, getDisabled(Library.FILTER));
+    }
+    return filterLibrary;
+  }
+
+  private TagLibrary getOrCreateTagLibrary() {
+    if (tagLibrary == null) {
+      tagLibrary = new TagLibrary(parent == null, getDisabled(Library.TAG));
+    }
+    return tagLibrary;
+  }
+
+  private FunctionLibrary getOrCreateFunctionLibrary() {
+    if (functionLibrary == null) {
+      functionLibrary =
+        new FunctionLibrary(parent == null, getDisabled(Library.FUNCTION));
+    }
+    return functionLibrary;
+  }
+
+  /**
+   * Creates a root context holding every exp test, filter, function and tag registered on
+   * {@code source}, which looks up bindings from {@code source} itself rather than copying
+   * them. Snapshots are meant to be shared as the root of many concurrent renders, so they
+   * don't record the resolved values or dependencies of their children, and must not be
+   * modified after they're created.
+   */
+  public static Context newSnapshot(Context source) {
+    Context snapshot = new Context(null, source, null, null);
+    source.getAllExpTests().forEach(snapshot::registerExpTest);
+    source.getAllFilters().forEach(snapshot::registerFilter);
+    source.getAllFunctions().forEach(snapshot::registerFunction);
+    source.getAllTags().forEach(snapshot::registerTag);
+    snapshot.isSnapshot = true;
+    return snapshot;
+  }
+
+  /**
+   * Creates a root context holding the exp tests, filters and functions visible from the
+   * given context, but none of its values, for evaluating expressions which mustn't see the
+   * data of any render.
+   */
+  public static Context newLibraryCopy(Context source) {
+    Context copy = new Context();
+    source.getAllExpTests().forEach(copy::registerExpTest);
+    source.getAllFilters().forEach(copy::registerFilter);
+    source.getAllFunctions().forEach(copy::registerFunction);
+    return copy;
+  }
+
+  /**
+   * Creates a child scope which can be rendered on another thread while this context is
+   * only read. Resolved values, dependencies and deferred nodes are kept on the child until
+   * {@link #mergeIntoParent()} is called on the thread which owns this context.
+   */
+  Context newDetachedChild() {
+    Context child = new Context(this);
+    // create the call stacks of this context now, rather than from another thread
+    child.getExtendPathStack();
+    child.getImportPathStack();
+    child.getIncludePathStack();
+    child.getFromStack();
+    child.getMacroStack();
+    child.getCurrentPathStack();
+    if (renderStack != null) {
+      child.renderStack = new Stack<>();
+      child.renderStack.addAll(renderStack);
+    }
+    child.hideInterpreterErrors = hideInterpreterErrors;
+    child.isDetached = true;
+    return child;
+  }
+
+  /**
+   * Passes what was recorded on a child created with {@link #newDetachedChild()} up to its
+   * parent, including any variables or macros it defined, as if it had been rendered in the
+   * parent directly.
+   */
+  void mergeIntoParent() {
+    if (!isDetached) {
+      return;
+    }
+    isDetached = false;
+    for (Map.Entry<String, Object> entry : getScope().entrySet()) {
+      if (GLOBAL_MACROS_SCOPE_KEY.equals(entry.getKey())) {
+        getGlobalMacros().values().forEach(parent::addGlobalMacro);
+      } else {
+        parent.put(entry.getKey(), entry.getValue());
+      }
+    }
+    if (resolvedExpressions != null) {
+      resolvedExpressions.forEach(parent::addResolvedExpression);
+    }
+    if (resolvedValues != null) {
+      resolvedValues.forEach(parent::addResolvedValue);
+    }
+    if (resolvedFunctions != null) {
+      resolvedFunctions.forEach(parent::addResolvedFunction);
+    }
+    if (hasDependencies()) {
+      parent.addDependencies(dependencies);
+    }
+    if (deferredNodes != null) {
+      for (Node node : deferredNodes) {
+        propagateDeferredNode(
+          node,
+          DeferredValueUtils.findAndMarkDeferredProperties(this, node)
+        );
+      }
     }
+  }
 
-    this.expTestLibrary =
-      new ExpTestLibrary(parent == null, disabled.get(Library.EXP_TEST));
-    this.filterLibrary = new FilterLibrary(parent == null, disabled.get(Library.FILTER));
-    this.tagLibrary = new TagLibrary(parent == null, disabled.get(Library.TAG));
-    this.functionLibrary =
-      new FunctionLibrary(parent == null, disabled.get(Library.FUNCTION));
+  /**
+   * @return a count which changes whenever an exp test, filter, function or tag is
+   *         registered on this context, so that snapshots of it can be rebuilt
+   */
+  public int getLibraryModificationCount() {
+    return libraryModificationCount;
+  }
+
+  /**
+   * @return a count which changes whenever an exp test, filter, function or tag is
+   *         registered on this context or any of its parents, and so whenever looking one
+   *         up from this context could find another
+   */
+  public int getScopeLibraryModificationCount() {
+    int count = 0;
+    for (Context context = this; context != null; context = context.parent) {
+      count += context.libraryModificationCount;
+    }
+    return count;
   }
 
   public void reset() {
     // clear anything that pushes up to its parent's values
-    resolvedExpressions.clear();
-    resolvedValues.clear();
-    resolvedFunctions.clear();
-    dependencies = HashMultimap.create();
-    deferredNodes = new HashSet<>();
+    resolvedExpressions = null;
+    resolvedValues = null;
+    resolvedFunctions = null;
+    dependencies = null;
+    deferredNodes = null;
   }
 
   @Override
@@ -199,8 +348,11 @@ public class Context extends ScopeMap<String, Object> {
     getGlobalMacros().put(macro.getName(), macro);
   }
 
+  @SuppressWarnings("unchecked")
   public MacroFunction getGlobalMacro(String identifier) {
-    MacroFunction fn = getGlobalMacros().get(identifier);
+    Map<String, MacroFunction> macros = (Map<String, MacroFunction>) getScope()
+      .get(GLOBAL_MACROS_SCOPE_KEY);
+    MacroFunction fn = macros == null ? null : macros.get(identifier);
 
     if (fn == null && parent != null) {
       fn = parent.getGlobalMacro(identifier);
@@ -230,49 +382,85 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public void addResolvedExpression(String expression) {
+    if (isSnapshot) {
+      return;
+    }
+    if (resolvedExpressions == null) {
+      resolvedExpressions = new HashSet<>();
+    }
     resolvedExpressions.add(expression);
-    if (getParent() != null) {
+    if (getParent() != null && !isDetached) {
       getParent().addResolvedExpression(expression);
     }
   }
 
   public Set<String> getResolvedExpressions() {
-    return ImmutableSet.copyOf(resolvedExpressions);
+    return resolvedExpressions == null
+      ? ImmutableSet.of()
+      : ImmutableSet.copyOf(resolvedExpressions);
   }
 
   public boolean wasExpressionResolved(String expression) {
-    return resolvedExpressions.contains(expression);
+    return resolvedExpressions != null && resolvedExpressions.contains(expression);
   }
 
   public void addResolvedValue(String value) {
+    if (isSnapshot) {
+      return;
+    }
+    if (resolvedValues == null) {
+      resolvedValues = new HashSet<>();
+    }
     resolvedValues.add(value);
-    if (getParent() != null) {
+    if (getParent() != null && !isDetached) {
       getParent().addResolvedValue(value);
     }
   }
 
   public Set<String> getResolvedValues() {
-    return ImmutableSet.copyOf(resolvedValues);
+    return resolvedValues == null
+      ? ImmutableSet.of()
+      : ImmutableSet.copyOf(resolvedValues);
   }
 
   public boolean wasValueResolved(String value) {
-    return resolvedValues.contains(value);
+    return resolvedValues != null && resolvedValues.contains(value);
   }
 
   public Set<String> getResolvedFunctions() {
-    return ImmutableSet.copyOf(resolvedFunctions);
+    return resolvedFunctions == null
+      ? ImmutableSet.of()
+      : ImmutableSet.copyOf(resolvedFunctions);
   }
 
   public void addResolvedFunction(String function) {
+    if (isSnapshot) {
+      return;
+    }
+    if (resolvedFunctions == null) {
+      resolvedFunctions = new HashSet<>();
+    }
     resolvedFunctions.add(function);
-    if (getParent() != null) {
+    if (getParent() != null && !isDetached) {
       getParent().addResolvedFunction(function);
     }
   }
 
   public void handleDeferredNode(Node node) {
+    if (deferredNodes == null) {
+      deferredNodes = new HashSet<>();
+    }
     deferredNodes.add(node);
-    Set<String> deferredProps = DeferredValueUtils.findAndMarkDeferredProperties(this);
+    Set<String> deferredProps = DeferredValueUtils.findAndMarkDeferredProperties(
+      this,
+      node
+    );
+    if (!isDetached) {
+      propagateDeferredNode(node, deferredProps);
+    }
+  }
+
+  private void propagateDeferredNode(Node node, Set<String> deferredProps) {
     if (getParent() != null) {
       Context parent = getParent();
       //Ignore global context
@@ -288,7 +476,7 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public Set<Node> getDeferredNodes() {
-    return ImmutableSet.copyOf(deferredNodes);
+    return deferredNodes == null ? ImmutableSet.of() : ImmutableSet.copyOf(deferredNodes);
   }
 
   public List<? extends Node> getSuperBlock() {
@@ -328,17 +516,23 @@ public class Context extends ScopeMap<String, Object> {
   public final void registerClasses(Class<? extends Importable>... classes) {
     for (Class<? extends Importable> c : classes) {
       if (ExpTest.class.isAssignableFrom(c)) {
-        expTestLibrary.registerClasses((Class<? extends ExpTest>) c);
+        getOrCreateExpTestLibrary().registerClasses((Class<? extends ExpTest>) c);
       } else if (Filter.class.isAssignableFrom(c)) {
-        filterLibrary.registerClasses((Class<? extends Filter>) c);
+        getOrCreateFilterLibrary().registerClasses((Class<? extends Filter>) c);
       } else if (Tag.class.isAssignableFrom(c)) {
-        tagLibrary.registerClasses((Class<? extends Tag>) c);
+        getOrCreateTagLibrary().registerClasses((Class<? extends Tag>) c);
+        if (parent != null) {
+          hasScopedTags = true;
+        }
       }
     }
+    LIBRARY_MODIFICATION_COUNT.incrementAndGet(this);
   }
 
   public Collection<ExpTest> getAllExpTests() {
-    List<ExpTest> expTests = new ArrayList<>(expTestLibrary.entries());
+    List<ExpTest> expTests = expTestLibrary == null
+      ? new ArrayList<>()
+      : new ArrayList<>(expTestLibrary.entries());
 
     if (parent != null) {
       expTests.addAll(parent.getAllExpTests());
@@ -348,7 +542,7 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public ExpTest getExpTest(String name) {
-    ExpTest t = expTestLibrary.getExpTest(name);
+    ExpTest t = expTestLibrary == null ? null : expTestLibrary.getExpTest(name);
     if (t != null) {
       return t;
     }
@@ -359,11 +553,14 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public void registerExpTest(ExpTest t) {
-    expTestLibrary.addExpTest(t);
+    getOrCreateExpTestLibrary().addExpTest(t);
+    LIBRARY_MODIFICATION_COUNT.incrementAndGet(this);
   }
 
   public Collection<Filter> getAllFilters() {
-    List<Filter> filters = new ArrayList<>(filterLibrary.entries());
+    List<Filter> filters = filterLibrary == null
+      ? new ArrayList<>()
+      : new ArrayList<>(filterLibrary.entries());
 
     if (parent != null) {
       filters.addAll(parent.getAllFilters());
@@ -373,7 +570,7 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public Filter getFilter(String name) {
-    Filter f = filterLibrary.getFilter(name);
+    Filter f = filterLibrary == null ? null : filterLibrary.getFilter(name);
     if (f != null) {
       return f;
     }
@@ -384,7 +581,8 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public void registerFilter(Filter f) {
-    filterLibrary.addFilter(f);
+    getOrCreateFilterLibrary().addFilter(f);
+    LIBRARY_MODIFICATION_COUNT.incrementAndGet(this);
   }
 
   public boolean isFunctionDisabled(String name) {
@@ -395,7 +593,9 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public ELFunctionDefinition getFunction(String name) {
-    ELFunctionDefinition f = functionLibrary.getFunction(name);
+    ELFunctionDefinition f = functionLibrary == null
+      ? null
+      : functionLibrary.getFunction(name);
     if (f != null) {
       return f;
     }
@@ -406,7 +606,9 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public Collection<ELFunctionDefinition> getAllFunctions() {
-    List<ELFunctionDefinition> fns = new ArrayList<>(functionLibrary.entries());
+    List<ELFunctionDefinition> fns = functionLibrary == null
+      ? new ArrayList<>()
+      : new ArrayList<>(functionLibrary.entries());
 
     if (parent != null) {
       fns.addAll(parent.getAllFunctions());
@@ -422,11 +624,14 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public void registerFunction(ELFunctionDefinition f) {
-    functionLibrary.addFunction(f);
+    getOrCreateFunctionLibrary().addFunction(f);
+    LIBRARY_MODIFICATION_COUNT.incrementAndGet(this);
   }
 
   public Collection<Tag> getAllTags() {
-    List<Tag> tags = new ArrayList<>(tagLibrary.entries());
+    List<Tag> tags = tagLibrary == null
+      ? new ArrayList<>()
+      : new ArrayList<>(tagLibrary.entries());
 
     if (parent != null) {
       tags.addAll(parent.getAllTags());
@@ -436,7 +641,7 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public Tag getTag(String name) {
-    Tag t = tagLibrary.getTag(name);
+    Tag t = tagLibrary == null ? null : tagLibrary.getTag(name);
     if (t != null) {
       return t;
     }
@@ -447,39 +652,112 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public void registerTag(Tag t) {
-    tagLibrary.addTag(t);
+    getOrCreateTagLibrary().addTag(t);
+    if (parent != null) {
+      hasScopedTags = true;
+    }
+    LIBRARY_MODIFICATION_COUNT.incrementAndGet(this);
+  }
+
+  /**
+   * @return whether tags have been registered on this context, or on any of its parents,
+   *         other than the root context. Templates parsed here may then resolve tags
+   *         differently from the same templates parsed elsewhere.
+   */
+  public boolean hasScopedTags() {
+    return hasScopedTags || (parent != null && parent.hasScopedTags());
+  }
+
+  /**
+   * @return names of the tags disabled in this context or any of its parents
+   */
+  public Set<String> getDisabledTags() {
+    Set<String> parentDisabledTags = parent == null
+      ? ImmutableSet.of()
+      : parent.getDisabledTags();
+    Set<String> disabledTags = disabled == null ? null : disabled.get(Library.TAG);
+    if (disabledTags == null || disabledTags.isEmpty()) {
+      return parentDisabledTags;
+    }
+    return ImmutableSet
+      .<String>builder()
+      .addAll(parentDisabledTags)
+      .addAll(disabledTags)
+      .build();
   }
 
   public CallStack getExtendPathStack() {
+    if (extendPathStack == null) {
+      extendPathStack =
+        new CallStack(
+          parent == null ? null : parent.getExtendPathStack(),
+          ExtendsTagCycleException.class
+        );
+    }
     return extendPathStack;
   }
 
   public CallStack getImportPathStack() {
+    if (importPathStack == null) {
+      importPathStack =
+        new CallStack(
+          parent == null ? null : parent.getImportPathStack(),
+          ImportTagCycleException.class
+        );
+    }
     return importPathStack;
   }
 
   public CallStack getIncludePathStack() {
+    if (includePathStack == null) {
+      includePathStack =
+        new CallStack(
+          parent == null ? null : parent.getIncludePathStack(),
+          IncludeTagCycleException.class
+        );
+    }
     return includePathStack;
   }
 
   private CallStack getFromStack() {
+    if (fromStack == null) {
+      fromStack =
+        new CallStack(
+          parent == null ? null : parent.getFromStack(),
+          FromTagCycleException.class
+        );
+    }
     return fromStack;
   }
 
   public CallStack getMacroStack() {
+    if (macroStack == null) {
+      macroStack =
+        new CallStack(
+          parent == null ? null : parent.getMacroStack(),
+          MacroTagCycleException.class
+        );
+    }
     return macroStack;
   }
 
   public CallStack getCurrentPathStack() {
+    if (currentPathStack == null) {
+      currentPathStack =
+        new CallStack(
+          parent == null ? null : parent.getCurrentPathStack(),
+          TagCycleException.class
+        );
+    }
     return currentPathStack;
   }
 
   public void pushFromStack(String path, int lineNumber, int startPosition) {
-    fromStack.push(path, lineNumber, startPosition);
+    getFromStack().push(path, lineNumber, startPosition);
   }
 
   public void popFromStack() {
-    fromStack.pop();
+    getFromStack().pop();
   }
 
   public int getRenderDepth() {
@@ -499,35 +777,54 @@ public class Context extends ScopeMap<String, Object> {
   }
 
   public void pushRenderStack(String template) {
+    if (renderStack == null) {
+      renderStack = new Stack<>();
+    }
     renderStack.push(template);
   }
 
   public String popRenderStack() {
+    if (renderStack == null) {
+      throw new EmptyStackException();
+    }
     return renderStack.pop();
   }
 
   public boolean doesRenderStackContain(String template) {
-    return renderStack.contains(template);
+    return renderStack != null && renderStack.contains(template);
   }
 
   public void addDependency(String type, String identification) {
-    this.dependencies.get(type).add(identification);
-    if (parent != null) {
+    if (isSnapshot) {
+      return;
+    }
+    getDependencies().get(type).add(identification);
+    if (parent != null && !isDetached) {
       parent.addDependency(type, identification);
     }
   }
 
   public void addDependencies(SetMultimap<String, String> dependencies) {
-    this.dependencies.putAll(dependencies);
-    if (parent != null) {
+    if (isSnapshot || dependencies.isEmpty()) {
+      return;
+    }
+    getDependencies().putAll(dependencies);
+    if (parent != null && !isDetached) {
       parent.addDependencies(dependencies);
     }
   }
 
   public SetMultimap<String, String> getDependencies() {
+    if (dependencies == null) {
+      dependencies = HashMultimap.create();
+    }
     return this.dependencies;
   }
 
+  boolean hasDependencies() {
+    return dependencies != null && !dependencies.isEmpty();
+  }
+
   public boolean getHideInterpreterErrors() {
     return hideInterpreterErrors;
   }
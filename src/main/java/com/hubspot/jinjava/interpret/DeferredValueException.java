@@ -18,4 +18,9 @@ public class DeferredValueException extends InterpretException {
       startPosition
     );
   }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return fillInControlFlowStackTrace();
+  }
 }
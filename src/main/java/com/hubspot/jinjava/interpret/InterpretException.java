@@ -49,6 +49,22 @@ public class InterpretException extends RuntimeException {
     this(msg, throwable, lineNumber, -1);
   }
 
+  /**
+   * Fills in the stack trace of an exception used for flow control, unless the current
+   * interpreter is configured to leave them out.
+   *
+   * @see com.hubspot.jinjava.JinjavaConfig#isControlFlowStackTracesEnabled()
+   */
+  protected Throwable fillInControlFlowStackTrace() {
+    JinjavaInterpreter interpreter = JinjavaInterpreter.getCurrent();
+    if (
+      interpreter != null && !interpreter.getConfig().isControlFlowStackTracesEnabled()
+    ) {
+      return this;
+    }
+    return super.fillInStackTrace();
+  }
+
   public int getLineNumber() {
     return lineNumber;
   }
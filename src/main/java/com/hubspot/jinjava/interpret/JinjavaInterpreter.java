@@ -31,10 +31,13 @@ import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
 import com.hubspot.jinjava.interpret.errorcategory.BasicTemplateErrorCategory;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
 import com.hubspot.jinjava.random.ConstantZeroRandomNumberGenerator;
 import com.hubspot.jinjava.random.DeferredRandomNumberGenerator;
 import com.hubspot.jinjava.tree.Node;
 import com.hubspot.jinjava.tree.TreeParser;
+import com.hubspot.jinjava.tree.cache.ParsedTreeCache;
+import com.hubspot.jinjava.tree.cache.ParsedTreeCacheKey;
 import com.hubspot.jinjava.tree.output.BlockInfo;
 import com.hubspot.jinjava.tree.output.BlockPlaceholderOutputNode;
 import com.hubspot.jinjava.tree.output.OutputList;
@@ -42,8 +45,11 @@ import com.hubspot.jinjava.tree.output.OutputNode;
 import com.hubspot.jinjava.tree.output.RenderedOutputNode;
 import com.hubspot.jinjava.util.Variable;
 import com.hubspot.jinjava.util.WhitespaceUtils;
+import de.odysseus.el.tree.Tree;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -68,11 +74,14 @@ public class JinjavaInterpreter {
   private final ExpressionResolver expressionResolver;
   private final Jinjava application;
   private final Random random;
+  private RenderProfile profile;
+  private ParallelRenderer parallelRenderer;
+  private OutputList macroOutput;
 
   private int lineNumber = -1;
   private int position = 0;
   private int scopeDepth = 1;
-  private final List<TemplateError> errors = new LinkedList<>();
+  private final List<TemplateError> errors = new ArrayList<>();
   private static final int MAX_ERROR_SIZE = 100;
 
   public JinjavaInterpreter(
@@ -102,11 +111,20 @@ public class JinjavaInterpreter {
     }
 
     this.expressionResolver = new ExpressionResolver(this, application);
+    this.profile = config.isProfilingEnabled() ? new RenderProfile() : null;
+    // profiles aren't thread safe, so profiled renders stay on one thread
+    this.parallelRenderer =
+      config
+        .getParallelRenderExecutor()
+        .filter(executor -> profile == null)
+        .map(executor -> new ParallelRenderer(this, executor))
+        .orElse(null);
   }
 
   public JinjavaInterpreter(JinjavaInterpreter orig) {
     this(orig.application, new Context(orig.context), orig.config);
     scopeDepth = orig.getScopeDepth() + 1;
+    profile = orig.profile;
   }
 
   /**
@@ -152,7 +170,9 @@ public class JinjavaInterpreter {
     Context parent = context.getParent();
     scopeDepth--;
     if (parent != null) {
-      parent.addDependencies(context.getDependencies());
+      if (context.hasDependencies()) {
+        parent.addDependencies(context.getDependencies());
+      }
       context = parent;
     }
   }
@@ -161,6 +181,22 @@ public class JinjavaInterpreter {
     return random;
   }
 
+  /**
+   * @return the profile this interpreter records into, present when profiling is enabled in
+   *         the config. Child interpreters record into the profile of their parent.
+   */
+  public Optional<RenderProfile> getProfile() {
+    return Optional.ofNullable(profile);
+  }
+
+  /**
+   * @return path of the template currently being rendered, or an empty string for the top level
+   *         template
+   */
+  public String getCurrentTemplatePath() {
+    return context.getCurrentPathStack().peek().orElse("");
+  }
+
   public boolean isValidationMode() {
     return config.isValidationMode();
   }
@@ -177,6 +213,89 @@ public class JinjavaInterpreter {
     return new TreeParser(this, template).buildTree();
   }
 
+  /**
+   * Parse the given template, reusing the tree held in the application's {@link ParsedTreeCache}
+   * when the same source has already been parsed with the same settings. Trees which produced
+   * parse errors are never cached, so those errors are reported on every render.
+   *
+   * @param template
+   *          string to parse
+   * @return root node of a tree which may be shared with other renders, and must not be modified
+   */
+  public Node parseCached(String template) {
+    if (context.hasScopedTags()) {
+      return parse(template);
+    }
+
+    ParsedTreeCache cache = application.getParsedTreeCache();
+    ParsedTreeCacheKey key = ParsedTreeCacheKey.forTemplate(template, this);
+
+    Optional<Node> cached = cache.get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    return parseAndCache(key, template);
+  }
+
+  /**
+   * Load the resource at the given location and parse it into a root Node. If the resource
+   * locator reports a version for the resource, the tree is cached and reused for as long
+   * as the version stays the same.
+   *
+   * @param location
+   *          resolved location of the resource
+   * @return root node of a tree which may be shared with other renders, and must not be modified
+   */
+  public Node parseResource(String location) throws IOException {
+    Optional<String> version = application
+      .getResourceLocator()
+      .getVersion(location, this);
+    if (!version.isPresent() || context.hasScopedTags()) {
+      return parse(getResource(location));
+    }
+
+    ParsedTreeCache cache = application.getParsedTreeCache();
+    ParsedTreeCacheKey key = ParsedTreeCacheKey.forResource(
+      location,
+      version.get(),
+      this
+    );
+
+    Optional<Node> cached = cache.get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    return parseAndCache(key, getResource(location));
+  }
+
+  /**
+   * @return the tree cached for the resource at the given location, if it has already been
+   *         parsed at its current version; never loads or parses the resource
+   */
+  Optional<Node> getCachedResource(String location) {
+    if (context.hasScopedTags()) {
+      return Optional.empty();
+    }
+    return application
+      .getResourceLocator()
+      .getVersion(location, this)
+      .flatMap(
+        version ->
+          application
+            .getParsedTreeCache()
+            .get(ParsedTreeCacheKey.forResource(location, version, this))
+      );
+  }
+
+  private Node parseAndCache(ParsedTreeCacheKey key, String template) {
+    int errorCount = errors.size();
+    Node root = parse(template);
+    if (errors.size() == errorCount && errorCount < MAX_ERROR_SIZE) {
+      application.getParsedTreeCache().put(key, root);
+    }
+    return root;
+  }
+
   /**
    * Parse the given string into a root Node, and then render it without processing any extend parents.
    * This method should be used when the template is known to not have any extends or block tags.
@@ -233,9 +352,103 @@ public class JinjavaInterpreter {
    * @return rendered result
    */
   public String render(Node root, boolean processExtendRoots) {
-    OutputList output = new OutputList(config.getMaxOutputSize());
+    return render(root, processExtendRoots, newOutputList(root, null), false);
+  }
+
+  /**
+   * Render the given root node using this interpreter's current context, processing extend
+   * parents, and write the result to the given sink as it's rendered. The children of for
+   * and if tags are written as each is rendered, as are macros called on their own in an
+   * expression when nested interpretation is disabled and the output isn't autoescaped, so
+   * the body of a long loop isn't held in memory. Other tags are written once they've been
+   * rendered in full.
+   *
+   * <p>Output from the first block placeholder onwards is held back until the blocks have
+   * been resolved, and templates containing an extends tag are rendered in full before
+   * anything is written, since their own output is replaced by their parent's. When the
+   * render may defer values, only top level nodes are written as they're rendered, since a
+   * tag which defers is output as its source instead.
+   *
+   * @param root
+   *          node to render
+   * @param out
+   *          sink to write the rendered result to
+   */
+  public void render(Node root, Appendable out) throws IOException {
+    OutputList output = root.getAnalysis().isExtending()
+      ? newOutputList(root, null)
+      : newOutputList(root, out);
+    try {
+      out.append(render(root, true, output, !mayDefer()));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private OutputList newOutputList(Node root, Appendable sink) {
+    return new OutputList(
+      config.getMaxOutputSize(),
+      config.getOutputSizeUnit(),
+      sink,
+      root.getChildren().size()
+    );
+  }
 
-    for (Node node : root.getChildren()) {
+  /**
+   * @return whether rendering may defer part of the template, because something already
+   *         has, random numbers are deferred, or the context holds a deferred value
+   */
+  private boolean mayDefer() {
+    if (
+      !context.getDeferredNodes().isEmpty() ||
+      random instanceof DeferredRandomNumberGenerator
+    ) {
+      return true;
+    }
+    for (Context scope = context; scope != null; scope = scope.getParent()) {
+      for (Object value : scope.getScope().values()) {
+        if (value instanceof DeferredValue) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Has the next macro called by this interpreter add its output to the given list as it's
+   * rendered, and return an empty string, rather than return its output. Expressions which
+   * do nothing but call a macro use this to stream it.
+   */
+  public void setMacroOutput(OutputList output) {
+    macroOutput = output;
+  }
+
+  /**
+   * @return the list set by {@link #setMacroOutput(OutputList)}, if any, clearing it so that
+   *         the macros called by this one return their output
+   */
+  public Optional<OutputList> takeMacroOutput() {
+    Optional<OutputList> output = Optional.ofNullable(macroOutput);
+    macroOutput = null;
+    return output;
+  }
+
+  /**
+   * @param streamTags
+   *          whether tags add their children's output to the list as it's rendered, rather
+   *          than once they've been rendered in full
+   */
+  private String render(
+    Node root,
+    boolean processExtendRoots,
+    OutputList output,
+    boolean streamTags
+  ) {
+    List<Node> nodes = root.getChildren();
+    Map<Node, ParallelRenderer.Task<OutputNode>> parallelRenders = Collections.emptyMap();
+    for (int i = 0; i < nodes.size(); i++) {
+      Node node = nodes.get(i);
       lineNumber = node.getLineNumber();
       position = node.getStartPosition();
       String renderStr = node.getMaster().getImage();
@@ -258,16 +471,23 @@ public class JinjavaInterpreter {
           );
           output.addNode(new RenderedOutputNode(renderStr));
         } else {
-          OutputNode out;
-          context.pushRenderStack(renderStr);
-          try {
-            out = node.render(this);
-          } catch (DeferredValueException e) {
-            context.handleDeferredNode(node);
-            out = new RenderedOutputNode(node.getMaster().getImage());
+          if (parallelRenderer != null && !parallelRenders.containsKey(node)) {
+            Map<Node, ParallelRenderer.Task<OutputNode>> started = parallelRenderer.renderIncludes(
+              nodes,
+              i
+            );
+            if (!started.isEmpty()) {
+              parallelRenders = started;
+            }
+          }
+          ParallelRenderer.Task<OutputNode> task = parallelRenders.get(node);
+          if (task != null) {
+            output.addNode(task.finish(this));
+          } else if (streamTags) {
+            renderNode(node, output);
+          } else {
+            output.addNode(renderNode(node));
           }
-          context.popRenderStack();
-          output.addNode(out);
         }
       } catch (OutputTooBigException e) {
         addError(TemplateError.fromOutputTooBigException(e));
@@ -302,7 +522,7 @@ public class JinjavaInterpreter {
             context.getExtendPathStack().getTopStartPosition()
           );
         Node parentRoot = extendParentRoots.removeFirst();
-        output = new OutputList(config.getMaxOutputSize());
+        output = newOutputList(parentRoot, null);
 
         for (Node node : parentRoot.getChildren()) {
           lineNumber = node.getLineNumber() - 1; // The line number is off by one when rendering the extend parent
@@ -326,6 +546,81 @@ public class JinjavaInterpreter {
     return output.getValue();
   }
 
+  /**
+   * Render a top level node of the template, treating it as deferred if it depends on a
+   * deferred value.
+   */
+  OutputNode renderNode(Node node) {
+    OutputNode out;
+    lineNumber = node.getLineNumber();
+    position = node.getStartPosition();
+    context.pushRenderStack(node.getMaster().getImage());
+    try {
+      out = node.render(this);
+    } catch (DeferredValueException e) {
+      context.handleDeferredNode(node);
+      out = new RenderedOutputNode(node.getMaster().getImage());
+    }
+    context.popRenderStack();
+    return out;
+  }
+
+  private void renderNode(Node node, OutputList output) {
+    lineNumber = node.getLineNumber();
+    position = node.getStartPosition();
+    context.pushRenderStack(node.getMaster().getImage());
+    try {
+      node.render(this, output);
+    } catch (DeferredValueException e) {
+      context.handleDeferredNode(node);
+      output.addNode(new RenderedOutputNode(node.getMaster().getImage()));
+    }
+    context.popRenderStack();
+  }
+
+  /**
+   * @return an interpreter for rendering part of the current template on another thread, in a
+   *         detached child of the current scope
+   * @see #mergeParallelWorker(JinjavaInterpreter)
+   */
+  JinjavaInterpreter newParallelWorker() {
+    JinjavaInterpreter worker = new JinjavaInterpreter(
+      application,
+      context.newDetachedChild(),
+      config
+    );
+    worker.scopeDepth = scopeDepth;
+    worker.parallelRenderer = null;
+    return worker;
+  }
+
+  /**
+   * Apply the errors and context changes of a finished worker to this interpreter, as if its
+   * part of the template had been rendered here.
+   */
+  void mergeParallelWorker(JinjavaInterpreter worker) {
+    worker.context.mergeIntoParent();
+    for (TemplateError error : worker.errors) {
+      if (errors.size() >= MAX_ERROR_SIZE) {
+        break;
+      }
+      errors.add(error);
+    }
+  }
+
+  /**
+   * @return the innermost override of the named block, or null if there is none
+   */
+  BlockInfo getBlock(String blockName) {
+    return Iterables.getFirst(blocks.get(blockName), null);
+  }
+
+  String renderBlock(BlockInfo block) {
+    OutputList blockValueBuilder = newBlockOutputList(block);
+    renderBlockNodes(block, blockValueBuilder);
+    return blockValueBuilder.getValue();
+  }
+
   private void resolveBlockStubs(OutputList output) {
     resolveBlockStubs(output, new Stack<>());
   }
@@ -335,8 +630,24 @@ public class JinjavaInterpreter {
     value = "NP_NONNULL_PARAM_VIOLATION"
   )
   private void resolveBlockStubs(OutputList output, Stack<String> blockNames) {
-    for (BlockPlaceholderOutputNode blockPlaceholder : output.getBlocks()) {
-      if (!blockNames.contains(blockPlaceholder.getBlockName())) {
+    List<BlockPlaceholderOutputNode> placeholders = output.getBlocks();
+    Map<BlockPlaceholderOutputNode, ParallelRenderer.Task<String>> parallelRenders = Collections.emptyMap();
+    for (int i = 0; i < placeholders.size(); i++) {
+      BlockPlaceholderOutputNode blockPlaceholder = placeholders.get(i);
+      if (parallelRenderer != null && !parallelRenders.containsKey(blockPlaceholder)) {
+        Map<BlockPlaceholderOutputNode, ParallelRenderer.Task<String>> started = parallelRenderer.resolveBlocks(
+          placeholders,
+          i,
+          blockNames
+        );
+        if (!started.isEmpty()) {
+          parallelRenders = started;
+        }
+      }
+      ParallelRenderer.Task<String> task = parallelRenders.get(blockPlaceholder);
+      if (task != null) {
+        blockPlaceholder.resolve(task.finish(this));
+      } else if (!blockNames.contains(blockPlaceholder.getBlockName())) {
         Collection<BlockInfo> blockChain = blocks.get(blockPlaceholder.getBlockName());
         BlockInfo block = Iterables.getFirst(blockChain, null);
 
@@ -347,34 +658,8 @@ public class JinjavaInterpreter {
             .orElse(null);
           context.setSuperBlock(superBlock);
 
-          OutputList blockValueBuilder = new OutputList(config.getMaxOutputSize());
-
-          for (Node child : block.getNodes()) {
-            lineNumber = child.getLineNumber();
-            position = child.getStartPosition();
-
-            boolean pushedParentPathOntoStack = false;
-            if (
-              block.getParentPath().isPresent() &&
-              !getContext().getCurrentPathStack().contains(block.getParentPath().get())
-            ) {
-              getContext()
-                .getCurrentPathStack()
-                .push(
-                  block.getParentPath().get(),
-                  block.getParentLineNo(),
-                  block.getParentPosition()
-                );
-              pushedParentPathOntoStack = true;
-              lineNumber--; // The line number is off by one when rendering the block from the parent template
-            }
-
-            blockValueBuilder.addNode(child.render(this));
-
-            if (pushedParentPathOntoStack) {
-              getContext().getCurrentPathStack().pop();
-            }
-          }
+          OutputList blockValueBuilder = newBlockOutputList(block);
+          renderBlockNodes(block, blockValueBuilder);
 
           blockNames.push(blockPlaceholder.getBlockName());
           resolveBlockStubs(blockValueBuilder, blockNames);
@@ -392,6 +677,44 @@ public class JinjavaInterpreter {
     }
   }
 
+  private OutputList newBlockOutputList(BlockInfo block) {
+    return new OutputList(
+      config.getMaxOutputSize(),
+      config.getOutputSizeUnit(),
+      null,
+      block.getNodes().size()
+    );
+  }
+
+  private void renderBlockNodes(BlockInfo block, OutputList blockValueBuilder) {
+    for (Node child : block.getNodes()) {
+      lineNumber = child.getLineNumber();
+      position = child.getStartPosition();
+
+      boolean pushedParentPathOntoStack = false;
+      if (
+        block.getParentPath().isPresent() &&
+        !getContext().getCurrentPathStack().contains(block.getParentPath().get())
+      ) {
+        getContext()
+          .getCurrentPathStack()
+          .push(
+            block.getParentPath().get(),
+            block.getParentLineNo(),
+            block.getParentPosition()
+          );
+        pushedParentPathOntoStack = true;
+        lineNumber--; // The line number is off by one when rendering the block from the parent template
+      }
+
+      blockValueBuilder.addNode(child.render(this));
+
+      if (pushedParentPathOntoStack) {
+        getContext().getCurrentPathStack().pop();
+      }
+    }
+  }
+
   /**
    * Resolve a variable from the interpreter context, returning null if not found. This method updates the template error accumulators when a variable is not found.
    *
@@ -494,6 +817,13 @@ public class JinjavaInterpreter {
     return config;
   }
 
+  /**
+   * @return the Jinjava instance this interpreter renders for
+   */
+  public Jinjava getApplication() {
+    return application;
+  }
+
   /**
    * Resolve expression against current context.
    *
@@ -508,6 +838,36 @@ public class JinjavaInterpreter {
     return expressionResolver.resolveExpression(expression);
   }
 
+  /**
+   * Resolve expression against current context, reusing the expression tree cached on the
+   * node being rendered rather than parsing the expression again.
+   *
+   * @param expression
+   *          Jinja expression.
+   * @param node
+   *          Node the expression belongs to, which must always evaluate the same set of
+   *          expressions.
+   * @return Value of expression.
+   */
+  public Object resolveELExpression(String expression, Node node) {
+    this.lineNumber = node.getLineNumber();
+    return expressionResolver.resolveExpression(expression, node);
+  }
+
+  /**
+   * Parse an expression without resolving it, using the tree cache of the node it belongs
+   * to.
+   *
+   * @param expression
+   *          Jinja expression.
+   * @param node
+   *          Node the expression belongs to.
+   * @return Parsed expression tree.
+   */
+  public Tree getExpressionTree(String expression, Node node) {
+    return expressionResolver.getExpressionTree(expression, node);
+  }
+
   /**
    * Resolve property of bean.
    *
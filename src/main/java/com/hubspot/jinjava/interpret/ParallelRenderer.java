@@ -0,0 +1,209 @@
+package com.hubspot.jinjava.interpret;
+
+import com.hubspot.jinjava.lib.tag.IncludeTag;
+import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.NodeAnalysis;
+import com.hubspot.jinjava.tree.TagNode;
+import com.hubspot.jinjava.tree.TextNode;
+import com.hubspot.jinjava.tree.output.BlockInfo;
+import com.hubspot.jinjava.tree.output.BlockPlaceholderOutputNode;
+import com.hubspot.jinjava.tree.output.OutputNode;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Renders runs of independent includes, and of block overrides, concurrently on the executor
+ * from {@link com.hubspot.jinjava.JinjavaConfig#getParallelRenderExecutor()}.
+ *
+ * <p>A node only qualifies when its {@link NodeAnalysis} says it's pure, and every template it
+ * includes has already been parsed and qualifies itself.
+ *
+ * <p>Each node is rendered by its own worker interpreter in a detached child of the current
+ * scope. The rendering thread waits for the whole run, then takes the results in template
+ * order, applying each worker's errors and context changes as it goes, so the output and
+ * errors are the same as for a sequential render.
+ */
+class ParallelRenderer {
+  private final JinjavaInterpreter interpreter;
+  private final Executor executor;
+
+  ParallelRenderer(JinjavaInterpreter interpreter, Executor executor) {
+    this.interpreter = interpreter;
+    this.executor = executor;
+  }
+
+  /**
+   * Renders the run of qualifying includes starting at {@code nodes.get(from)}, skipping
+   * over text between them, and waits for all of them to finish.
+   *
+   * @return the finished renders by node, or an empty map if there aren't at least two
+   *         includes to render together
+   */
+  Map<Node, Task<OutputNode>> renderIncludes(List<Node> nodes, int from) {
+    if (!isPureInclude(nodes.get(from))) {
+      return Collections.emptyMap();
+    }
+
+    int end = from + 1;
+    int includes = 1;
+    for (; end < nodes.size(); end++) {
+      Node node = nodes.get(end);
+      if (node instanceof TextNode) {
+        continue;
+      }
+      if (!isPureInclude(node)) {
+        break;
+      }
+      includes++;
+    }
+    if (includes < 2) {
+      return Collections.emptyMap();
+    }
+
+    Map<Node, Task<OutputNode>> tasks = new IdentityHashMap<>();
+    for (Node node : nodes.subList(from, end)) {
+      if (!(node instanceof TextNode)) {
+        tasks.put(node, submit(worker -> worker.renderNode(node)));
+      }
+    }
+    awaitAll(tasks.values());
+    return tasks;
+  }
+
+  /**
+   * Resolves the run of block placeholders starting at {@code placeholders.get(from)} whose
+   * overrides qualify, skipping over placeholders with no override, and waits for all of
+   * them to finish.
+   *
+   * @return the finished renders by placeholder, or an empty map if there aren't at least two
+   *         blocks to render together
+   */
+  Map<BlockPlaceholderOutputNode, Task<String>> resolveBlocks(
+    List<BlockPlaceholderOutputNode> placeholders,
+    int from,
+    Stack<String> blockNames
+  ) {
+    Map<BlockPlaceholderOutputNode, BlockInfo> run = new IdentityHashMap<>();
+    for (int i = from; i < placeholders.size(); i++) {
+      BlockPlaceholderOutputNode placeholder = placeholders.get(i);
+      if (blockNames.contains(placeholder.getBlockName())) {
+        continue;
+      }
+      BlockInfo block = interpreter.getBlock(placeholder.getBlockName());
+      if (block == null || block.getNodes() == null) {
+        continue;
+      }
+      if (!block.getNodes().stream().allMatch(node -> isPure(node, new HashSet<>()))) {
+        break;
+      }
+      run.put(placeholder, block);
+    }
+    if (run.size() < 2 || !run.containsKey(placeholders.get(from))) {
+      return Collections.emptyMap();
+    }
+
+    Map<BlockPlaceholderOutputNode, Task<String>> tasks = new IdentityHashMap<>();
+    run.forEach(
+      (placeholder, block) ->
+        tasks.put(placeholder, submit(worker -> worker.renderBlock(block)))
+    );
+    awaitAll(tasks.values());
+    return tasks;
+  }
+
+  private <T> Task<T> submit(Function<JinjavaInterpreter, T> render) {
+    JinjavaInterpreter worker = interpreter.newParallelWorker();
+    Supplier<T> task = () -> {
+      JinjavaInterpreter.pushCurrent(worker);
+      try {
+        return render.apply(worker);
+      } finally {
+        JinjavaInterpreter.popCurrent();
+      }
+    };
+    return new Task<>(worker, CompletableFuture.supplyAsync(task, executor));
+  }
+
+  private static void awaitAll(Iterable<? extends Task<?>> tasks) {
+    for (Task<?> task : tasks) {
+      task.result.handle((result, e) -> null).join();
+    }
+  }
+
+  private boolean isPureInclude(Node node) {
+    return (
+      node instanceof TagNode &&
+      ((TagNode) node).getTag() instanceof IncludeTag &&
+      isPure(node, new HashSet<>())
+    );
+  }
+
+  private boolean isPure(Node node, Set<String> includePaths) {
+    NodeAnalysis analysis = node.getAnalysis();
+    if (!analysis.isPure()) {
+      return false;
+    }
+    for (String path : analysis.getResources()) {
+      if (!isPureResource(path, includePaths)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isPureResource(String path, Set<String> includePaths) {
+    String location = interpreter.resolveResourceLocation(path);
+    if (
+      interpreter.getContext().getIncludePathStack().contains(location) ||
+      !includePaths.add(location)
+    ) {
+      return false;
+    }
+    try {
+      Optional<Node> root = interpreter.getCachedResource(location);
+      return root.isPresent() && isPure(root.get(), includePaths);
+    } finally {
+      includePaths.remove(location);
+    }
+  }
+
+  static class Task<T> {
+    private final JinjavaInterpreter worker;
+    private final CompletableFuture<T> result;
+
+    private Task(JinjavaInterpreter worker, CompletableFuture<T> result) {
+      this.worker = worker;
+      this.result = result;
+    }
+
+    /**
+     * Applies the worker's errors and context changes to the given interpreter, then
+     * returns its result or rethrows what it threw.
+     */
+    T finish(JinjavaInterpreter interpreter) {
+      interpreter.mergeParallelWorker(worker);
+      try {
+        return result.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.hubspot.jinjava.interpret;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.TextNode;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Result of the first pass of a two-phase render. Everything that could be rendered is held
+ * as text, while the parts which depended on a {@link DeferredValue} are kept as parsed
+ * nodes, together with the original values of the bindings those nodes reference. The
+ * second pass then only evaluates the deferred nodes, without scanning or parsing the
+ * rendered text again.
+ *
+ * Instances are immutable and may be rendered any number of times, concurrently. They're
+ * serializable as long as the captured bindings are.
+ *
+ * @see com.hubspot.jinjava.Jinjava#prerender(String, Map)
+ */
+public class PrerenderedTemplate implements Serializable {
+  private static final long serialVersionUID = 2270335766829460263L;
+
+  private final Node root;
+  private final Map<String, Object> bindings;
+
+  private PrerenderedTemplate(Node root, Map<String, Object> bindings) {
+    this.root = root;
+    this.bindings = bindings;
+  }
+
+  /**
+   * @param output
+   *          output of the first pass, in which deferred nodes are left as template source
+   * @param context
+   *          context the first pass was rendered with, holding the values its deferred nodes
+   *          depend on
+   * @param interpreter
+   *          interpreter to parse the output with
+   */
+  public static PrerenderedTemplate from(
+    String output,
+    Context context,
+    JinjavaInterpreter interpreter
+  ) {
+    ImmutableMap.Builder<String, Object> bindings = ImmutableMap.builder();
+    for (Map.Entry<String, Object> entry : context.getScope().entrySet()) {
+      if (entry.getValue() instanceof DeferredValue) {
+        Object originalValue = ((DeferredValue) entry.getValue()).getOriginalValue();
+        if (originalValue != null) {
+          bindings.put(entry.getKey(), originalValue);
+        }
+      }
+    }
+
+    return new PrerenderedTemplate(interpreter.parse(output), bindings.build());
+  }
+
+  /**
+   * @return root of the parsed first pass output, which must not be modified
+   */
+  public Node getRoot() {
+    return root;
+  }
+
+  /**
+   * @return original values of the bindings which the deferred nodes depend on, keyed by name
+   */
+  public Map<String, Object> getBindings() {
+    return bindings;
+  }
+
+  /**
+   * @return whether nothing was deferred, so that the first pass output is final
+   */
+  public boolean isFullyRendered() {
+    return root.getChildren().stream().allMatch(node -> node instanceof TextNode);
+  }
+
+  /**
+   * @return the first pass output, with deferred nodes as template source
+   */
+  public String getImage() {
+    StringBuilder image = new StringBuilder();
+    for (Node node : root.getChildren()) {
+      image.append(node.reconstructImage());
+    }
+    return image.toString();
+  }
+}
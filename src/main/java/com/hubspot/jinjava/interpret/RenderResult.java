@@ -1,18 +1,31 @@
 package com.hubspot.jinjava.interpret;
 
 import com.google.common.collect.ImmutableList;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public class RenderResult {
   private final String output;
   private final Context context;
   private final List<TemplateError> errors;
+  private final RenderProfile profile;
 
   public RenderResult(String output, Context context, List<TemplateError> errors) {
+    this(output, context, errors, null);
+  }
+
+  public RenderResult(
+    String output,
+    Context context,
+    List<TemplateError> errors,
+    RenderProfile profile
+  ) {
     this.output = output;
     this.context = context;
     this.errors = errors;
+    this.profile = profile;
   }
 
   public RenderResult(
@@ -24,12 +37,14 @@ public class RenderResult {
     this.context = context;
     this.errors =
       ImmutableList.<TemplateError>builder().add(fromException).addAll(errors).build();
+    this.profile = null;
   }
 
   public RenderResult(String result) {
     this.output = result;
     this.context = null;
     this.errors = Collections.emptyList();
+    this.profile = null;
   }
 
   public boolean hasErrors() {
@@ -48,7 +63,15 @@ public class RenderResult {
     return output;
   }
 
+  /**
+   * @return profile of the render, present when profiling is enabled in the config and the
+   *         render completed
+   */
+  public Optional<RenderProfile> getProfile() {
+    return Optional.ofNullable(profile);
+  }
+
   public RenderResult withOutput(String newOutput) {
-    return new RenderResult(newOutput, getContext(), getErrors());
+    return new RenderResult(newOutput, getContext(), getErrors(), profile);
   }
 }
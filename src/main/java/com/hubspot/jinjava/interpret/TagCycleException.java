@@ -19,6 +19,11 @@ public class TagCycleException extends TemplateStateException {
     this.tagName = tagName;
   }
 
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return fillInControlFlowStackTrace();
+  }
+
   public String getPath() {
     return path;
   }
@@ -0,0 +1,8 @@
+package com.hubspot.jinjava.interpret.profile;
+
+public enum ProfileKind {
+  TAG,
+  EXPRESSION,
+  FILTER,
+  MACRO
+}
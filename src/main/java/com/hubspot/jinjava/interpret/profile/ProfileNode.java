@@ -0,0 +1,132 @@
+package com.hubspot.jinjava.interpret.profile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Aggregated measurements for one tag, expression, filter or macro at a given template
+ * location, under a given parent in the call tree.
+ */
+public class ProfileNode {
+  private final ProfileKind kind;
+  private final String name;
+  private final String template;
+  private final int lineNumber;
+  private final List<ProfileNode> children = new ArrayList<>();
+
+  private long count;
+  private long totalNanos;
+  private long outputSize;
+
+  ProfileNode(ProfileKind kind, String name, String template, int lineNumber) {
+    this.kind = kind;
+    this.name = name;
+    this.template = template;
+    this.lineNumber = lineNumber;
+  }
+
+  ProfileNode getOrCreateChild(
+    ProfileKind kind,
+    String name,
+    String template,
+    int lineNumber
+  ) {
+    for (ProfileNode child : children) {
+      if (
+        child.kind == kind &&
+        child.lineNumber == lineNumber &&
+        child.name.equals(name) &&
+        child.template.equals(template)
+      ) {
+        return child;
+      }
+    }
+    ProfileNode child = new ProfileNode(kind, name, template, lineNumber);
+    children.add(child);
+    return child;
+  }
+
+  void record(long nanos, long outputSize) {
+    this.count++;
+    this.totalNanos += nanos;
+    this.outputSize += outputSize;
+  }
+
+  /**
+   * @return kind of the profiled element, or null for the root of the tree
+   */
+  public ProfileKind getKind() {
+    return kind;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return path of the template being rendered, or an empty string for the top level template
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  public List<ProfileNode> getChildren() {
+    return Collections.unmodifiableList(children);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return wall time spent in this element, including its children
+   */
+  public long getTotalNanos() {
+    if (kind == null) {
+      return getChildrenNanos();
+    }
+    return totalNanos;
+  }
+
+  /**
+   * @return wall time spent in this element, excluding its children
+   */
+  public long getSelfNanos() {
+    return getTotalNanos() - getChildrenNanos();
+  }
+
+  /**
+   * @return number of characters output by this element
+   */
+  public long getOutputSize() {
+    return outputSize;
+  }
+
+  private long getChildrenNanos() {
+    long nanos = 0;
+    for (ProfileNode child : children) {
+      nanos += child.getTotalNanos();
+    }
+    return nanos;
+  }
+
+  @Override
+  public String toString() {
+    return (
+      Objects.toString(kind, "RENDER") +
+      " " +
+      name +
+      " (" +
+      template +
+      ":" +
+      lineNumber +
+      ")"
+    );
+  }
+}
@@ -0,0 +1,96 @@
+package com.hubspot.jinjava.interpret.profile;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Records wall time, invocation counts and output size of the tags, expressions, filters
+ * and macros evaluated during a render, aggregated into a call tree. Repeated evaluations
+ * of the same element under the same parent, such as a filter inside a loop, are merged
+ * into a single node.
+ *
+ * A profile belongs to a single render and is not thread safe. It's created by the
+ * interpreter when {@link com.hubspot.jinjava.JinjavaConfig#isProfilingEnabled()} is set.
+ */
+public class RenderProfile {
+  private static final int MAX_NAME_LENGTH = 60;
+
+  private final ProfileNode root = new ProfileNode(null, "", "", -1);
+  private final ArrayDeque<ProfileNode> stack = new ArrayDeque<>();
+  private long[] startTimes = new long[16];
+
+  /**
+   * Start measuring an element. Every call must be matched by a call to {@link #exit(long)},
+   * normally from a finally block.
+   */
+  public void enter(ProfileKind kind, String name, String template, int lineNumber) {
+    ProfileNode parent = stack.isEmpty() ? root : stack.peek();
+    ProfileNode node = parent.getOrCreateChild(
+      kind,
+      StringUtils.defaultString(name),
+      StringUtils.defaultString(template),
+      lineNumber
+    );
+
+    int depth = stack.size();
+    if (depth == startTimes.length) {
+      startTimes = Arrays.copyOf(startTimes, depth * 2);
+    }
+    stack.push(node);
+    startTimes[depth] = System.nanoTime();
+  }
+
+  /**
+   * Stop measuring the element most recently entered.
+   *
+   * @param outputSize
+   *          number of characters the element produced
+   */
+  public void exit(long outputSize) {
+    long end = System.nanoTime();
+    ProfileNode node = stack.pop();
+    node.record(end - startTimes[stack.size()], outputSize);
+  }
+
+  public ProfileNode getRoot() {
+    return root;
+  }
+
+  /**
+   * @return an indented, human readable rendering of the profile tree
+   */
+  public String dump() {
+    StringBuilder builder = new StringBuilder();
+    for (ProfileNode child : root.getChildren()) {
+      dump(child, 0, builder);
+    }
+    return builder.toString();
+  }
+
+  private static void dump(ProfileNode node, int depth, StringBuilder builder) {
+    builder
+      .append(StringUtils.repeat("  ", depth))
+      .append(node.getKind())
+      .append(' ')
+      .append(StringUtils.abbreviate(node.getName(), MAX_NAME_LENGTH))
+      .append(" (")
+      .append(node.getTemplate())
+      .append(':')
+      .append(node.getLineNumber())
+      .append(") count=")
+      .append(node.getCount())
+      .append(" total=")
+      .append(TimeUnit.NANOSECONDS.toMicros(node.getTotalNanos()))
+      .append("us self=")
+      .append(TimeUnit.NANOSECONDS.toMicros(node.getSelfNanos()))
+      .append("us output=")
+      .append(node.getOutputSize())
+      .append('\n');
+
+    for (ProfileNode child : node.getChildren()) {
+      dump(child, depth + 1, builder);
+    }
+  }
+}
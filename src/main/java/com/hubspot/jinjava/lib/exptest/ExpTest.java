@@ -24,4 +24,12 @@ public interface ExpTest extends Importable {
   ) {
     return !evaluate(var, interpreter, args);
   }
+
+  /**
+   * @return true if the result depends only on the value and arguments, and evaluating the
+   *         test has no side effects on the context
+   */
+  default boolean isPure() {
+    return false;
+  }
 }
@@ -27,4 +27,9 @@ public class IsBooleanExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return var instanceof Boolean;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -100,4 +100,9 @@ public class IsDivisibleByExpTest implements ExpTest {
 
     return (dividend % divisor) == 0;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
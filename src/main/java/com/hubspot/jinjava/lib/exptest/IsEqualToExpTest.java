@@ -52,4 +52,9 @@ public class IsEqualToExpTest implements ExpTest {
 
     return BooleanOperations.eq(TYPE_CONVERTER, var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class IsEvenExpTest implements ExpTest {
 
     return ((Number) var).intValue() % 2 == 0;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -32,4 +32,9 @@ public class IsFloatExpTest implements ExpTest {
       (var instanceof BigDecimal && ((BigDecimal) var).scale() > 0)
     );
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
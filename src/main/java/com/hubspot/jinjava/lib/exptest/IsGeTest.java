@@ -52,4 +52,9 @@ public class IsGeTest implements ExpTest {
 
     return BooleanOperations.ge(TYPE_CONVERTER, var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -52,4 +52,9 @@ public class IsGtTest implements ExpTest {
 
     return BooleanOperations.gt(TYPE_CONVERTER, var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
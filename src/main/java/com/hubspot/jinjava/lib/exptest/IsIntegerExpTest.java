@@ -36,4 +36,9 @@ public class IsIntegerExpTest implements ExpTest {
       (var instanceof BigDecimal && ((BigDecimal) var).scale() == 0)
     );
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -34,4 +34,9 @@ public class IsIterableExpTest implements ExpTest {
       (ob.getClass().isArray() || Iterable.class.isAssignableFrom(ob.getClass()))
     );
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
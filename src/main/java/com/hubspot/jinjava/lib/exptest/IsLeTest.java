@@ -52,4 +52,9 @@ public class IsLeTest implements ExpTest {
 
     return BooleanOperations.le(TYPE_CONVERTER, var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
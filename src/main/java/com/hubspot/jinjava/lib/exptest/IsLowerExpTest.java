@@ -32,4 +32,9 @@ public class IsLowerExpTest implements ExpTest {
 
     return StringUtils.isAllLowerCase((String) var);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
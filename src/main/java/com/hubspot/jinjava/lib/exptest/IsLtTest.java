@@ -52,4 +52,9 @@ public class IsLtTest implements ExpTest {
 
     return BooleanOperations.lt(TYPE_CONVERTER, var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -28,4 +28,9 @@ public class IsMappingExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return var != null && Map.class.isAssignableFrom(var.getClass());
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -52,4 +52,9 @@ public class IsNeExpTest implements ExpTest {
 
     return BooleanOperations.ne(TYPE_CONVERTER, var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -29,4 +29,9 @@ public class IsNumberExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return var != null && Number.class.isAssignableFrom(var.getClass());
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class IsOddExpTest implements ExpTest {
 
     return ((Number) var).intValue() % 2 != 0;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
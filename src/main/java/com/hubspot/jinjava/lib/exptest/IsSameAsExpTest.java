@@ -42,4 +42,9 @@ public class IsSameAsExpTest implements ExpTest {
 
     return var == args[0];
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
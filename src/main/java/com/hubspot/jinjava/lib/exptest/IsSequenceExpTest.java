@@ -29,4 +29,9 @@ public class IsSequenceExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return isIterable(var);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
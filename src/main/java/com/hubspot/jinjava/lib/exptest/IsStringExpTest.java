@@ -28,4 +28,9 @@ public class IsStringExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return var != null && (var instanceof String || var instanceof SafeString);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
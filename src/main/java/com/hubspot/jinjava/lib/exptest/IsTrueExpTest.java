@@ -27,4 +27,9 @@ public class IsTrueExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return var instanceof Boolean && (Boolean) var;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -28,4 +28,9 @@ public class IsTruthyExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return ObjectTruthValue.evaluate(var);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -27,4 +27,9 @@ public class IsUndefinedExpTest implements ExpTest {
   public boolean evaluate(Object var, JinjavaInterpreter interpreter, Object... args) {
     return var == null;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -33,4 +33,9 @@ public class IsUpperExpTest implements ExpTest {
 
     return StringUtils.isAllUpperCase(var.toString());
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
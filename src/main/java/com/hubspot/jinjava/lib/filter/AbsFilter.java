@@ -78,4 +78,9 @@ public class AbsFilter implements Filter {
   public String getName() {
     return "abs";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
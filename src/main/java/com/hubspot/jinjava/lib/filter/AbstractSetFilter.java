@@ -29,4 +29,9 @@ public abstract class AbstractSetFilter implements AdvancedFilter {
     }
     return result;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -97,4 +97,9 @@ public class AddFilter implements Filter {
   public String getName() {
     return "add";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
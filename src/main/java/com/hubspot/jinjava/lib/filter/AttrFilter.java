@@ -46,4 +46,9 @@ public class AttrFilter implements Filter {
 
     return interpreter.resolveProperty(var, args[0]);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -101,4 +101,9 @@ public class BatchFilter implements Filter {
 
     return result;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -53,4 +53,9 @@ public class BoolFilter implements Filter {
 
     return str.equals("1") ? Boolean.TRUE : BooleanUtils.toBoolean(str);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -39,4 +39,9 @@ public class CapitalizeFilter implements Filter {
     }
     return var;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
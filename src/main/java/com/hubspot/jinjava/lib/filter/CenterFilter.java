@@ -48,4 +48,9 @@ public class CenterFilter implements Filter {
 
     return StringUtils.center(var.toString(), size);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -59,4 +59,9 @@ public class CutFilter implements Filter {
   public String getName() {
     return "cut";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
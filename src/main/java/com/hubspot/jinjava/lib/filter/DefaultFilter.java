@@ -95,4 +95,9 @@ public class DefaultFilter extends AbstractFilter implements AdvancedFilter {
   public String getName() {
     return "default";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -102,4 +102,9 @@ public class DictSortFilter implements Filter {
       return result;
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
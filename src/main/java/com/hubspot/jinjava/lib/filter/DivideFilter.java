@@ -117,4 +117,9 @@ public class DivideFilter implements Filter {
   public String getName() {
     return "divide";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
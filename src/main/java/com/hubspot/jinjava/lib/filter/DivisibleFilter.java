@@ -75,4 +75,9 @@ public class DivisibleFilter implements Filter {
   public String getName() {
     return "divisible";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -60,4 +60,9 @@ public class EscapeFilter implements Filter {
   public String getName() {
     return "escape";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -56,4 +56,9 @@ public class EscapeJinjavaFilter implements Filter {
   public String getName() {
     return "escape_jinjava";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
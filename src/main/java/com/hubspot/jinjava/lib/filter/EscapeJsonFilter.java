@@ -23,4 +23,9 @@ public class EscapeJsonFilter implements Filter {
   public Object filter(Object var, JinjavaInterpreter interpreter, String... args) {
     return StringEscapeUtils.escapeJson(Objects.toString(var));
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -88,4 +88,9 @@ public class FileSizeFormatFilter implements Filter {
     "ZB",
     "YB"
   };
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -40,6 +40,8 @@ public interface Filter extends Importable {
    *   - Positional arguments as Object[]
    *   - Named arguments as Map<String, Object>
    *
+   * Both belong to the caller and may be shared or immutable, so filters mustn't modify them.
+   *
    * This default method transforms that call to a simple filter that only receives String positional arguments to
    * maintain backward-compatibility with old filters that don't support named arguments.
    */
@@ -70,6 +72,16 @@ public interface Filter extends Importable {
     return filter(var, interpreter, filterArgs);
   }
 
+  /**
+   * @return true if the result depends only on the input and arguments, and filtering has no
+   *         side effects on the context, so calls with the same input can be evaluated once and
+   *         reused. Filters which read the time, pick random values, apply other filters or
+   *         expression tests by name, or depend on the render config aren't pure.
+   */
+  default boolean isPure() {
+    return false;
+  }
+
   default boolean preserveSafeString() {
     return true;
   }
@@ -34,4 +34,9 @@ public class FirstFilter implements Filter {
     ForLoop loop = ObjectIterator.getLoop(var);
     return loop.next();
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
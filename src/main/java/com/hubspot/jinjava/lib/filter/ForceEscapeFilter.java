@@ -28,4 +28,9 @@ public class ForceEscapeFilter implements Filter {
   public Object filter(Object var, JinjavaInterpreter interpreter, String... args) {
     return StringEscapeUtils.escapeHtml4(Objects.toString(var, ""));
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -82,4 +82,9 @@ public class FormatFilter implements AdvancedFilter {
       throw new InvalidArgumentException(interpreter, NAME, e.getMessage());
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -41,4 +41,9 @@ public class FromJsonFilter implements Filter {
   public String getName() {
     return "fromjson";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -41,4 +41,9 @@ public class FromYamlFilter implements Filter {
   public String getName() {
     return "fromyaml";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -111,4 +111,9 @@ public class GroupByFilter implements Filter {
       return list;
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -69,4 +69,9 @@ public class IndentFilter extends AbstractFilter {
 
   private static final Splitter NEWLINE_SPLITTER = Splitter.on('\n');
   private static final Joiner NEWLINE_JOINER = Joiner.on('\n');
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
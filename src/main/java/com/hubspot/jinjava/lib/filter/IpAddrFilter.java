@@ -335,4 +335,9 @@ public class IpAddrFilter implements Filter {
   public String getName() {
     return "ipaddr";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
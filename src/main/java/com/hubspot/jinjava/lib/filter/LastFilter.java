@@ -40,4 +40,9 @@ public class LastFilter implements Filter {
 
     return last;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -93,4 +93,9 @@ public class LengthFilter implements Filter {
   public String getName() {
     return "length";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
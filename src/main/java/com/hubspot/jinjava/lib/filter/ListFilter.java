@@ -51,4 +51,9 @@ public class ListFilter implements Filter {
 
     return result;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
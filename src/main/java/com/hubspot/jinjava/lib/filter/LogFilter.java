@@ -149,4 +149,9 @@ public class LogFilter implements Filter {
   public String getName() {
     return "log";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
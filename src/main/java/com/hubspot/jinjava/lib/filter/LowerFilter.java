@@ -40,4 +40,9 @@ public class LowerFilter implements Filter {
   public String getName() {
     return "lower";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -112,4 +112,9 @@ public class MultiplyFilter implements Filter {
   public String getName() {
     return "multiply";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -94,4 +94,9 @@ public class PrettyPrintFilter implements Filter {
 
     return '{' + StringUtils.join(props, ", ") + '}';
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
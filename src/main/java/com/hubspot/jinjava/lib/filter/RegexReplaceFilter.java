@@ -92,4 +92,9 @@ public class RegexReplaceFilter implements Filter {
       throw new InvalidInputException(interpreter, this, InvalidReason.STRING);
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -80,4 +80,9 @@ public class ReplaceFilter implements Filter {
       return StringUtils.replace(s, toReplace, replaceWith, count);
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
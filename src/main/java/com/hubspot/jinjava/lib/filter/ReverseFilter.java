@@ -86,4 +86,9 @@ public class ReverseFilter implements Filter {
   public String getName() {
     return "reverse";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
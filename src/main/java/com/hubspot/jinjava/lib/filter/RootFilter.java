@@ -143,4 +143,9 @@ public class RootFilter implements Filter {
       );
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
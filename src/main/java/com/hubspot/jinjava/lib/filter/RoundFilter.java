@@ -97,4 +97,9 @@ public class RoundFilter implements Filter {
 
     return result.setScale(precision, roundingMode);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
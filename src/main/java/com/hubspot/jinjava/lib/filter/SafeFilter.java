@@ -33,4 +33,9 @@ public class SafeFilter implements Filter {
 
     return new SafeString((String) var);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -103,4 +103,9 @@ public class SliceFilter implements Filter {
 
     return result;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -147,4 +147,9 @@ public class SortFilter implements Filter {
       return result;
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -75,4 +75,9 @@ public class SplitFilter implements Filter {
       splitter.omitEmptyStrings().trimResults().split(Objects.toString(var, ""))
     );
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
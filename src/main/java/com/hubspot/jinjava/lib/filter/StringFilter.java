@@ -30,4 +30,9 @@ public class StringFilter implements Filter {
   public Object filter(Object var, JinjavaInterpreter interpreter, String... args) {
     return Objects.toString(var);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
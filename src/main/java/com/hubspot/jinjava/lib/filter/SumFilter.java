@@ -92,4 +92,9 @@ public class SumFilter implements AdvancedFilter {
 
     return sum;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -36,4 +36,9 @@ public class TitleFilter implements Filter {
     }
     return var;
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -34,4 +34,9 @@ public class ToJsonFilter implements Filter {
   public String getName() {
     return "tojson";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -36,4 +36,9 @@ public class ToYamlFilter implements Filter {
   public String getName() {
     return "toyaml";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
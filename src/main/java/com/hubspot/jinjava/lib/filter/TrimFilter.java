@@ -31,4 +31,9 @@ public class TrimFilter implements Filter {
   public Object filter(Object var, JinjavaInterpreter interpreter, String... args) {
     return StringUtils.trim(Objects.toString(var));
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -72,4 +72,9 @@ public class TruncateFilter implements Filter {
   public String getName() {
     return "truncate";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -191,4 +191,9 @@ public class TruncateHtmlFilter implements AdvancedFilter {
       }
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -67,4 +67,9 @@ public class UniqueFilter implements Filter {
 
     return result.values();
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
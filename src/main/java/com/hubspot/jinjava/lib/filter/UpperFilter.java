@@ -45,4 +45,9 @@ public class UpperFilter implements Filter {
   public String getName() {
     return "upper";
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -69,4 +69,9 @@ public class UrlEncodeFilter implements Filter {
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
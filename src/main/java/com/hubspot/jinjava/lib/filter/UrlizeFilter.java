@@ -98,4 +98,9 @@ public class UrlizeFilter implements Filter {
     "(https?)://[-a-zA-Z0-9+&@#/%?=~_|!:,.;]*[-a-zA-Z0-9+&@#/%=~_|]",
     Pattern.CASE_INSENSITIVE | Pattern.MULTILINE
   );
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
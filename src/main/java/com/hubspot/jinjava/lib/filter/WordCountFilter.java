@@ -47,4 +47,9 @@ public class WordCountFilter implements Filter {
     "\\w+",
     Pattern.UNICODE_CHARACTER_CLASS | Pattern.MULTILINE
   );
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
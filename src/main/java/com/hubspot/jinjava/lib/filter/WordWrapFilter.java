@@ -63,4 +63,9 @@ public class WordWrapFilter implements Filter {
 
     return WordUtils.wrap(str, wrapLength, "\n", wrapLongWords);
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -69,4 +69,9 @@ public class XmlAttrFilter implements Filter {
 
     return space + StringUtils.join(attrs, "\n");
   }
+
+  @Override
+  public boolean isPure() {
+    return true;
+  }
 }
@@ -5,11 +5,15 @@ import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.DeferredValueException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter.InterpreterScopeClosable;
+import com.hubspot.jinjava.interpret.profile.ProfileKind;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
 import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.util.LengthLimitingStringBuilder;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -56,6 +60,39 @@ public class MacroFunction extends AbstractCallableMethod {
     List<Object> varArgs
   ) {
     JinjavaInterpreter interpreter = JinjavaInterpreter.getCurrent();
+    Optional<RenderProfile> profile = interpreter.getProfile();
+    if (!profile.isPresent()) {
+      return evaluateMacro(interpreter, argMap, kwargMap, varArgs);
+    }
+
+    profile
+      .get()
+      .enter(
+        ProfileKind.MACRO,
+        getName(),
+        Objects.toString(
+          localContextScope.get(Context.IMPORT_RESOURCE_PATH_KEY),
+          interpreter.getCurrentTemplatePath()
+        ),
+        definitionLineNumber
+      );
+    String result = null;
+    try {
+      result = evaluateMacro(interpreter, argMap, kwargMap, varArgs);
+      return result;
+    } finally {
+      profile.get().exit(result == null ? 0 : result.length());
+    }
+  }
+
+  private String evaluateMacro(
+    JinjavaInterpreter interpreter,
+    Map<String, Object> argMap,
+    Map<String, Object> kwargMap,
+    List<Object> varArgs
+  ) {
+    // set when this call is all of an expression being streamed
+    Optional<OutputList> output = interpreter.takeMacroOutput();
     Optional<String> importFile = Optional.ofNullable(
       (String) localContextScope.get(Context.IMPORT_RESOURCE_PATH_KEY)
     );
@@ -96,12 +133,16 @@ public class MacroFunction extends AbstractCallableMethod {
       // varargs list
       interpreter.getContext().put("varargs", varArgs);
 
-      LengthLimitingStringBuilder result = new LengthLimitingStringBuilder(
-        interpreter.getConfig().getMaxOutputSize()
-      );
+      LengthLimitingStringBuilder result = output.isPresent()
+        ? null
+        : new LengthLimitingStringBuilder(interpreter.getConfig().getMaxOutputSize());
 
       for (Node node : content) {
-        result.append(node.render(interpreter));
+        if (result == null) {
+          node.render(interpreter, output.get());
+        } else {
+          result.append(node.render(interpreter));
+        }
       }
 
       if (!interpreter.getContext().getDeferredNodes().isEmpty()) {
@@ -112,7 +153,7 @@ public class MacroFunction extends AbstractCallableMethod {
         );
       }
 
-      return result.toString();
+      return result == null ? "" : result.toString();
     } finally {
       importFile.ifPresent(path -> interpreter.getContext().getCurrentPathStack().pop());
     }
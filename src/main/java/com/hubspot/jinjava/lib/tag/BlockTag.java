@@ -20,10 +20,13 @@ import com.hubspot.jinjava.doc.annotations.JinjavaParam;
 import com.hubspot.jinjava.doc.annotations.JinjavaSnippet;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.TemplateSyntaxException;
+import com.hubspot.jinjava.tree.RootNode;
 import com.hubspot.jinjava.tree.TagNode;
 import com.hubspot.jinjava.tree.output.BlockInfo;
 import com.hubspot.jinjava.tree.output.BlockPlaceholderOutputNode;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.tree.output.OutputNode;
+import com.hubspot.jinjava.tree.output.RenderedOutputNode;
 import com.hubspot.jinjava.util.HelperStringTokenizer;
 import com.hubspot.jinjava.util.WhitespaceUtils;
 
@@ -80,6 +83,25 @@ public class BlockTag implements Tag {
     return new BlockPlaceholderOutputNode(blockName);
   }
 
+  /**
+   * Adds the placeholder for a top level block. Blocks nested in other tags can't be filled
+   * in, so their placeholder is added by its value, which fails as it would if the enclosing
+   * tag had been rendered to a string.
+   */
+  @Override
+  public void interpretOutput(
+    TagNode tagNode,
+    JinjavaInterpreter interpreter,
+    OutputList output
+  ) {
+    OutputNode placeholder = interpretOutput(tagNode, interpreter);
+    output.addNode(
+      tagNode.getParent() instanceof RootNode
+        ? placeholder
+        : new RenderedOutputNode(placeholder.getValue())
+    );
+  }
+
   @Override
   public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
     throw new UnsupportedOperationException(
@@ -15,6 +15,7 @@
  **********************************************************************/
 package com.hubspot.jinjava.lib.tag;
 
+import com.google.common.collect.ImmutableList;
 import com.hubspot.jinjava.doc.annotations.JinjavaDoc;
 import com.hubspot.jinjava.doc.annotations.JinjavaParam;
 import com.hubspot.jinjava.doc.annotations.JinjavaSnippet;
@@ -22,7 +23,10 @@ import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.TemplateSyntaxException;
 import com.hubspot.jinjava.tree.TagNode;
 import com.hubspot.jinjava.util.HelperStringTokenizer;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * {% cycle a,b,c %} {% cycle a,'b',c as d %} {% cycle d %}
@@ -59,18 +63,29 @@ public class CycleTag implements Tag {
     return true;
   }
 
+  @Override
+  public Helpers parseHelpers(TagNode tagNode) {
+    List<String> helper = new HelperStringTokenizer(tagNode.getHelpers()).allTokens();
+    if (helper.size() != 1 && helper.size() != 3) {
+      throw new TemplateSyntaxException(
+        tagNode.getMaster().getImage(),
+        "Tag 'cycle' expects 1 or 3 helper(s), was: " + helper.size(),
+        tagNode.getLineNumber(),
+        tagNode.getStartPosition()
+      );
+    }
+
+    HelperStringTokenizer items = new HelperStringTokenizer(helper.get(0));
+    items.splitComma(true);
+    return new Helpers(items.allTokens(), helper.size() == 3 ? helper.get(2) : null);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
-    List<String> values;
-    String var = null;
-    HelperStringTokenizer tk = new HelperStringTokenizer(tagNode.getHelpers());
-
-    List<String> helper = tk.allTokens();
-    if (helper.size() == 1) {
-      HelperStringTokenizer items = new HelperStringTokenizer(helper.get(0));
-      items.splitComma(true);
-      values = items.allTokens();
+    Helpers helpers = tagNode.getDescriptor(Helpers.class);
+    List<String> values = helpers.getValues();
+    if (!helpers.getVar().isPresent()) {
       Integer forindex = (Integer) interpreter.retraceVariable(
         LOOP_INDEX,
         tagNode.getLineNumber(),
@@ -80,7 +95,7 @@ public class CycleTag implements Tag {
         forindex = 0;
       }
       if (values.size() == 1) {
-        var = values.get(0);
+        String var = values.get(0);
         values =
           (List<String>) interpreter.retraceVariable(
             var,
@@ -95,43 +110,33 @@ public class CycleTag implements Tag {
           );
         }
       } else {
-        for (int i = 0; i < values.size(); i++) {
-          values.set(
-            i,
-            interpreter.resolveString(
-              values.get(i),
-              tagNode.getLineNumber(),
-              tagNode.getStartPosition()
-            )
-          );
-        }
+        values = resolveValues(values, tagNode, interpreter);
       }
       return values.get(forindex % values.size());
-    } else if (helper.size() == 3) {
-      HelperStringTokenizer items = new HelperStringTokenizer(helper.get(0));
-      items.splitComma(true);
-      values = items.allTokens();
-      for (int i = 0; i < values.size(); i++) {
-        values.set(
-          i,
-          interpreter.resolveString(
-            values.get(i),
-            tagNode.getLineNumber(),
-            tagNode.getStartPosition()
-          )
-        );
-      }
-      var = helper.get(2);
-      interpreter.getContext().put(var, values);
-      return "";
     } else {
-      throw new TemplateSyntaxException(
-        tagNode.getMaster().getImage(),
-        "Tag 'cycle' expects 1 or 3 helper(s), was: " + helper.size(),
-        tagNode.getLineNumber(),
-        tagNode.getStartPosition()
+      interpreter
+        .getContext()
+        .put(helpers.getVar().get(), resolveValues(values, tagNode, interpreter));
+      return "";
+    }
+  }
+
+  private static List<String> resolveValues(
+    List<String> values,
+    TagNode tagNode,
+    JinjavaInterpreter interpreter
+  ) {
+    List<String> resolved = new ArrayList<>(values.size());
+    for (String value : values) {
+      resolved.add(
+        interpreter.resolveString(
+          value,
+          tagNode.getLineNumber(),
+          tagNode.getStartPosition()
+        )
       );
     }
+    return resolved;
   }
 
   @Override
@@ -143,4 +148,27 @@ public class CycleTag implements Tag {
   public String getName() {
     return TAG_NAME;
   }
+
+  /**
+   * The values to cycle through, and the name to store them as when they're given one.
+   */
+  public static final class Helpers implements Serializable {
+    private static final long serialVersionUID = 4213307587462871093L;
+
+    private final List<String> values;
+    private final String var;
+
+    Helpers(List<String> values, String var) {
+      this.values = ImmutableList.copyOf(values);
+      this.var = var;
+    }
+
+    public List<String> getValues() {
+      return values;
+    }
+
+    public Optional<String> getVar() {
+      return Optional.ofNullable(var);
+    }
+  }
 }
@@ -25,7 +25,7 @@ public class DoTag implements Tag {
       );
     }
 
-    interpreter.resolveELExpression(tagNode.getHelpers(), tagNode.getLineNumber());
+    interpreter.resolveELExpression(tagNode.getHelpers(), tagNode);
     return "";
   }
 
@@ -83,7 +83,7 @@ public class ExtendsTag implements Tag {
   private static final long serialVersionUID = 4692863362280761393L;
 
   @Override
-  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+  public TemplatePath parseHelpers(TagNode tagNode) {
     HelperStringTokenizer tokenizer = new HelperStringTokenizer(tagNode.getHelpers());
     if (!tokenizer.hasNext()) {
       throw new TemplateSyntaxException(
@@ -94,11 +94,12 @@ public class ExtendsTag implements Tag {
       );
     }
 
-    String path = interpreter.resolveString(
-      tokenizer.next(),
-      tagNode.getLineNumber(),
-      tagNode.getStartPosition()
-    );
+    return new TemplatePath(tokenizer.next());
+  }
+
+  @Override
+  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    String path = tagNode.getDescriptor(TemplatePath.class).resolve(tagNode, interpreter);
     path = interpreter.resolveResourceLocation(path);
     interpreter
       .getContext()
@@ -106,8 +107,7 @@ public class ExtendsTag implements Tag {
       .push(path, tagNode.getLineNumber(), tagNode.getStartPosition());
 
     try {
-      String template = interpreter.getResource(path);
-      Node node = interpreter.parse(template);
+      Node node = interpreter.parseResource(path);
 
       interpreter.getContext().addDependency("coded_files", path);
       interpreter.addExtendParentRoot(node);
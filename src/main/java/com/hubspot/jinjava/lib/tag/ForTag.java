@@ -15,10 +15,12 @@
  **********************************************************************/
 package com.hubspot.jinjava.lib.tag;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.hubspot.jinjava.doc.annotations.JinjavaDoc;
 import com.hubspot.jinjava.doc.annotations.JinjavaParam;
 import com.hubspot.jinjava.doc.annotations.JinjavaSnippet;
+import com.hubspot.jinjava.el.ext.BeanAccessors;
 import com.hubspot.jinjava.interpret.DeferredValueException;
 import com.hubspot.jinjava.interpret.InterpretException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
@@ -30,15 +32,18 @@ import com.hubspot.jinjava.objects.DummyObject;
 import com.hubspot.jinjava.objects.collections.PyList;
 import com.hubspot.jinjava.tree.Node;
 import com.hubspot.jinjava.tree.TagNode;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.util.ForLoop;
 import com.hubspot.jinjava.util.HelperStringTokenizer;
 import com.hubspot.jinjava.util.LengthLimitingStringBuilder;
 import com.hubspot.jinjava.util.ObjectIterator;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -89,9 +94,8 @@ public class ForTag implements Tag {
     return true;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
-  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+  public Helpers parseHelpers(TagNode tagNode) {
     /* apdlv72@gmail.com
      * Fix for issues with for-loops that contain whitespace in their range, e.g.
      * "{% for i in range(1 * 1, 2 * 2) %}"
@@ -133,11 +137,43 @@ public class ForTag implements Tag {
       );
     }
 
-    String loopExpr = StringUtils.join(helper.subList(inPos + 1, helper.size()), ",");
-    Object collection = interpreter.resolveELExpression(
-      loopExpr,
-      tagNode.getLineNumber()
+    return new Helpers(
+      loopVars,
+      StringUtils.join(helper.subList(inPos + 1, helper.size()), ",")
+    );
+  }
+
+  @Override
+  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    LengthLimitingStringBuilder buff = new LengthLimitingStringBuilder(
+      interpreter.getConfig().getMaxOutputSize()
     );
+    renderLoop(tagNode, interpreter, node -> buff.append(node.render(interpreter)));
+    return buff.toString();
+  }
+
+  /**
+   * Renders the loop, adding the output of each child to the given list as it's rendered.
+   */
+  @Override
+  public void interpretOutput(
+    TagNode tagNode,
+    JinjavaInterpreter interpreter,
+    OutputList output
+  ) {
+    renderLoop(tagNode, interpreter, node -> node.render(interpreter, output));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void renderLoop(
+    TagNode tagNode,
+    JinjavaInterpreter interpreter,
+    Consumer<Node> renderChild
+  ) {
+    Helpers helpers = tagNode.getDescriptor(Helpers.class);
+    List<String> loopVars = helpers.getLoopVars();
+    String loopExpr = helpers.getLoopExpression();
+    Object collection = interpreter.resolveELExpression(loopExpr, tagNode);
     ForLoop loop = ObjectIterator.getLoop(collection);
 
     try (InterpreterScopeClosable c = interpreter.enterScope()) {
@@ -148,9 +184,6 @@ public class ForTag implements Tag {
 
       interpreter.getContext().put(LOOP, loop);
 
-      LengthLimitingStringBuilder buff = new LengthLimitingStringBuilder(
-        interpreter.getConfig().getMaxOutputSize()
-      );
       while (loop.hasNext()) {
         Object val = interpreter.wrap(loop.next());
 
@@ -180,25 +213,22 @@ public class ForTag implements Tag {
               }
               interpreter.getContext().put(loopVar, entryVal);
             } else {
-              try {
-                PropertyDescriptor[] valProps = Introspector
-                  .getBeanInfo(val.getClass())
-                  .getPropertyDescriptors();
-                for (PropertyDescriptor valProp : valProps) {
-                  if (loopVar.equals(valProp.getName())) {
-                    interpreter
-                      .getContext()
-                      .put(loopVar, valProp.getReadMethod().invoke(val));
-                    break;
-                  }
+              Optional<MethodHandle> getter = BeanAccessors
+                .forClass(val.getClass())
+                .getGetter(loopVar);
+              if (getter.isPresent()) {
+                try {
+                  interpreter
+                    .getContext()
+                    .put(loopVar, (Object) getter.get().invokeExact(val));
+                } catch (Throwable t) {
+                  throw new InterpretException(
+                    t.getMessage(),
+                    t,
+                    tagNode.getLineNumber(),
+                    tagNode.getStartPosition()
+                  );
                 }
-              } catch (Exception e) {
-                throw new InterpretException(
-                  e.getMessage(),
-                  e,
-                  tagNode.getLineNumber(),
-                  tagNode.getStartPosition()
-                );
               }
             }
           }
@@ -210,10 +240,10 @@ public class ForTag implements Tag {
             node.render(interpreter);
           } else {
             try {
-              buff.append(node.render(interpreter));
+              renderChild.accept(node);
             } catch (OutputTooBigException e) {
               interpreter.addError(TemplateError.fromOutputTooBigException(e));
-              return buff.toString();
+              return;
             }
             if (
               interpreter.getContext().getDeferredNodes().size() > numDeferredNodesBefore
@@ -227,8 +257,6 @@ public class ForTag implements Tag {
           }
         }
       }
-
-      return buff.toString();
     }
   }
 
@@ -236,4 +264,27 @@ public class ForTag implements Tag {
   public String getName() {
     return TAG_NAME;
   }
+
+  /**
+   * The loop variables and the expression for the items of a for tag.
+   */
+  public static final class Helpers implements Serializable {
+    private static final long serialVersionUID = -2905446406451235146L;
+
+    private final List<String> loopVars;
+    private final String loopExpression;
+
+    Helpers(List<String> loopVars, String loopExpression) {
+      this.loopVars = ImmutableList.copyOf(loopVars);
+      this.loopExpression = loopExpression;
+    }
+
+    public List<String> getLoopVars() {
+      return loopVars;
+    }
+
+    public String getLoopExpression() {
+      return loopExpression;
+    }
+  }
 }
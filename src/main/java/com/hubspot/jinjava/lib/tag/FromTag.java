@@ -23,6 +23,7 @@ import com.hubspot.jinjava.tree.Node;
 import com.hubspot.jinjava.tree.TagNode;
 import com.hubspot.jinjava.util.HelperStringTokenizer;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -64,7 +65,7 @@ public class FromTag implements Tag {
   }
 
   @Override
-  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+  public Helpers parseHelpers(TagNode tagNode) {
     List<String> helper = new HelperStringTokenizer(tagNode.getHelpers())
       .splitComma(true)
       .allTokens();
@@ -77,11 +78,33 @@ public class FromTag implements Tag {
       );
     }
 
-    String templateFile = interpreter.resolveString(
-      helper.get(0),
-      tagNode.getLineNumber(),
-      tagNode.getStartPosition()
+    Map<String, String> imports = new LinkedHashMap<>();
+
+    PeekingIterator<String> args = Iterators.peekingIterator(
+      helper.subList(2, helper.size()).iterator()
     );
+
+    while (args.hasNext()) {
+      String fromName = args.next();
+      String importName = fromName;
+
+      if (args.hasNext() && args.peek() != null && args.peek().equals("as")) {
+        args.next();
+        importName = args.next();
+      }
+
+      imports.put(fromName, importName);
+    }
+
+    return new Helpers(new TemplatePath(helper.get(0)), imports);
+  }
+
+  @Override
+  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    Helpers helpers = tagNode.getDescriptor(Helpers.class);
+    Map<String, String> imports = helpers.getImports();
+
+    String templateFile = helpers.getPath().resolve(tagNode, interpreter);
     templateFile = interpreter.resolveResourceLocation(templateFile);
     interpreter.getContext().addDependency("coded_files", templateFile);
     try {
@@ -106,27 +129,8 @@ public class FromTag implements Tag {
       return "";
     }
     try {
-      Map<String, String> imports = new LinkedHashMap<>();
-
-      PeekingIterator<String> args = Iterators.peekingIterator(
-        helper.subList(2, helper.size()).iterator()
-      );
-
-      while (args.hasNext()) {
-        String fromName = args.next();
-        String importName = fromName;
-
-        if (args.hasNext() && args.peek() != null && args.peek().equals("as")) {
-          args.next();
-          importName = args.next();
-        }
-
-        imports.put(fromName, importName);
-      }
-
       try {
-        String template = interpreter.getResource(templateFile);
-        Node node = interpreter.parse(template);
+        Node node = interpreter.parseResource(templateFile);
 
         JinjavaInterpreter child = interpreter
           .getConfig()
@@ -202,4 +206,28 @@ public class FromTag implements Tag {
   public String getEndTagName() {
     return null;
   }
+
+  /**
+   * The template to import from, and the names to import from it mapped to the names they're
+   * imported as, in the order they're listed.
+   */
+  public static final class Helpers implements Serializable {
+    private static final long serialVersionUID = 3519432870226377427L;
+
+    private final TemplatePath path;
+    private final Map<String, String> imports;
+
+    Helpers(TemplatePath path, Map<String, String> imports) {
+      this.path = path;
+      this.imports = ImmutableMap.copyOf(imports);
+    }
+
+    public TemplatePath getPath() {
+      return path;
+    }
+
+    public Map<String, String> getImports() {
+      return imports;
+    }
+  }
 }
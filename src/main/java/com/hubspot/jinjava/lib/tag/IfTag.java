@@ -23,9 +23,11 @@ import com.hubspot.jinjava.interpret.TemplateError;
 import com.hubspot.jinjava.interpret.TemplateSyntaxException;
 import com.hubspot.jinjava.tree.Node;
 import com.hubspot.jinjava.tree.TagNode;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.util.LengthLimitingStringBuilder;
 import com.hubspot.jinjava.util.ObjectTruthValue;
 import java.util.Iterator;
+import java.util.function.Consumer;
 import org.apache.commons.lang3.StringUtils;
 
 @JinjavaDoc(
@@ -61,6 +63,31 @@ public class IfTag implements Tag {
 
   @Override
   public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    LengthLimitingStringBuilder sb = new LengthLimitingStringBuilder(
+      interpreter.getConfig().getMaxOutputSize()
+    );
+    renderBranch(tagNode, interpreter, node -> sb.append(node.render(interpreter)));
+    return sb.toString();
+  }
+
+  /**
+   * Renders the branch whose condition holds, adding the output of each of its children to
+   * the given list as it's rendered.
+   */
+  @Override
+  public void interpretOutput(
+    TagNode tagNode,
+    JinjavaInterpreter interpreter,
+    OutputList output
+  ) {
+    renderBranch(tagNode, interpreter, node -> node.render(interpreter, output));
+  }
+
+  private void renderBranch(
+    TagNode tagNode,
+    JinjavaInterpreter interpreter,
+    Consumer<Node> renderChild
+  ) {
     if (StringUtils.isBlank(tagNode.getHelpers())) {
       throw new TemplateSyntaxException(
         tagNode.getMaster().getImage(),
@@ -70,10 +97,6 @@ public class IfTag implements Tag {
       );
     }
 
-    LengthLimitingStringBuilder sb = new LengthLimitingStringBuilder(
-      interpreter.getConfig().getMaxOutputSize()
-    );
-
     Iterator<Node> nodeIterator = tagNode.getChildren().iterator();
 
     boolean parentValidationMode = interpreter.getContext().isValidationMode();
@@ -102,10 +125,10 @@ public class IfTag implements Tag {
 
         if (execute) {
           try {
-            sb.append(node.render(interpreter));
+            renderChild.accept(node);
           } catch (OutputTooBigException e) {
             interpreter.addError(TemplateError.fromOutputTooBigException(e));
-            return sb.toString();
+            return;
           }
         } else if (interpreter.getContext().isValidationMode()) {
           node.render(interpreter);
@@ -114,8 +137,6 @@ public class IfTag implements Tag {
     } finally {
       interpreter.getContext().setValidationMode(parentValidationMode);
     }
-
-    return sb.toString();
   }
 
   protected boolean isPositiveIfElseNode(
@@ -123,7 +144,7 @@ public class IfTag implements Tag {
     JinjavaInterpreter interpreter
   ) {
     return ObjectTruthValue.evaluate(
-      interpreter.resolveELExpression(tagNode.getHelpers(), tagNode.getLineNumber())
+      interpreter.resolveELExpression(tagNode.getHelpers(), tagNode)
     );
   }
 
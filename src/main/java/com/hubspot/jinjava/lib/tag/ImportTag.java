@@ -21,6 +21,7 @@ import com.hubspot.jinjava.tree.Node;
 import com.hubspot.jinjava.tree.TagNode;
 import com.hubspot.jinjava.util.HelperStringTokenizer;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
@@ -70,7 +71,7 @@ public class ImportTag implements Tag {
   }
 
   @Override
-  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+  public Helpers parseHelpers(TagNode tagNode) {
     List<String> helper = new HelperStringTokenizer(tagNode.getHelpers()).allTokens();
     if (helper.isEmpty()) {
       throw new TemplateSyntaxException(
@@ -87,7 +88,17 @@ public class ImportTag implements Tag {
       contextVar = helper.get(2);
     }
 
-    String path = StringUtils.trimToEmpty(helper.get(0));
+    return new Helpers(
+      new TemplatePath(StringUtils.trimToEmpty(helper.get(0))),
+      contextVar
+    );
+  }
+
+  @Override
+  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    Helpers helpers = tagNode.getDescriptor(Helpers.class);
+    String contextVar = helpers.getContextVar();
+    String path = helpers.getPath().getToken();
 
     try {
       interpreter
@@ -112,11 +123,7 @@ public class ImportTag implements Tag {
       return "";
     }
 
-    String templateFile = interpreter.resolveString(
-      path,
-      tagNode.getLineNumber(),
-      tagNode.getStartPosition()
-    );
+    String templateFile = helpers.getPath().resolve(tagNode, interpreter);
     templateFile = interpreter.resolveResourceLocation(templateFile);
     interpreter.getContext().addDependency("coded_files", templateFile);
     try {
@@ -125,8 +132,7 @@ public class ImportTag implements Tag {
         .getCurrentPathStack()
         .push(templateFile, interpreter.getLineNumber(), interpreter.getPosition());
 
-      String template = interpreter.getResource(templateFile);
-      Node node = interpreter.parse(template);
+      Node node = interpreter.parseResource(templateFile);
 
       JinjavaInterpreter child = interpreter
         .getConfig()
@@ -217,4 +223,28 @@ public class ImportTag implements Tag {
   public String getEndTagName() {
     return null;
   }
+
+  /**
+   * The template to import, and the name to import it as, which is empty when its macros and
+   * variables are imported directly into the current context.
+   */
+  public static final class Helpers implements Serializable {
+    private static final long serialVersionUID = -6405862236071838560L;
+
+    private final TemplatePath path;
+    private final String contextVar;
+
+    Helpers(TemplatePath path, String contextVar) {
+      this.path = path;
+      this.contextVar = contextVar;
+    }
+
+    public TemplatePath getPath() {
+      return path;
+    }
+
+    public String getContextVar() {
+      return contextVar;
+    }
+  }
 }
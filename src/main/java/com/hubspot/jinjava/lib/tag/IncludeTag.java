@@ -54,7 +54,7 @@ public class IncludeTag implements Tag {
   private static final long serialVersionUID = -8391753639874726854L;
 
   @Override
-  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+  public TemplatePath parseHelpers(TagNode tagNode) {
     HelperStringTokenizer helper = new HelperStringTokenizer(tagNode.getHelpers());
     if (!helper.hasNext()) {
       throw new TemplateSyntaxException(
@@ -65,12 +65,14 @@ public class IncludeTag implements Tag {
       );
     }
 
-    String path = StringUtils.trimToEmpty(helper.next());
-    String templateFile = interpreter.resolveString(
-      path,
-      tagNode.getLineNumber(),
-      tagNode.getStartPosition()
-    );
+    return new TemplatePath(StringUtils.trimToEmpty(helper.next()));
+  }
+
+  @Override
+  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    String templateFile = tagNode
+      .getDescriptor(TemplatePath.class)
+      .resolve(tagNode, interpreter);
     templateFile = interpreter.resolveResourceLocation(templateFile);
 
     try {
@@ -97,8 +99,7 @@ public class IncludeTag implements Tag {
     }
 
     try {
-      String template = interpreter.getResource(templateFile);
-      Node node = interpreter.parse(template);
+      Node node = interpreter.parseResource(templateFile);
 
       interpreter.getContext().addDependency("coded_files", templateFile);
       interpreter
@@ -11,8 +11,11 @@ import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.TemplateSyntaxException;
 import com.hubspot.jinjava.lib.fn.MacroFunction;
 import com.hubspot.jinjava.tree.TagNode;
+import java.io.Serializable;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
@@ -75,7 +78,7 @@ public class MacroTag implements Tag {
   }
 
   @Override
-  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+  public Helpers parseHelpers(TagNode tagNode) {
     Matcher matcher = MACRO_PATTERN.matcher(tagNode.getHelpers());
     if (!matcher.find()) {
       throw new TemplateSyntaxException(
@@ -89,10 +92,9 @@ public class MacroTag implements Tag {
     String name = matcher.group(1);
     String args = Strings.nullToEmpty(matcher.group(2));
 
-    LinkedHashMap<String, Object> argNamesWithDefaults = new LinkedHashMap<>();
+    LinkedHashMap<String, String> argNamesWithDefaults = new LinkedHashMap<>();
 
     List<String> argList = Lists.newArrayList(ARGS_SPLITTER.split(args));
-    boolean deferred = false;
     for (int i = 0; i < argList.size(); i++) {
       String arg = argList.get(i);
 
@@ -111,17 +113,33 @@ public class MacroTag implements Tag {
           }
         }
 
+        argNamesWithDefaults.put(argName, argValStr.toString());
+      } else {
+        argNamesWithDefaults.put(arg, null);
+      }
+    }
+
+    return new Helpers(name, argNamesWithDefaults);
+  }
+
+  @Override
+  public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+    Helpers helpers = tagNode.getDescriptor(Helpers.class);
+    String name = helpers.getName();
+
+    LinkedHashMap<String, Object> argNamesWithDefaults = new LinkedHashMap<>();
+
+    boolean deferred = false;
+    for (Map.Entry<String, String> arg : helpers.getArgs().entrySet()) {
+      if (arg.getValue() != null) {
         try {
-          Object argVal = interpreter.resolveELExpression(
-            argValStr.toString(),
-            tagNode.getLineNumber()
-          );
-          argNamesWithDefaults.put(argName, argVal);
+          Object argVal = interpreter.resolveELExpression(arg.getValue(), tagNode);
+          argNamesWithDefaults.put(arg.getKey(), argVal);
         } catch (DeferredValueException e) {
           deferred = true;
         }
       } else {
-        argNamesWithDefaults.put(arg, null);
+        argNamesWithDefaults.put(arg.getKey(), null);
       }
     }
 
@@ -148,4 +166,28 @@ public class MacroTag implements Tag {
 
     return "";
   }
+
+  /**
+   * The macro's name, and its argument names in order, each mapped to the expression for its
+   * default value, or to null when it has none.
+   */
+  public static final class Helpers implements Serializable {
+    private static final long serialVersionUID = -1480251958735316226L;
+
+    private final String name;
+    private final Map<String, String> args;
+
+    Helpers(String name, LinkedHashMap<String, String> args) {
+      this.name = name;
+      this.args = Collections.unmodifiableMap(args);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Map<String, String> getArgs() {
+      return args;
+    }
+  }
 }
@@ -112,7 +112,7 @@ public class SetTag implements Tag {
         @SuppressWarnings("unchecked")
         List<Object> exprVals = (List<Object>) interpreter.resolveELExpression(
           "[" + expr + "]",
-          tagNode.getLineNumber()
+          tagNode
         );
 
         if (varTokens.length != exprVals.size()) {
@@ -140,9 +140,7 @@ public class SetTag implements Tag {
             throw new DeferredValueException(var);
           }
         }
-        interpreter
-          .getContext()
-          .put(var, interpreter.resolveELExpression(expr, tagNode.getLineNumber()));
+        interpreter.getContext().put(var, interpreter.resolveELExpression(expr, tagNode));
       }
     } catch (DeferredValueException e) {
       for (String varToken : varTokens) {
@@ -18,6 +18,7 @@ package com.hubspot.jinjava.lib.tag;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.lib.Importable;
 import com.hubspot.jinjava.tree.TagNode;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.tree.output.OutputNode;
 import com.hubspot.jinjava.tree.output.RenderedOutputNode;
 import java.io.Serializable;
@@ -29,6 +30,36 @@ public interface Tag extends Importable, Serializable {
 
   String interpret(TagNode tagNode, JinjavaInterpreter interpreter);
 
+  /**
+   * Renders the tag and adds its output to the given list, which may write it straight
+   * through to a sink. Tags which render their children can override this to add each
+   * child's output as it's rendered, with {@link
+   * com.hubspot.jinjava.tree.Node#render(JinjavaInterpreter, OutputList)}, rather than
+   * building up their whole output first. By default the output of {@link
+   * #interpretOutput(TagNode, JinjavaInterpreter)} is added as a single node.
+   */
+  default void interpretOutput(
+    TagNode tagNode,
+    JinjavaInterpreter interpreter,
+    OutputList output
+  ) {
+    output.addNode(interpretOutput(tagNode, interpreter));
+  }
+
+  /**
+   * Parses whatever in the node's helpers doesn't depend on the context. This is called once
+   * when the tree is built, and {@link #interpret(TagNode, JinjavaInterpreter)} can then read
+   * the result from {@link TagNode#getDescriptor(Class)} instead of processing the helper
+   * string on every render.
+   *
+   * @return an immutable description of the helpers, or null if the tag doesn't need one
+   * @throws com.hubspot.jinjava.interpret.TemplateSyntaxException if the helpers are invalid,
+   *         which is reported when the tag is rendered
+   */
+  default Serializable parseHelpers(TagNode tagNode) {
+    return null;
+  }
+
   /**
    * @return Get name of end tag (lowerCase). Null if it's a single tag without content.
    */
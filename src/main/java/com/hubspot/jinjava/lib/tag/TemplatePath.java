@@ -0,0 +1,53 @@
+package com.hubspot.jinjava.lib.tag;
+
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.TagNode;
+import com.hubspot.jinjava.util.WhitespaceUtils;
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * The template path given to an include, import, from or extends tag. A string literal is
+ * unquoted once when the tag is parsed; anything else is looked up when the tag is rendered.
+ */
+public final class TemplatePath implements Serializable {
+  private static final long serialVersionUID = -3327005869451837236L;
+
+  private final String token;
+  private final String literal;
+
+  TemplatePath(String token) {
+    this.token = token;
+    this.literal =
+      WhitespaceUtils.isQuoted(token) ? WhitespaceUtils.unquote(token) : null;
+  }
+
+  /**
+   * @return the path as written in the tag, including any quotes
+   */
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * @return the path if it was given as a string literal
+   */
+  public Optional<String> getLiteral() {
+    return Optional.ofNullable(literal);
+  }
+
+  /**
+   * @return the path, looking it up in the context if it isn't a literal
+   * @see JinjavaInterpreter#resolveString(String, int, int)
+   */
+  public String resolve(TagNode tagNode, JinjavaInterpreter interpreter) {
+    if (literal != null) {
+      return literal;
+    }
+    return interpreter.resolveString(
+      token,
+      tagNode.getLineNumber(),
+      tagNode.getStartPosition()
+    );
+  }
+}
@@ -44,7 +44,7 @@ public class UnlessTag extends IfTag {
   ) {
     if (tagNode.getName().equals("unless")) {
       return !ObjectTruthValue.evaluate(
-        interpreter.resolveELExpression(tagNode.getHelpers(), tagNode.getLineNumber())
+        interpreter.resolveELExpression(tagNode.getHelpers(), tagNode)
       );
     }
 
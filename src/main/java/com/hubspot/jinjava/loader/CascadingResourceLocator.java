@@ -4,6 +4,8 @@ import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Optional;
+import java.util.StringJoiner;
 
 public class CascadingResourceLocator implements ResourceLocator {
   private Iterable<ResourceLocator> locators;
@@ -29,4 +31,21 @@ public class CascadingResourceLocator implements ResourceLocator {
 
     throw new ResourceNotFoundException("Couldn't find resource: " + fullName);
   }
+
+  /**
+   * Any of the locators may end up serving the resource, so the version combines the
+   * versions of all of them and is only present if every locator reports one.
+   */
+  @Override
+  public Optional<String> getVersion(String fullName, JinjavaInterpreter interpreter) {
+    StringJoiner version = new StringJoiner("|");
+    for (ResourceLocator locator : locators) {
+      Optional<String> locatorVersion = locator.getVersion(fullName, interpreter);
+      if (!locatorVersion.isPresent()) {
+        return Optional.empty();
+      }
+      version.add(locatorVersion.get());
+    }
+    return Optional.of(version.toString());
+  }
 }
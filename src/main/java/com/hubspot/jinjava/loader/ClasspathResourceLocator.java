@@ -4,8 +4,10 @@ import com.google.common.io.Resources;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Optional;
 
 public class ClasspathResourceLocator implements ResourceLocator {
+  private static final String CLASSPATH_VERSION = "classpath";
 
   @Override
   public String getString(
@@ -20,4 +22,13 @@ public class ClasspathResourceLocator implements ResourceLocator {
       throw new ResourceNotFoundException("Couldn't find resource: " + fullName);
     }
   }
+
+  /**
+   * Classpath resources don't change for the lifetime of the process, so every resource
+   * shares a single constant version.
+   */
+  @Override
+  public Optional<String> getVersion(String fullName, JinjavaInterpreter interpreter) {
+    return Optional.of(CLASSPATH_VERSION);
+  }
 }
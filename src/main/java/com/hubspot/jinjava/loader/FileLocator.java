@@ -15,15 +15,24 @@ limitations under the License.
  **********************************************************************/
 package com.hubspot.jinjava.loader;
 
+import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class FileLocator implements ResourceLocator {
+  // coarser than the timestamps of any common file system
+  private static final long TIMESTAMP_RESOLUTION_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
   private File baseDir;
+  private final Map<String, FileVersion> versions = new ConcurrentHashMap<>();
 
   /**
    * initializes the locator with the base dir for relative paths set to the current working dir
@@ -62,4 +71,62 @@ public class FileLocator implements ResourceLocator {
 
     return Files.toString(file, encoding);
   }
+
+  /**
+   * Versions files by a hash of their contents, so an edited template is picked up on its
+   * next use even if its modification time and length are unchanged, as they can be for an
+   * edit made within the resolution of the file system's timestamps.
+   *
+   * <p>The hash is kept with the modification time and length it was taken at, and only
+   * taken again when either changes, or when it was taken so soon after the file was
+   * modified that a later edit could have kept the same modification time.
+   */
+  @Override
+  public Optional<String> getVersion(String name, JinjavaInterpreter interpreter) {
+    File file = resolveFileName(name);
+    if (!file.isFile()) {
+      return Optional.empty();
+    }
+
+    String path = file.getAbsolutePath();
+    long lastModified = file.lastModified();
+    long length = file.length();
+    FileVersion version = versions.get(path);
+    if (version != null && version.isCurrent(lastModified, length)) {
+      return Optional.of(version.hash);
+    }
+
+    long hashedAt = System.currentTimeMillis();
+    String hash;
+    try {
+      hash = Files.asByteSource(file).hash(Hashing.murmur3_128()).toString();
+    } catch (IOException e) {
+      // left to getString to report
+      return Optional.empty();
+    }
+    versions.put(path, new FileVersion(lastModified, length, hashedAt, hash));
+    return Optional.of(hash);
+  }
+
+  private static final class FileVersion {
+    private final long lastModified;
+    private final long length;
+    private final long hashedAt;
+    private final String hash;
+
+    FileVersion(long lastModified, long length, long hashedAt, String hash) {
+      this.lastModified = lastModified;
+      this.length = length;
+      this.hashedAt = hashedAt;
+      this.hash = hash;
+    }
+
+    boolean isCurrent(long lastModified, long length) {
+      return (
+        this.lastModified == lastModified &&
+        this.length == length &&
+        hashedAt - lastModified > TIMESTAMP_RESOLUTION_MILLIS
+      );
+    }
+  }
 }
@@ -27,4 +27,19 @@ public interface ResourceLocator {
   default Optional<LocationResolver> getLocationResolver() {
     return Optional.empty();
   }
+
+  /**
+   * Returns a token identifying the current contents of a resource, such as a modification
+   * time or etag. Resources with a version are parsed once and reused until the version
+   * changes; an empty result means the resource must be loaded and parsed on every use.
+   *
+   * @param fullName
+   *          resolved location of the resource
+   * @param interpreter
+   *          the interpreter requesting the resource
+   * @return version token, or empty if the resource should not be cached
+   */
+  default Optional<String> getVersion(String fullName, JinjavaInterpreter interpreter) {
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,82 @@
+package com.hubspot.jinjava.tree;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.el.ext.ExtendedParser;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.DisabledException;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The value an expression was folded to when its tree was built, along with the config and
+ * the filters and expression tests it was worked out with. Cached trees are shared by
+ * renders with other configs and other libraries in scope, so the value is only used by a
+ * render which would call the same ones, and using it records the values the expression
+ * would have resolved.
+ */
+final class ConstantValue {
+  private final Object value;
+  private final JinjavaConfig config;
+  private final Set<String> resolvedValues;
+  private final Map<String, Object> libraryEntries;
+
+  /**
+   * @param scope the scope the expression was evaluated in, holding only what it resolved
+   */
+  ConstantValue(Object value, JinjavaConfig config, Context scope) {
+    this.value = value;
+    this.config = config;
+    this.resolvedValues = scope.getResolvedValues();
+
+    ImmutableMap.Builder<String, Object> entries = ImmutableMap.builder();
+    for (String resolvedValue : resolvedValues) {
+      Object entry = lookup(scope, resolvedValue);
+      if (entry != null) {
+        entries.put(resolvedValue, entry);
+      }
+    }
+    this.libraryEntries = entries.build();
+  }
+
+  /**
+   * @return the value, or null if the expression has to be evaluated by this interpreter
+   */
+  Object get(JinjavaInterpreter interpreter) {
+    if (interpreter.getConfig() != config) {
+      return null;
+    }
+
+    Context context = interpreter.getContext();
+    for (Map.Entry<String, Object> entry : libraryEntries.entrySet()) {
+      if (lookup(context, entry.getKey()) != entry.getValue()) {
+        return null;
+      }
+    }
+    resolvedValues.forEach(context::addResolvedValue);
+    return value;
+  }
+
+  /**
+   * @return the filter or expression test a resolved value such as {@code filter:upper}
+   *         names, or null if it doesn't name one or it's disabled
+   */
+  private static Object lookup(Context context, String resolvedValue) {
+    try {
+      if (resolvedValue.startsWith(ExtendedParser.FILTER_PREFIX)) {
+        return context.getFilter(
+          resolvedValue.substring(ExtendedParser.FILTER_PREFIX.length())
+        );
+      }
+      if (resolvedValue.startsWith(ExtendedParser.EXPTEST_PREFIX)) {
+        return context.getExpTest(
+          resolvedValue.substring(ExtendedParser.EXPTEST_PREFIX.length())
+        );
+      }
+    } catch (DisabledException e) {
+      return null;
+    }
+    return null;
+  }
+}
@@ -15,15 +15,26 @@
  **********************************************************************/
 package com.hubspot.jinjava.tree;
 
+import com.hubspot.jinjava.el.ext.AstDict;
+import com.hubspot.jinjava.el.ext.AstList;
+import com.hubspot.jinjava.el.ext.AstMacroFunction;
+import com.hubspot.jinjava.el.ext.AstNamedParameter;
 import com.hubspot.jinjava.interpret.DeferredValueException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.profile.ProfileKind;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
 import com.hubspot.jinjava.lib.filter.EscapeFilter;
 import com.hubspot.jinjava.objects.SafeString;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.tree.output.OutputNode;
+import com.hubspot.jinjava.tree.output.OutputSizeUnit;
 import com.hubspot.jinjava.tree.output.RenderedOutputNode;
 import com.hubspot.jinjava.tree.parse.ExpressionToken;
 import com.hubspot.jinjava.util.Logging;
+import de.odysseus.el.tree.impl.ast.AstFunction;
+import de.odysseus.el.tree.impl.ast.AstMethod;
 import java.util.Objects;
+import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 
 public class ExpressionNode extends Node {
@@ -38,9 +49,101 @@ public class ExpressionNode extends Node {
 
   @Override
   public OutputNode render(JinjavaInterpreter interpreter) {
+    Optional<RenderProfile> profile = interpreter.getProfile();
+    if (!profile.isPresent()) {
+      return renderExpression(interpreter);
+    }
+
+    profile
+      .get()
+      .enter(
+        ProfileKind.EXPRESSION,
+        master.getExpr(),
+        interpreter.getCurrentTemplatePath(),
+        getLineNumber()
+      );
+    OutputNode out = null;
+    try {
+      out = renderExpression(interpreter);
+      return out;
+    } finally {
+      profile.get().exit(out == null ? 0 : out.getSize(OutputSizeUnit.CHARS));
+    }
+  }
+
+  /**
+   * Streams an expression which does nothing but call a macro, by having the macro add its
+   * output to the list as it's rendered. That's only done when the output won't be escaped
+   * or interpreted again, so that it can be written as it is.
+   */
+  @Override
+  public void render(JinjavaInterpreter interpreter, OutputList output) {
+    if (!isStreamedMacroCall(interpreter)) {
+      output.addNode(render(interpreter));
+      return;
+    }
+
+    interpreter.setMacroOutput(output);
+    try {
+      output.addNode(render(interpreter));
+    } finally {
+      interpreter.setMacroOutput(null);
+    }
+  }
+
+  private boolean isStreamedMacroCall(JinjavaInterpreter interpreter) {
+    if (
+      interpreter.getProfile().isPresent() ||
+      interpreter.getConfig().isNestedInterpretationEnabled() ||
+      interpreter.getContext().isAutoEscape()
+    ) {
+      return false;
+    }
+
+    de.odysseus.el.tree.Node call;
+    try {
+      call = interpreter.getExpressionTree(master.getExpr(), this).getRoot().getChild(0);
+    } catch (RuntimeException e) {
+      // reported when the expression is resolved
+      return false;
+    }
+    // a macro called while working out the arguments would take the output instead
+    if (!(call instanceof AstMacroFunction) || !callsNothing(call.getChild(0))) {
+      return false;
+    }
+    String name = ((AstMacroFunction) call).getName();
+    return interpreter.getContext().getGlobalMacro(name) != null;
+  }
+
+  private static boolean callsNothing(de.odysseus.el.tree.Node node) {
+    if (node instanceof AstFunction || node instanceof AstMethod) {
+      return false;
+    }
+    if (node instanceof AstList) {
+      return callsNothing(((AstList) node).getElements());
+    }
+    if (node instanceof AstDict) {
+      return ((AstDict) node).getDict()
+        .entrySet()
+        .stream()
+        .allMatch(e -> callsNothing(e.getKey()) && callsNothing(e.getValue()));
+    }
+    if (node instanceof AstNamedParameter) {
+      return callsNothing(((AstNamedParameter) node).getValue());
+    }
+
+    for (int i = 0; i < node.getCardinality(); i++) {
+      if (!callsNothing(node.getChild(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private OutputNode renderExpression(JinjavaInterpreter interpreter) {
     Object var;
     try {
-      var = interpreter.resolveELExpression(master.getExpr(), getLineNumber());
+      var = interpreter.resolveELExpression(master.getExpr(), this);
     } catch (DeferredValueException e) {
       interpreter.getContext().handleDeferredNode(this);
       var = master.getImage();
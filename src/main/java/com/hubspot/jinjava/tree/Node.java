@@ -15,23 +15,35 @@
  **********************************************************************/
 package com.hubspot.jinjava.tree;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.tree.output.OutputNode;
 import com.hubspot.jinjava.tree.parse.Token;
 import com.hubspot.jinjava.tree.parse.TokenScannerSymbols;
+import de.odysseus.el.tree.Tree;
 import java.io.Serializable;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import org.apache.commons.lang3.StringUtils;
 
 public abstract class Node implements Serializable {
   private static final long serialVersionUID = -6194634312533310816L;
+  private static final int MAX_EXPRESSION_TREES = 8;
 
   private final Token master;
   private final int lineNumber;
   private final int startPosition;
 
   private Node parent = null;
-  private LinkedList<Node> children = new LinkedList<>();
+  private List<Node> children = new ArrayList<>();
+
+  private transient volatile Map<String, Tree> expressionTrees;
+  private transient volatile Map<String, ConstantValue> constantValues;
+  private NodeAnalysis analysis;
 
   public Node(Token master, int lineNumber, int startPosition) {
     this.master = master;
@@ -59,14 +71,28 @@ public abstract class Node implements Serializable {
     return startPosition;
   }
 
-  public LinkedList<Node> getChildren() {
+  /**
+   * @return the child nodes; for trees built by the {@link TreeParser} this list is immutable
+   */
+  public List<Node> getChildren() {
     return children;
   }
 
-  public void setChildren(LinkedList<Node> children) {
+  public void setChildren(List<Node> children) {
     this.children = children;
   }
 
+  /**
+   * Replaces the children of this node and all of its descendants with compact immutable
+   * lists, once the tree is complete.
+   */
+  void freeze() {
+    for (Node child : children) {
+      child.freeze();
+    }
+    children = ImmutableList.copyOf(children);
+  }
+
   public String reconstructImage() {
     return master.getImage();
   }
@@ -75,8 +101,77 @@ public abstract class Node implements Serializable {
     return master.getSymbols();
   }
 
+  /**
+   * Returns the parsed tree for an expression evaluated while rendering this node. The tree
+   * is built with {@code builder} on first use and reused by later renders, which only need
+   * to bind it to their own EL context. Only the first few expressions of a node are stored
+   * on it, such as the default arguments of a macro with many of them, and the rest go to
+   * {@code builder} every time, so it should be backed by a cache of its own.
+   */
+  public Tree getExpressionTree(String expression, Function<String, Tree> builder) {
+    Map<String, Tree> trees = expressionTrees;
+    Tree tree = trees == null ? null : trees.get(expression);
+    if (tree != null) {
+      return tree;
+    }
+
+    tree = builder.apply(expression);
+    if (trees == null) {
+      expressionTrees = ImmutableMap.of(expression, tree);
+    } else if (trees.size() < MAX_EXPRESSION_TREES) {
+      expressionTrees =
+        ImmutableMap.<String, Tree>builder().putAll(trees).put(expression, tree).build();
+    }
+    return tree;
+  }
+
+  /**
+   * Returns the value an expression evaluated while rendering this node was folded to when
+   * the tree was built, or null if it has to be evaluated, as it does when the interpreter's
+   * config or the filters and expression tests in its scope differ from those it was folded
+   * with.
+   */
+  public Object getConstantValue(String expression, JinjavaInterpreter interpreter) {
+    Map<String, ConstantValue> values = constantValues;
+    ConstantValue value = values == null ? null : values.get(expression);
+    return value == null ? null : value.get(interpreter);
+  }
+
+  void setConstantValue(String expression, ConstantValue value) {
+    Map<String, ConstantValue> values = constantValues;
+    constantValues =
+      values == null
+        ? ImmutableMap.of(expression, value)
+        : ImmutableMap
+          .<String, ConstantValue>builder()
+          .putAll(values)
+          .put(expression, value)
+          .build();
+  }
+
+  /**
+   * Returns what rendering this node and its descendants may read, write and include, as
+   * worked out by the {@link TreeParser} when the tree was built.
+   */
+  public final NodeAnalysis getAnalysis() {
+    return analysis == null ? NodeAnalysis.UNKNOWN : analysis;
+  }
+
+  void setAnalysis(NodeAnalysis analysis) {
+    this.analysis = analysis;
+  }
+
   public abstract OutputNode render(JinjavaInterpreter interpreter);
 
+  /**
+   * Renders this node and adds its output to the given list, which may write it straight
+   * through to a sink. Nodes which render children add their output as each child is
+   * rendered, rather than building up their whole output first.
+   */
+  public void render(JinjavaInterpreter interpreter, OutputList output) {
+    output.addNode(render(interpreter));
+  }
+
   public abstract String getName();
 
   public String toTreeString() {
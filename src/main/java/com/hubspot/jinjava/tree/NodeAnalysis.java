@@ -0,0 +1,128 @@
+package com.hubspot.jinjava.tree;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * What a node and its descendants may do when rendered, worked out once when the tree is
+ * parsed by {@link TreeAnalyzer}.
+ */
+public final class NodeAnalysis implements Serializable {
+  private static final long serialVersionUID = 4139620455313757326L;
+
+  /**
+   * The analysis of a node which wasn't analysed, such as one built outside the
+   * {@link TreeParser}. Nothing is known about it, so it's treated as impure.
+   */
+  public static final NodeAnalysis UNKNOWN = new NodeAnalysis(
+    false,
+    false,
+    true,
+    ImmutableSet.of(),
+    ImmutableSet.of(),
+    ImmutableSet.of()
+  );
+
+  static final NodeAnalysis CONSTANT = new NodeAnalysis(
+    true,
+    true,
+    false,
+    ImmutableSet.of(),
+    ImmutableSet.of(),
+    ImmutableSet.of()
+  );
+
+  private final boolean pure;
+  private final boolean constant;
+  private final boolean extending;
+  private final Set<String> variablesRead;
+  private final Set<String> variablesWritten;
+  private final Set<String> resources;
+
+  NodeAnalysis(
+    boolean pure,
+    boolean constant,
+    boolean extending,
+    Set<String> variablesRead,
+    Set<String> variablesWritten,
+    Set<String> resources
+  ) {
+    this.pure = pure;
+    this.constant = constant;
+    this.extending = extending;
+    this.variablesRead = ImmutableSet.copyOf(variablesRead);
+    this.variablesWritten = ImmutableSet.copyOf(variablesWritten);
+    this.resources = ImmutableSet.copyOf(resources);
+  }
+
+  /**
+   * @return true if rendering the node can't change the context: it sets no variables,
+   *         defines or imports no macros, registers no blocks, and only calls filters, exp
+   *         tests, functions and methods known to be free of side effects. Included templates
+   *         are listed in {@link #getResources()}, and are only known to be pure once they
+   *         have been loaded and analysed themselves.
+   */
+  public boolean isPure() {
+    return pure;
+  }
+
+  /**
+   * @return true if the node is pure, reads no variables and references no resources, so it
+   *         renders the same output every time, apart from the effect of autoescaping and
+   *         nested interpretation in the surrounding template
+   */
+  public boolean isConstant() {
+    return constant;
+  }
+
+  /**
+   * @return true if the node or one of its descendants is an extends tag, so the output of
+   *         a template rooted at it is replaced by its parent's. Nodes which weren't analysed
+   *         may be.
+   */
+  public boolean isExtending() {
+    return extending;
+  }
+
+  /**
+   * @return the top-level names read from the context, not counting names bound by the node
+   *         itself such as loop variables
+   */
+  public Set<String> getVariablesRead() {
+    return variablesRead;
+  }
+
+  /**
+   * @return the top-level names the node may assign, import or define macros as
+   */
+  public Set<String> getVariablesWritten() {
+    return variablesWritten;
+  }
+
+  /**
+   * @return the literal paths of templates the node includes, imports or extends
+   */
+  public Set<String> getResources() {
+    return resources;
+  }
+
+  @Override
+  public String toString() {
+    return (
+      "NodeAnalysis{pure=" +
+      pure +
+      ", constant=" +
+      constant +
+      ", extending=" +
+      extending +
+      ", read=" +
+      variablesRead +
+      ", written=" +
+      variablesWritten +
+      ", resources=" +
+      resources +
+      "}"
+    );
+  }
+}
@@ -15,17 +15,24 @@
  **********************************************************************/
 package com.hubspot.jinjava.tree;
 
+import com.google.common.collect.Iterables;
 import com.hubspot.jinjava.interpret.DeferredValueException;
 import com.hubspot.jinjava.interpret.InterpretException;
 import com.hubspot.jinjava.interpret.InvalidArgumentException;
 import com.hubspot.jinjava.interpret.InvalidInputException;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.OutputTooBigException;
+import com.hubspot.jinjava.interpret.profile.ProfileKind;
+import com.hubspot.jinjava.interpret.profile.RenderProfile;
 import com.hubspot.jinjava.lib.tag.Tag;
+import com.hubspot.jinjava.tree.output.OutputList;
 import com.hubspot.jinjava.tree.output.OutputNode;
+import com.hubspot.jinjava.tree.output.OutputSizeUnit;
 import com.hubspot.jinjava.tree.output.RenderedOutputNode;
 import com.hubspot.jinjava.tree.parse.TagToken;
 import com.hubspot.jinjava.tree.parse.TokenScannerSymbols;
+import java.io.Serializable;
+import java.util.Optional;
 
 public class TagNode extends Node {
   private static final long serialVersionUID = -6971280448795354252L;
@@ -33,6 +40,7 @@ public class TagNode extends Node {
   private final Tag tag;
   private final TagToken master;
   private final String endName;
+  private Serializable descriptor;
 
   public TagNode(Tag tag, TagToken token, TokenScannerSymbols symbols) {
     super(token, token.getLineNumber(), token.getStartPosition());
@@ -41,19 +49,93 @@ public class TagNode extends Node {
     this.endName = tag.getEndTagName();
   }
 
+  /**
+   * Parses the helpers with {@link Tag#parseHelpers(TagNode)} and keeps the result. Invalid
+   * helpers are left to be parsed, and reported, when the tag is rendered.
+   */
+  void parseHelpers() {
+    try {
+      descriptor = tag.parseHelpers(this);
+    } catch (RuntimeException e) {
+      descriptor = null;
+    }
+  }
+
+  /**
+   * Returns the tag's description of this node's helpers. Nodes which weren't built by the
+   * {@link TreeParser}, or whose helpers are invalid, parse them again on every call.
+   *
+   * @throws com.hubspot.jinjava.interpret.TemplateSyntaxException if the helpers are invalid
+   */
+  public <T extends Serializable> T getDescriptor(Class<T> type) {
+    Serializable result = descriptor;
+    if (result == null) {
+      result = tag.parseHelpers(this);
+    }
+    return type.cast(result);
+  }
+
   @Override
   public OutputNode render(JinjavaInterpreter interpreter) {
-    if (
-      interpreter.getContext().isValidationMode() && !tag.isRenderedInValidationMode()
+    Optional<RenderProfile> profile = interpreter.getProfile();
+    if (!profile.isPresent()) {
+      return renderTag(interpreter);
+    }
+
+    profile
+      .get()
+      .enter(
+        ProfileKind.TAG,
+        getName(),
+        interpreter.getCurrentTemplatePath(),
+        getLineNumber()
+      );
+    OutputNode out = null;
+    try {
+      out = renderTag(interpreter);
+      return out;
+    } finally {
+      profile.get().exit(out == null ? 0 : out.getSize(OutputSizeUnit.CHARS));
+    }
+  }
+
+  /**
+   * Renders the tag with {@link Tag#interpretOutput(TagNode, JinjavaInterpreter, OutputList)},
+   * so that tags which render children add their output as it's rendered. Tags being
+   * profiled are rendered in full, so that the size of their output can be recorded.
+   */
+  @Override
+  public void render(JinjavaInterpreter interpreter, OutputList output) {
+    if (interpreter.getProfile().isPresent() || skipsValidation(interpreter)) {
+      output.addNode(render(interpreter));
+      return;
+    }
+
+    try {
+      tag.interpretOutput(this, interpreter, output);
+    } catch (DeferredValueException e) {
+      output.addNode(defer(interpreter));
+    } catch (
+      InterpretException
+      | InvalidInputException
+      | InvalidArgumentException
+      | OutputTooBigException e
     ) {
+      throw e;
+    } catch (Exception e) {
+      throw renderError(e);
+    }
+  }
+
+  private OutputNode renderTag(JinjavaInterpreter interpreter) {
+    if (skipsValidation(interpreter)) {
       return new RenderedOutputNode("");
     }
 
     try {
       return tag.interpretOutput(this, interpreter);
     } catch (DeferredValueException e) {
-      interpreter.getContext().handleDeferredNode(this);
-      return new RenderedOutputNode(reconstructImage());
+      return defer(interpreter);
     } catch (
       InterpretException
       | InvalidInputException
@@ -62,15 +144,30 @@ public class TagNode extends Node {
     ) {
       throw e;
     } catch (Exception e) {
-      throw new InterpretException(
-        "Error rendering tag",
-        e,
-        master.getLineNumber(),
-        master.getStartPosition()
-      );
+      throw renderError(e);
     }
   }
 
+  private boolean skipsValidation(JinjavaInterpreter interpreter) {
+    return (
+      interpreter.getContext().isValidationMode() && !tag.isRenderedInValidationMode()
+    );
+  }
+
+  private OutputNode defer(JinjavaInterpreter interpreter) {
+    interpreter.getContext().handleDeferredNode(this);
+    return new RenderedOutputNode(reconstructImage());
+  }
+
+  private InterpretException renderError(Exception e) {
+    return new InterpretException(
+      "Error rendering tag",
+      e,
+      master.getLineNumber(),
+      master.getStartPosition()
+    );
+  }
+
   @Override
   public String toString() {
     return master.toString();
@@ -112,7 +209,7 @@ public class TagNode extends Node {
     if (
       getChildren() != null &&
       !getChildren().isEmpty() &&
-      getChildren().getLast().getMaster().isRightTrim()
+      Iterables.getLast(getChildren()).getMaster().isRightTrim()
     ) {
       stringBuilder.append(getSymbols().getTrimChar());
     }
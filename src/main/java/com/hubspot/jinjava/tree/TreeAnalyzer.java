@@ -0,0 +1,366 @@
+package com.hubspot.jinjava.tree;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.hubspot.jinjava.el.ext.AstDict;
+import com.hubspot.jinjava.el.ext.AstList;
+import com.hubspot.jinjava.el.ext.AstNamedParameter;
+import com.hubspot.jinjava.el.ext.ExtendedParser;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.lib.exptest.ExpTest;
+import com.hubspot.jinjava.lib.filter.Filter;
+import com.hubspot.jinjava.lib.tag.CycleTag;
+import com.hubspot.jinjava.lib.tag.DoTag;
+import com.hubspot.jinjava.lib.tag.ElseIfTag;
+import com.hubspot.jinjava.lib.tag.ElseTag;
+import com.hubspot.jinjava.lib.tag.ExtendsTag;
+import com.hubspot.jinjava.lib.tag.ForTag;
+import com.hubspot.jinjava.lib.tag.FromTag;
+import com.hubspot.jinjava.lib.tag.IfTag;
+import com.hubspot.jinjava.lib.tag.ImportTag;
+import com.hubspot.jinjava.lib.tag.IncludeTag;
+import com.hubspot.jinjava.lib.tag.MacroTag;
+import com.hubspot.jinjava.lib.tag.PrintTag;
+import com.hubspot.jinjava.lib.tag.RawTag;
+import com.hubspot.jinjava.lib.tag.SetTag;
+import com.hubspot.jinjava.lib.tag.Tag;
+import com.hubspot.jinjava.lib.tag.TemplatePath;
+import com.hubspot.jinjava.lib.tag.UnlessTag;
+import com.hubspot.jinjava.tree.parse.ExpressionToken;
+import de.odysseus.el.tree.impl.ast.AstDot;
+import de.odysseus.el.tree.impl.ast.AstFunction;
+import de.odysseus.el.tree.impl.ast.AstIdentifier;
+import de.odysseus.el.tree.impl.ast.AstMethod;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Works out the {@link NodeAnalysis} of each node in a newly built tree, bottom up, so that
+ * caching, parallel rendering and dependency reporting can use it without re-deriving it
+ * from the tag helpers on every render.
+ *
+ * <p>Expressions are parsed with the node's expression tree cache, so the trees built here
+ * are the ones later used to render the node. Tags are only understood by their class;
+ * anything else, such as {@code call}, {@code ifchanged} or a custom tag, is treated as
+ * impure, reading whatever variables its helpers name if they parse as an expression.
+ */
+class TreeAnalyzer {
+  private static final String FILTER_PREFIX = "filter:";
+  private static final String EXPTEST_PREFIX = "exptest:";
+  private static final Set<String> PURE_FUNCTIONS = ImmutableSet.of("range");
+  private static final Set<String> PURE_METHODS = ImmutableSet.of(
+    "items",
+    "keys",
+    "values"
+  );
+
+  private final JinjavaInterpreter interpreter;
+  private final ListMultimap<Node, String> constantExpressions = ArrayListMultimap.create();
+
+  TreeAnalyzer(JinjavaInterpreter interpreter) {
+    this.interpreter = interpreter;
+  }
+
+  /**
+   * @return the expressions found so far which call only pure functions and read no
+   *         variables, by the node which evaluates them
+   */
+  ListMultimap<Node, String> getConstantExpressions() {
+    return constantExpressions;
+  }
+
+  NodeAnalysis analyze(Node node) {
+    Analysis analysis = new Analysis();
+    for (Node child : node.getChildren()) {
+      analysis.add(analyze(child));
+    }
+
+    if (node instanceof ExpressionNode) {
+      analysis.addExpression(((ExpressionToken) node.getMaster()).getExpr(), node);
+    } else if (node instanceof TagNode) {
+      analyzeTag((TagNode) node, analysis);
+    }
+
+    NodeAnalysis result = analysis.build();
+    node.setAnalysis(result);
+    return result;
+  }
+
+  private void analyzeTag(TagNode tagNode, Analysis analysis) {
+    Tag tag = tagNode.getTag();
+    String helpers = tagNode.getHelpers();
+
+    if (
+      tag instanceof IfTag ||
+      tag instanceof ElseIfTag ||
+      tag instanceof UnlessTag ||
+      tag instanceof PrintTag ||
+      tag instanceof DoTag
+    ) {
+      analysis.addExpression(helpers, tagNode);
+    } else if (tag instanceof ElseTag || tag instanceof RawTag) {
+      return;
+    } else if (tag instanceof ForTag) {
+      analyzeFor(tagNode, analysis);
+    } else if (tag instanceof SetTag) {
+      analyzeSet(tagNode, analysis);
+    } else if (tag instanceof IncludeTag) {
+      Optional<TemplatePath> path = descriptor(tagNode, TemplatePath.class);
+      if (!path.flatMap(TemplatePath::getLiteral).isPresent()) {
+        analysis.impure();
+      }
+      path.ifPresent(p -> analysis.addPath(p, tagNode));
+    } else if (tag instanceof ImportTag) {
+      analysis.impure();
+      descriptor(tagNode, ImportTag.Helpers.class)
+        .ifPresent(
+          importHelpers -> {
+            analysis.addPath(importHelpers.getPath(), tagNode);
+            if (!importHelpers.getContextVar().isEmpty()) {
+              analysis.written.add(importHelpers.getContextVar());
+            }
+          }
+        );
+    } else if (tag instanceof FromTag) {
+      analysis.impure();
+      descriptor(tagNode, FromTag.Helpers.class)
+        .ifPresent(
+          fromHelpers -> {
+            analysis.addPath(fromHelpers.getPath(), tagNode);
+            analysis.written.addAll(fromHelpers.getImports().values());
+          }
+        );
+    } else if (tag instanceof ExtendsTag) {
+      analysis.impure();
+      analysis.extending = true;
+      descriptor(tagNode, TemplatePath.class)
+        .ifPresent(p -> analysis.addPath(p, tagNode));
+    } else if (tag instanceof MacroTag) {
+      analyzeMacro(tagNode, analysis);
+    } else if (tag instanceof CycleTag) {
+      analysis.impure();
+      descriptor(tagNode, CycleTag.Helpers.class)
+        .ifPresent(
+          cycleHelpers -> {
+            cycleHelpers.getValues().forEach(value -> analysis.addReads(value, tagNode));
+            cycleHelpers.getVar().ifPresent(analysis.written::add);
+          }
+        );
+    } else {
+      analysis.impure();
+      analysis.addReads(helpers, tagNode);
+    }
+  }
+
+  private void analyzeFor(TagNode tagNode, Analysis analysis) {
+    Optional<ForTag.Helpers> forHelpers = descriptor(tagNode, ForTag.Helpers.class);
+    if (!forHelpers.isPresent()) {
+      analysis.impure();
+      return;
+    }
+
+    analysis.bind("loop");
+    analysis.bind(forHelpers.get().getLoopVars().toArray(new String[0]));
+    analysis.addExpression(forHelpers.get().getLoopExpression(), tagNode);
+  }
+
+  private void analyzeSet(TagNode tagNode, Analysis analysis) {
+    analysis.impure();
+    String helpers = tagNode.getHelpers();
+    int eqPos = helpers.indexOf('=');
+    if (eqPos < 0) {
+      return;
+    }
+
+    String[] vars = helpers.substring(0, eqPos).split(",");
+    for (String var : vars) {
+      analysis.written.add(topLevelName(var));
+    }
+    String expr = helpers.substring(eqPos + 1);
+    analysis.addExpression(vars.length > 1 ? "[" + expr + "]" : expr, tagNode);
+  }
+
+  private void analyzeMacro(TagNode tagNode, Analysis analysis) {
+    analysis.impure();
+    Optional<MacroTag.Helpers> macroHelpers = descriptor(tagNode, MacroTag.Helpers.class);
+    if (!macroHelpers.isPresent()) {
+      return;
+    }
+
+    analysis.written.add(macroHelpers.get().getName());
+    analysis.bind("varargs", "kwargs", "caller");
+    analysis.bind(macroHelpers.get().getArgs().keySet().toArray(new String[0]));
+    for (String defaultValue : macroHelpers.get().getArgs().values()) {
+      if (defaultValue != null) {
+        analysis.addExpression(defaultValue, tagNode);
+      }
+    }
+  }
+
+  /**
+   * @return the tag's description of the node's helpers, or empty if they're invalid
+   */
+  private static <T extends Serializable> Optional<T> descriptor(
+    TagNode tagNode,
+    Class<T> type
+  ) {
+    try {
+      return Optional.of(tagNode.getDescriptor(type));
+    } catch (RuntimeException e) {
+      // reported when the node is rendered
+      return Optional.empty();
+    }
+  }
+
+  private static String topLevelName(String var) {
+    return StringUtils.substringBefore(var.trim(), ".");
+  }
+
+  private class Analysis {
+    private boolean pure = true;
+    private boolean extending = false;
+    private final Set<String> read = new LinkedHashSet<>();
+    private final Set<String> written = new LinkedHashSet<>();
+    private final Set<String> resources = new LinkedHashSet<>();
+
+    void add(NodeAnalysis child) {
+      pure &= child.isPure();
+      extending |= child.isExtending();
+      read.addAll(child.getVariablesRead());
+      written.addAll(child.getVariablesWritten());
+      resources.addAll(child.getResources());
+    }
+
+    void impure() {
+      pure = false;
+    }
+
+    /**
+     * Removes names which the node binds for its children from what they read.
+     */
+    void bind(String... names) {
+      read.removeAll(Arrays.asList(names));
+    }
+
+    /**
+     * Adds the variables read by a path's expression, or the path itself if it's a literal.
+     */
+    void addPath(TemplatePath path, Node node) {
+      Optional<String> literal = path.getLiteral();
+      if (literal.isPresent()) {
+        resources.add(literal.get());
+      } else {
+        addReads(path.getToken(), node);
+      }
+    }
+
+    /**
+     * Adds the variables read by an expression which the node evaluates in its own way, so
+     * says nothing about the node's purity, ignoring it if it doesn't parse.
+     */
+    void addReads(String expression, Node node) {
+      if (StringUtils.isBlank(expression)) {
+        return;
+      }
+      Analysis analysis = new Analysis();
+      try {
+        analysis.addExpression(interpreter.getExpressionTree(expression, node).getRoot());
+      } catch (RuntimeException e) {
+        return;
+      }
+      read.addAll(analysis.read);
+    }
+
+    void addExpression(String expression, Node node) {
+      if (StringUtils.isBlank(expression)) {
+        return;
+      }
+      Analysis analysis = new Analysis();
+      try {
+        analysis.addExpression(interpreter.getExpressionTree(expression, node).getRoot());
+      } catch (RuntimeException e) {
+        // reported when the node is rendered
+        impure();
+        return;
+      }
+
+      if (analysis.pure && analysis.read.isEmpty()) {
+        constantExpressions.put(node, expression);
+      }
+      pure &= analysis.pure;
+      read.addAll(analysis.read);
+    }
+
+    private void addExpression(de.odysseus.el.tree.Node node) {
+      if (node instanceof AstIdentifier) {
+        String name = ((AstIdentifier) node).getName();
+        if (
+          !name.equals(ExtendedParser.INTERPRETER) &&
+          !name.startsWith(FILTER_PREFIX) &&
+          !name.startsWith(EXPTEST_PREFIX)
+        ) {
+          read.add(name);
+        }
+      } else if (node instanceof AstMethod) {
+        pure &= isPureCall((AstMethod) node);
+      } else if (node instanceof AstFunction) {
+        pure &= PURE_FUNCTIONS.contains(((AstFunction) node).getName());
+      } else if (node instanceof AstList) {
+        addExpression(((AstList) node).getElements());
+      } else if (node instanceof AstDict) {
+        ((AstDict) node).getDict().values().forEach(this::addExpression);
+      } else if (node instanceof AstNamedParameter) {
+        addExpression(((AstNamedParameter) node).getValue());
+      }
+
+      for (int i = 0; i < node.getCardinality(); i++) {
+        addExpression(node.getChild(i));
+      }
+    }
+
+    private boolean isPureCall(AstMethod method) {
+      if (!(method.getChild(0) instanceof AstDot)) {
+        return false;
+      }
+      AstDot property = (AstDot) method.getChild(0);
+      de.odysseus.el.tree.Node prefix = property.getChild(0);
+
+      if (prefix instanceof AstIdentifier) {
+        String name = ((AstIdentifier) prefix).getName();
+        if (name.startsWith(FILTER_PREFIX)) {
+          Filter filter = interpreter
+            .getContext()
+            .getFilter(name.substring(FILTER_PREFIX.length()));
+          return filter != null && filter.isPure();
+        }
+        if (name.startsWith(EXPTEST_PREFIX)) {
+          ExpTest expTest = interpreter
+            .getContext()
+            .getExpTest(name.substring(EXPTEST_PREFIX.length()));
+          return expTest != null && expTest.isPure();
+        }
+      }
+      return PURE_METHODS.contains(StringUtils.removeStart(property.toString(), ". "));
+    }
+
+    NodeAnalysis build() {
+      read.remove("");
+      written.remove("");
+      return pure && read.isEmpty() && written.isEmpty() && resources.isEmpty()
+        ? NodeAnalysis.CONSTANT
+        : new NodeAnalysis(
+          pure,
+          pure && read.isEmpty() && resources.isEmpty(),
+          extending,
+          read,
+          written,
+          resources
+        );
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.hubspot.jinjava.tree;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.hubspot.jinjava.interpret.Context;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.objects.SafeString;
+import com.hubspot.jinjava.tree.parse.TextToken;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Simplifies a newly built and analysed tree without changing what it renders.
+ *
+ * <ul>
+ *   <li>Runs of adjacent text nodes are merged into one.</li>
+ *   <li>Expressions which the {@link TreeAnalyzer} found to be constant are evaluated once,
+ *   and their value is kept on the node that evaluates them, so renders skip the EL
+ *   evaluation. This covers printed expressions as well as tag expressions such as
+ *   {@code if} conditions, {@code set} values and macro default arguments.</li>
+ * </ul>
+ *
+ * <p>Only immutable values are kept, since templates may modify lists and dicts they're
+ * given. A kept value is only used by renders with the same config and the same filters and
+ * expression tests in scope, and values of expressions calling functions aren't kept, since
+ * a macro may take a function's name. Expressions which fail or report errors are left to be
+ * evaluated, and reported, as usual when rendered. Printed constants still go through
+ * autoescaping and nested interpretation on every render, because those depend on where the
+ * template is used.
+ */
+class TreeOptimizer {
+  private static final Set<Class<?>> IMMUTABLE_TYPES = ImmutableSet.of(
+    String.class,
+    SafeString.class,
+    Boolean.class,
+    Character.class,
+    Byte.class,
+    Short.class,
+    Integer.class,
+    Long.class,
+    Float.class,
+    Double.class,
+    BigInteger.class,
+    BigDecimal.class
+  );
+
+  private final JinjavaInterpreter interpreter;
+  private JinjavaInterpreter evaluator;
+
+  TreeOptimizer(JinjavaInterpreter interpreter) {
+    this.interpreter = interpreter;
+  }
+
+  void optimize(Node root, ListMultimap<Node, String> constantExpressions) {
+    mergeText(root);
+
+    for (Map.Entry<Node, String> entry : constantExpressions.entries()) {
+      fold(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void mergeText(Node node) {
+    List<Node> children = node.getChildren();
+    ImmutableList.Builder<Node> merged = null;
+    for (int i = 0; i < children.size(); i++) {
+      Node child = children.get(i);
+      if (!(child instanceof TextNode)) {
+        mergeText(child);
+      }
+
+      int end = i + 1;
+      while (end < children.size() && children.get(end) instanceof TextNode) {
+        end++;
+      }
+      if (!(child instanceof TextNode) || end == i + 1) {
+        if (merged != null) {
+          merged.add(child);
+        }
+        continue;
+      }
+
+      if (merged == null) {
+        merged = ImmutableList.<Node>builder().addAll(children.subList(0, i));
+      }
+      merged.add(merge(node, children.subList(i, end)));
+      i = end - 1;
+    }
+
+    if (merged != null) {
+      node.setChildren(merged.build());
+    }
+  }
+
+  private static TextNode merge(Node parent, List<Node> textNodes) {
+    StringBuilder text = new StringBuilder();
+    for (Node textNode : textNodes) {
+      text.append(((TextToken) textNode.getMaster()).output());
+    }
+
+    TextToken first = (TextToken) textNodes.get(0).getMaster();
+    TextNode merged = new TextNode(
+      new TextToken(
+        text.toString(),
+        first.getLineNumber(),
+        first.getStartPosition(),
+        first.getSymbols()
+      )
+    );
+    merged.setParent(parent);
+    merged.setAnalysis(NodeAnalysis.CONSTANT);
+    return merged;
+  }
+
+  private void fold(Node node, String expression) {
+    if (evaluator == null) {
+      // the tree is shared by later renders, so the fold mustn't see this render's values
+      evaluator =
+        new JinjavaInterpreter(
+          interpreter.getApplication(),
+          Context.newLibraryCopy(interpreter.getContext()),
+          interpreter.getConfig()
+        );
+    }
+
+    Object value;
+    Context scope;
+    JinjavaInterpreter.pushCurrent(evaluator);
+    evaluator.enterScope();
+    try {
+      scope = evaluator.getContext();
+      value = evaluator.resolveELExpression(expression, node);
+    } catch (RuntimeException e) {
+      return;
+    } finally {
+      evaluator.leaveScope();
+      JinjavaInterpreter.popCurrent();
+    }
+
+    if (!evaluator.getErrorsCopy().isEmpty()) {
+      evaluator = null;
+    } else if (
+      value != null &&
+      IMMUTABLE_TYPES.contains(value.getClass()) &&
+      scope.getResolvedFunctions().isEmpty()
+    ) {
+      node.setConstantValue(
+        expression,
+        new ConstantValue(value, evaluator.getConfig(), scope)
+      );
+    }
+  }
+}
@@ -15,6 +15,7 @@
  **********************************************************************/
 package com.hubspot.jinjava.tree;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
 import com.hubspot.jinjava.interpret.DisabledException;
@@ -80,6 +81,10 @@ public class TreeParser {
       }
     } while (parent.getParent() != null);
 
+    root.freeze();
+    TreeAnalyzer analyzer = new TreeAnalyzer(interpreter);
+    analyzer.analyze(root);
+    new TreeOptimizer(interpreter).optimize(root, analyzer.getConstantExpressions());
     return root;
   }
 
@@ -130,7 +135,7 @@ public class TreeParser {
     if (parent == null || parent.getChildren().isEmpty()) {
       return null;
     }
-    return parent.getChildren().getLast();
+    return Iterables.getLast(parent.getChildren());
   }
 
   private Node text(TextToken textToken) {
@@ -212,6 +217,7 @@ public class TreeParser {
 
     TagNode node = new TagNode(tag, tagToken, symbols);
     node.setParent(parent);
+    node.parseHelpers();
 
     if (node.getEndName() != null) {
       parent.getChildren().add(node);
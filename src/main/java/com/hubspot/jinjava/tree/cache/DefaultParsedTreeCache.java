@@ -0,0 +1,95 @@
+package com.hubspot.jinjava.tree.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.hubspot.jinjava.tree.Node;
+import java.util.Optional;
+
+/**
+ * A bounded, concurrent {@link ParsedTreeCache} backed by a Guava cache. Entries are
+ * evicted either by count or by weight, where the weight of a tree is the number of
+ * template characters it was parsed from.
+ */
+public class DefaultParsedTreeCache implements ParsedTreeCache {
+  public static final long DEFAULT_MAXIMUM_WEIGHT = 10_000_000;
+
+  private final Cache<ParsedTreeCacheKey, Node> cache;
+
+  private DefaultParsedTreeCache(Builder builder) {
+    CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().recordStats();
+    if (builder.maximumSize >= 0) {
+      cacheBuilder.maximumSize(builder.maximumSize);
+    } else {
+      cacheBuilder
+        .maximumWeight(builder.maximumWeight)
+        .weigher((ParsedTreeCacheKey key, Node root) -> weigh(root));
+    }
+    this.cache = cacheBuilder.build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  @Override
+  public Optional<Node> get(ParsedTreeCacheKey key) {
+    return Optional.ofNullable(cache.getIfPresent(key));
+  }
+
+  @Override
+  public void put(ParsedTreeCacheKey key, Node root) {
+    cache.put(key, root);
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static int weigh(Node node) {
+    long weight = node.getMaster() == null ? 0 : node.getMaster().getImage().length();
+    for (Node child : node.getChildren()) {
+      weight += weigh(child);
+    }
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  public static class Builder {
+    private long maximumSize = -1;
+    private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+
+    private Builder() {}
+
+    /**
+     * Bound the cache by number of entries instead of by weight. A maximum size of 0
+     * disables caching entirely.
+     */
+    public Builder withMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Bound the cache by the total number of template characters held in it.
+     */
+    public Builder withMaximumWeight(long maximumWeight) {
+      this.maximumSize = -1;
+      this.maximumWeight = maximumWeight;
+      return this;
+    }
+
+    public DefaultParsedTreeCache build() {
+      return new DefaultParsedTreeCache(this);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.hubspot.jinjava.tree.cache;
+
+import com.google.common.cache.CacheStats;
+import com.hubspot.jinjava.tree.Node;
+import java.util.Optional;
+
+/**
+ * Stores parsed template trees so that rendering the same source repeatedly does not
+ * re-scan and re-parse it. Cached trees are shared between renders on any thread, so
+ * implementations must be thread-safe and callers must treat the returned nodes as
+ * read-only.
+ */
+public interface ParsedTreeCache {
+  Optional<Node> get(ParsedTreeCacheKey key);
+
+  void put(ParsedTreeCacheKey key, Node root);
+
+  void invalidateAll();
+
+  CacheStats getStats();
+}
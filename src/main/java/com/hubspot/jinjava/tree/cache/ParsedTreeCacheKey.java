@@ -0,0 +1,116 @@
+package com.hubspot.jinjava.tree.cache;
+
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.parse.TokenScannerSymbols;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Identifies a parsed tree by its source along with every setting that changes how that
+ * source is parsed, so that renders using different token symbols, whitespace control or
+ * disabled tags never share a tree. The source is either the template text itself, or the
+ * location of a resource together with the version reported by its resource locator.
+ */
+public final class ParsedTreeCacheKey {
+  private final String source;
+  private final String version;
+  private final String charset;
+  private final String symbols;
+  private final boolean trimBlocks;
+  private final boolean lstripBlocks;
+  private final Set<String> disabledTags;
+  private final int hashCode;
+
+  private ParsedTreeCacheKey(
+    String source,
+    String version,
+    JinjavaInterpreter interpreter
+  ) {
+    JinjavaConfig config = interpreter.getConfig();
+    this.source = source;
+    this.version = version;
+    this.charset = version == null ? null : config.getCharset().name();
+    this.symbols = describe(config.getTokenScannerSymbols());
+    this.trimBlocks = config.isTrimBlocks();
+    this.lstripBlocks = config.isLstripBlocks();
+    this.disabledTags = interpreter.getContext().getDisabledTags();
+
+    this.hashCode =
+      Objects.hash(
+        source,
+        version,
+        charset,
+        symbols,
+        trimBlocks,
+        lstripBlocks,
+        disabledTags
+      );
+  }
+
+  public static ParsedTreeCacheKey forTemplate(
+    String template,
+    JinjavaInterpreter interpreter
+  ) {
+    return new ParsedTreeCacheKey(template, null, interpreter);
+  }
+
+  public static ParsedTreeCacheKey forResource(
+    String location,
+    String version,
+    JinjavaInterpreter interpreter
+  ) {
+    return new ParsedTreeCacheKey(location, version, interpreter);
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public Optional<String> getVersion() {
+    return Optional.ofNullable(version);
+  }
+
+  private static String describe(TokenScannerSymbols symbols) {
+    return new String(
+      new char[] {
+        symbols.getPrefixChar(),
+        symbols.getPostfixChar(),
+        symbols.getFixedChar(),
+        symbols.getNoteChar(),
+        symbols.getTagChar(),
+        symbols.getExprStartChar(),
+        symbols.getExprEndChar(),
+        symbols.getNewlineChar(),
+        symbols.getTrimChar()
+      }
+    );
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ParsedTreeCacheKey that = (ParsedTreeCacheKey) o;
+    return (
+      hashCode == that.hashCode &&
+      trimBlocks == that.trimBlocks &&
+      lstripBlocks == that.lstripBlocks &&
+      symbols.equals(that.symbols) &&
+      disabledTags.equals(that.disabledTags) &&
+      Objects.equals(version, that.version) &&
+      Objects.equals(charset, that.charset) &&
+      source.equals(that.source)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+}
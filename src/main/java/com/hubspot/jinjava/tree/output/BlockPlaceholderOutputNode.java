@@ -1,11 +1,9 @@
 package com.hubspot.jinjava.tree.output;
 
-import com.google.common.base.Charsets;
-import java.nio.charset.Charset;
-
 public class BlockPlaceholderOutputNode implements OutputNode {
   private final String blockName;
   private String output;
+  private long size = -1;
 
   public BlockPlaceholderOutputNode(String blockName) {
     this.blockName = blockName;
@@ -21,6 +19,7 @@ public class BlockPlaceholderOutputNode implements OutputNode {
 
   public void resolve(String output) {
     this.output = output;
+    this.size = -1;
   }
 
   @Override
@@ -34,9 +33,15 @@ public class BlockPlaceholderOutputNode implements OutputNode {
 
   @Override
   public long getSize() {
-    return output == null
-      ? 0
-      : output.getBytes(Charset.forName(Charsets.UTF_8.name())).length;
+    if (size < 0) {
+      size = OutputSizeUnit.UTF8_BYTES.sizeOf(output);
+    }
+    return size;
+  }
+
+  @Override
+  public long getSize(OutputSizeUnit unit) {
+    return unit == OutputSizeUnit.UTF8_BYTES ? getSize() : unit.sizeOf(output);
   }
 
   @Override
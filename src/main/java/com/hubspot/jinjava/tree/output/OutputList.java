@@ -4,36 +4,79 @@ import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.OutputTooBigException;
 import com.hubspot.jinjava.interpret.TemplateError;
 import com.hubspot.jinjava.util.LengthLimitingStringBuilder;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class OutputList {
-  private final List<OutputNode> nodes = new LinkedList<>();
-  private final List<BlockPlaceholderOutputNode> blocks = new LinkedList<>();
+  private final List<OutputNode> nodes;
+  private final List<BlockPlaceholderOutputNode> blocks = new ArrayList<>();
   private final long maxOutputSize;
+  private final OutputSizeUnit sizeUnit;
+  private final Appendable sink;
   private long currentSize;
 
   public OutputList(long maxOutputSize) {
+    this(maxOutputSize, OutputSizeUnit.UTF8_BYTES, null, 0);
+  }
+
+  public OutputList(long maxOutputSize, Appendable sink) {
+    this(maxOutputSize, OutputSizeUnit.UTF8_BYTES, sink, 0);
+  }
+
+  public OutputList(long maxOutputSize, OutputSizeUnit sizeUnit) {
+    this(maxOutputSize, sizeUnit, null, 0);
+  }
+
+  /**
+   * Creates an output list which writes nodes straight through to {@code sink} rather than
+   * holding on to them, up until the first block placeholder is added. From then on nodes
+   * are buffered, so that nothing following the placeholder is written until it has been
+   * resolved and the remaining value is retrieved with {@link #getValue()}. Tags which render
+   * their children add each child's output here as it's rendered, so it's written through
+   * before the rest of the tag has been rendered.
+   *
+   * @param expectedNodes
+   *          number of nodes expected to be added, used to size the buffer when there's no sink
+   */
+  public OutputList(
+    long maxOutputSize,
+    OutputSizeUnit sizeUnit,
+    Appendable sink,
+    int expectedNodes
+  ) {
     this.maxOutputSize = maxOutputSize;
+    this.sizeUnit = sizeUnit;
+    this.sink = sink;
+    this.nodes = sink == null ? new ArrayList<>(expectedNodes) : new ArrayList<>();
   }
 
   public void addNode(OutputNode node) {
-    if (maxOutputSize > 0 && currentSize + node.getSize() > maxOutputSize) {
-      throw new OutputTooBigException(maxOutputSize, currentSize + node.getSize());
+    // sizes are only needed to enforce the limit, so skip measuring when there is none
+    if (maxOutputSize > 0) {
+      long nodeSize = node.getSize(sizeUnit);
+      if (currentSize + nodeSize > maxOutputSize) {
+        throw new OutputTooBigException(maxOutputSize, currentSize + nodeSize);
+      }
+      currentSize += nodeSize;
+    }
+
+    if (
+      sink != null && blocks.isEmpty() && !(node instanceof BlockPlaceholderOutputNode)
+    ) {
+      try {
+        sink.append(node.getValue());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return;
     }
 
-    currentSize += node.getSize();
     nodes.add(node);
 
     if (node instanceof BlockPlaceholderOutputNode) {
-      BlockPlaceholderOutputNode blockNode = (BlockPlaceholderOutputNode) node;
-
-      if (maxOutputSize > 0 && currentSize + blockNode.getSize() > maxOutputSize) {
-        throw new OutputTooBigException(maxOutputSize, currentSize + blockNode.getSize());
-      }
-
-      currentSize += blockNode.getSize();
-      blocks.add(blockNode);
+      blocks.add((BlockPlaceholderOutputNode) node);
     }
   }
 
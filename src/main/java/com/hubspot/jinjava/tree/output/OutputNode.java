@@ -3,5 +3,15 @@ package com.hubspot.jinjava.tree.output;
 public interface OutputNode {
   String getValue();
 
+  /**
+   * @return length of the value once encoded as UTF-8
+   */
   long getSize();
+
+  /**
+   * @return length of the value, measured in the given unit
+   */
+  default long getSize(OutputSizeUnit unit) {
+    return unit == OutputSizeUnit.UTF8_BYTES ? getSize() : unit.sizeOf(getValue());
+  }
 }
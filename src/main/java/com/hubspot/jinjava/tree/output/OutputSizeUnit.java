@@ -0,0 +1,59 @@
+package com.hubspot.jinjava.tree.output;
+
+/**
+ * Unit in which render output is measured against {@link com.hubspot.jinjava.JinjavaConfig#getMaxOutputSize()}.
+ */
+public enum OutputSizeUnit {
+  /**
+   * Length of the output once encoded as UTF-8. Unpaired surrogates count as the single
+   * replacement byte {@link String#getBytes(java.nio.charset.Charset)} would write for them.
+   */
+  UTF8_BYTES {
+
+    @Override
+    public long sizeOf(CharSequence value) {
+      return utf8Length(value);
+    }
+  },
+  /**
+   * Number of UTF-16 chars in the output, which is free to compute.
+   */
+  CHARS {
+
+    @Override
+    public long sizeOf(CharSequence value) {
+      return value == null ? 0 : value.length();
+    }
+  };
+
+  public abstract long sizeOf(CharSequence value);
+
+  private static long utf8Length(CharSequence value) {
+    if (value == null) {
+      return 0;
+    }
+
+    int length = value.length();
+    long size = length;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        continue;
+      }
+      if (c < 0x800) {
+        size += 1;
+      } else if (
+        Character.isHighSurrogate(c) &&
+        i + 1 < length &&
+        Character.isLowSurrogate(value.charAt(i + 1))
+      ) {
+        // a surrogate pair is 2 chars and 4 bytes
+        size += 2;
+        i++;
+      } else if (!Character.isSurrogate(c)) {
+        size += 2;
+      }
+    }
+    return size;
+  }
+}
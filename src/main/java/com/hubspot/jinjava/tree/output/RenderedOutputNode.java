@@ -1,10 +1,8 @@
 package com.hubspot.jinjava.tree.output;
 
-import com.google.common.base.Charsets;
-import java.nio.charset.Charset;
-
 public class RenderedOutputNode implements OutputNode {
   private final String output;
+  private long size = -1;
 
   public RenderedOutputNode(String output) {
     this.output = output;
@@ -22,8 +20,14 @@ public class RenderedOutputNode implements OutputNode {
 
   @Override
   public long getSize() {
-    return output == null
-      ? 0
-      : output.getBytes(Charset.forName(Charsets.UTF_8.name())).length;
+    if (size < 0) {
+      size = OutputSizeUnit.UTF8_BYTES.sizeOf(output);
+    }
+    return size;
+  }
+
+  @Override
+  public long getSize(OutputSizeUnit unit) {
+    return unit == OutputSizeUnit.UTF8_BYTES ? getSize() : unit.sizeOf(output);
   }
 }
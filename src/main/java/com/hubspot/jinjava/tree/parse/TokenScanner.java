@@ -23,6 +23,7 @@ import com.hubspot.jinjava.JinjavaConfig;
 public class TokenScanner extends AbstractIterator<Token> {
   private final JinjavaConfig config;
 
+  private final String input;
   private final char[] is;
   private final int length;
 
@@ -42,6 +43,7 @@ public class TokenScanner extends AbstractIterator<Token> {
   public TokenScanner(String input, JinjavaConfig config) {
     this.config = config;
 
+    this.input = input;
     is = input.toCharArray();
     length = is.length;
 
@@ -62,6 +64,10 @@ public class TokenScanner extends AbstractIterator<Token> {
   private Token getNextToken() {
     char c;
     while (currPost < length) {
+      if (inBlock == 0 && inComment == 0) {
+        skipText();
+      }
+
       c = is[currPost++];
       if (currPost == length) {
         return getEndToken();
@@ -201,6 +207,32 @@ public class TokenScanner extends AbstractIterator<Token> {
     return null;
   }
 
+  /**
+   * Moves past plain text up to the next prefix character, which is the only one that can
+   * change state outside of tags and comments, counting the lines on the way. Uses
+   * {@link String#indexOf(int, int)}, which the JVM scans with vector instructions, rather
+   * than going through the branches in {@link #getNextToken()} one character at a time.
+   */
+  private void skipText() {
+    int next = input.indexOf(symbols.getPrefixChar(), currPost);
+    // the last character is never a delimiter; leave it for getNextToken to end on
+    int end = next < 0 ? length - 1 : next;
+    if (end <= currPost) {
+      return;
+    }
+
+    for (
+      int newline = input.indexOf(symbols.getNewlineChar(), currPost);
+      newline >= 0 && newline < end;
+      newline = input.indexOf(symbols.getNewlineChar(), newline + 1)
+    ) {
+      currLine++;
+      lastNewlinePos = newline + 1;
+    }
+    tokenKind = symbols.getFixed();
+    currPost = end;
+  }
+
   private boolean isEndRaw() {
     int pos = currPost + 1;
     while (pos < length) {
@@ -2,13 +2,13 @@ package com.hubspot.jinjava.util;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
+import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.DeferredValue;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
-import com.hubspot.jinjava.lib.tag.SetTag;
 import com.hubspot.jinjava.tree.ExpressionNode;
 import com.hubspot.jinjava.tree.Node;
+import com.hubspot.jinjava.tree.NodeAnalysis;
 import com.hubspot.jinjava.tree.TagNode;
 import com.hubspot.jinjava.tree.TextNode;
 import java.util.HashMap;
@@ -17,14 +17,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.StringJoiner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class DeferredValueUtils {
-  private static final String TEMPLATE_TAG_REGEX = "(\\w+(?:\\.\\w+)*)";
-  private static final Pattern TEMPLATE_TAG_PATTERN = Pattern.compile(TEMPLATE_TAG_REGEX);
 
   public static HashMap<String, Object> getDeferredContextWithOriginalValues(
     Context context
@@ -59,17 +54,31 @@ public class DeferredValueUtils {
   }
 
   public static Set<String> findAndMarkDeferredProperties(Context context) {
-    String templateSource = rebuildTemplateForNodes(context.getDeferredNodes());
-    Set<String> deferredProps = getPropertiesUsedInDeferredNodes(context, templateSource);
-    Set<String> setProps = getPropertiesSetInDeferredNodes(templateSource);
+    Set<String> deferredProps = new HashSet<>();
+    for (Node node : context.getDeferredNodes()) {
+      deferredProps.addAll(findAndMarkDeferredProperties(context, node));
+    }
+    return deferredProps;
+  }
 
-    markDeferredProperties(context, Sets.union(deferredProps, setProps));
+  /**
+   * Marks the properties read or written by a single deferred node as deferred in the
+   * given context, using the {@link NodeAnalysis} worked out when the node was parsed.
+   *
+   * @return the properties read by the node that are present in the context
+   */
+  public static Set<String> findAndMarkDeferredProperties(Context context, Node node) {
+    NodeAnalysis analysis = node.getAnalysis();
+    Set<String> deferredProps = getPropertiesUsedInDeferredNodes(context, analysis);
+
+    markDeferredProperties(context, deferredProps);
+    markDeferredProperties(context, analysis.getVariablesWritten());
 
     return deferredProps;
   }
 
   public static Set<String> getPropertiesSetInDeferredNodes(String templateSource) {
-    return findSetProperties(templateSource);
+    return analyze(templateSource).getVariablesWritten();
   }
 
   public static Set<DeferredTag> getDeferredTags(Set<Node> deferredNodes) {
@@ -80,14 +89,37 @@ public class DeferredValueUtils {
     Context context,
     String templateSource
   ) {
-    Set<String> propertiesUsed = findUsedProperties(templateSource);
-    return propertiesUsed
+    return getPropertiesUsedInDeferredNodes(context, analyze(templateSource));
+  }
+
+  private static Set<String> getPropertiesUsedInDeferredNodes(
+    Context context,
+    NodeAnalysis analysis
+  ) {
+    return analysis
+      .getVariablesRead()
       .stream()
-      .map(prop -> prop.split("\\.", 2)[0]) // split accesses on .prop
       .filter(context::containsKey)
       .collect(Collectors.toSet());
   }
 
+  /**
+   * Parses template source to find what it reads and writes, with a throwaway interpreter so
+   * that errors in the fragment aren't added to any render. The current interpreter's
+   * libraries and config are used if there is one.
+   */
+  private static NodeAnalysis analyze(String templateSource) {
+    JinjavaInterpreter current = JinjavaInterpreter.getCurrent();
+    JinjavaInterpreter interpreter = current == null
+      ? DefaultInterpreterHolder.JINJAVA.newInterpreter()
+      : new JinjavaInterpreter(current);
+    return interpreter.parse(templateSource).getAnalysis();
+  }
+
+  private static class DefaultInterpreterHolder {
+    private static final Jinjava JINJAVA = new Jinjava();
+  }
+
   private static void markDeferredProperties(Context context, Set<String> props) {
     props
       .stream()
@@ -120,34 +152,6 @@ public class DeferredValueUtils {
     return deferredTags;
   }
 
-  private static String rebuildTemplateForNodes(Set<Node> nodes) {
-    StringJoiner joiner = new StringJoiner(" ");
-    getDeferredTags(nodes).stream().map(DeferredTag::getTag).forEach(joiner::add);
-    return joiner.toString();
-  }
-
-  private static Set<String> findUsedProperties(String templateSource) {
-    Matcher matcher = TEMPLATE_TAG_PATTERN.matcher(templateSource);
-    Set<String> tags = Sets.newHashSet();
-    while (matcher.find()) {
-      tags.add(matcher.group(1));
-    }
-    return tags;
-  }
-
-  private static Set<String> findSetProperties(String templateSource) {
-    Set<String> tags = Sets.newHashSet();
-    String[] lines = templateSource.split("\n");
-    for (String line : lines) {
-      line = line.trim();
-      if (line.contains(SetTag.TAG_NAME + " ")) {
-        tags.addAll(findUsedProperties(line));
-      }
-    }
-
-    return tags;
-  }
-
   private static Optional<Set<DeferredTag>> getDeferredTags(Node deferredNode) {
     if (deferredNode instanceof TextNode || deferredNode.getMaster() == null) {
       return Optional.empty();
@@ -1,16 +1,12 @@
 package com.hubspot.jinjava.util;
 
-import static com.hubspot.jinjava.util.Logging.ENGINE_LOG;
-
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 public class ScopeMap<K, V> implements Map<K, V> {
@@ -24,25 +20,6 @@ public class ScopeMap<K, V> implements Map<K, V> {
   public ScopeMap(ScopeMap<K, V> parent) {
     this.scope = new HashMap<>();
     this.parent = parent;
-
-    Set<ScopeMap<K, V>> parents = new HashSet<>();
-    if (parent != null) {
-      ScopeMap<K, V> p = parent.getParent();
-      while (p != null) {
-        parents.add(p);
-        if (parents.contains(parent)) {
-          ENGINE_LOG.error(
-            "Parent loop detected:\n{}",
-            Arrays
-              .stream(Thread.currentThread().getStackTrace())
-              .map(StackTraceElement::toString)
-              .collect(Collectors.joining("\n"))
-          );
-          break;
-        }
-        p = p.getParent();
-      }
-    }
   }
 
   public ScopeMap(ScopeMap<K, V> parent, Map<K, V> scope) {
@@ -75,12 +52,10 @@ public class ScopeMap<K, V> implements Map<K, V> {
 
   @Override
   public boolean containsValue(Object value) {
-    if (scope.containsValue(value)) {
-      return true;
-    }
-
-    if (parent != null) {
-      return parent.containsValue(value);
+    for (ScopeMap<K, V> map = this; map != null; map = map.parent) {
+      if (map.scope.containsValue(value)) {
+        return true;
+      }
     }
 
     return false;
@@ -98,13 +73,12 @@ public class ScopeMap<K, V> implements Map<K, V> {
 
   @Override
   public V get(Object key) {
-    V val = scope.get(key);
-    if (val != null) {
-      return val;
-    }
-
-    if (parent != null) {
-      return parent.get(key);
+    // walk the chain iteratively; scopes are nested once per loop iteration and macro call
+    for (ScopeMap<K, V> map = this; map != null; map = map.parent) {
+      V val = map.scope.get(key);
+      if (val != null) {
+        return val;
+      }
     }
 
     return null;
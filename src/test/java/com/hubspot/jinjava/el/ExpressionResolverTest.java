@@ -18,9 +18,11 @@ import com.hubspot.jinjava.interpret.RenderResult;
 import com.hubspot.jinjava.interpret.TemplateError;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
+import com.hubspot.jinjava.lib.filter.Filter;
 import com.hubspot.jinjava.objects.PyWrapper;
 import com.hubspot.jinjava.objects.date.PyishDate;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -594,6 +596,131 @@ public class ExpressionResolverTest {
     assertThat(interpreter.getErrorsCopy()).isEmpty();
   }
 
+  @Test
+  public void itReusesWrappersForRepeatedReads() {
+    Date date = new Date(0);
+    context.put("items", Lists.newArrayList(1, 2));
+    context.put("attrs", Maps.newHashMap(ImmutableMap.of("a", 1)));
+    context.put("date", date);
+
+    for (String expression : ImmutableSet.of("items", "attrs", "date")) {
+      assertThat(interpreter.resolveELExpression(expression, -1))
+        .isSameAs(interpreter.resolveELExpression(expression, -1));
+    }
+
+    date.setTime(1000);
+    assertThat(((PyishDate) interpreter.resolveELExpression("date", -1)).getTime())
+      .isEqualTo(1000);
+  }
+
+  @Test
+  public void itChecksSizeLimitsOfRepeatedReads() {
+    interpreter =
+      new Jinjava(JinjavaConfig.newBuilder().withMaxListSize(2).build()).newInterpreter();
+    List<Object> items = Lists.newArrayList(1, 2);
+    interpreter.getContext().put("items", items);
+
+    assertThat(interpreter.resolveELExpression("items", -1))
+      .isInstanceOf(PyWrapper.class);
+
+    items.add(3);
+    assertThat(interpreter.resolveELExpression("items", -1)).isNull();
+    assertThat(interpreter.getErrorsCopy()).isNotEmpty();
+  }
+
+  @Test
+  public void itPassesNamedFilterArgumentsAsKeywordArguments() {
+    context.registerFilter(new ArgsFilter("args"));
+
+    assertThat(interpreter.resolveELExpression("'a'|args(1, b=2, 3)", -1))
+      .isEqualTo("a [1, 3] {b=2}");
+    assertThat(interpreter.resolveELExpression("'a'|args", -1)).isEqualTo("a [] {}");
+  }
+
+  @Test
+  public void itRecordsFiltersAndTestsAsResolvedValues() {
+    interpreter.resolveELExpression("('a'|upper) is string and 'b' is not number", -1);
+
+    assertThat(interpreter.getContext().getResolvedValues())
+      .contains(
+        "filter:upper",
+        "filter",
+        "exptest:string",
+        "evaluate",
+        "exptest:number",
+        "evaluateNegated"
+      );
+  }
+
+  @Test
+  public void itLooksUpFiltersAgainWhenTheScopeChanges() {
+    assertThat(interpreter.resolveELExpression("'a'|scoped", -1)).isNull();
+
+    context.registerFilter(new ArgsFilter("scoped"));
+    assertThat(interpreter.resolveELExpression("'a'|scoped", -1)).isEqualTo("a [] {}");
+
+    try (JinjavaInterpreter.InterpreterScopeClosable c = interpreter.enterScope()) {
+      interpreter
+        .getContext()
+        .registerFilter(
+          new ArgsFilter("scoped") {
+
+            @Override
+            public Object filter(
+              Object var,
+              JinjavaInterpreter interpreter,
+              Object[] args,
+              Map<String, Object> kwargs
+            ) {
+              return "inner";
+            }
+          }
+        );
+      assertThat(interpreter.resolveELExpression("'a'|scoped", -1)).isEqualTo("inner");
+    }
+    assertThat(interpreter.resolveELExpression("'a'|scoped", -1)).isEqualTo("a [] {}");
+  }
+
+  @Test
+  public void itLooksUpFiltersAgainWhenAParentScopeChanges() {
+    context.put("x", "a");
+
+    try (JinjavaInterpreter.InterpreterScopeClosable c = interpreter.enterScope()) {
+      assertThat(interpreter.resolveELExpression("x|upper", -1)).isEqualTo("A");
+
+      context.registerFilter(new ArgsFilter("upper"));
+      assertThat(interpreter.resolveELExpression("x|upper", -1)).isEqualTo("a [] {}");
+    }
+  }
+
+  public static class ArgsFilter implements Filter {
+    private final String name;
+
+    public ArgsFilter(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Object filter(Object var, JinjavaInterpreter interpreter, String... args) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object filter(
+      Object var,
+      JinjavaInterpreter interpreter,
+      Object[] args,
+      Map<String, Object> kwargs
+    ) {
+      return var + " " + Arrays.toString(args) + " " + kwargs;
+    }
+  }
+
   public String result(String value, TestClass testClass) {
     testClass.touch();
     return value;
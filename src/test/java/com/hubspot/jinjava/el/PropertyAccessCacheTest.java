@@ -0,0 +1,89 @@
+package com.hubspot.jinjava.el;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.BaseInterpretingTest;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
+import org.junit.Test;
+
+public class PropertyAccessCacheTest extends BaseInterpretingTest {
+
+  @Test
+  public void itReadsPropertiesOfMoreClassesThanItRemembers() {
+    context.put(
+      "items",
+      ImmutableList.of(
+        new First(),
+        ImmutableMap.of("name", "map"),
+        new Second(),
+        new Third(),
+        new Fourth(),
+        new Fifth(),
+        new First(),
+        ImmutableMap.of("name", "other map"),
+        new Fifth()
+      )
+    );
+
+    assertThat(
+        interpreter.render(
+          "{% for item in items %}{{ item.name }},{{ item['name'] }} {% endfor %}"
+        )
+      )
+      .isEqualTo(
+        "first,first map,map second,second third,third fourth,fourth " +
+        "fifth,fifth first,first other map,other map fifth,fifth "
+      );
+    assertThat(interpreter.getErrorsCopy()).isEmpty();
+  }
+
+  @Test
+  public void itReportsUnknownPropertiesEachTime() {
+    context.put("items", ImmutableList.of(new First(), new First()));
+
+    assertThat(
+        interpreter.render("{% for item in items %}[{{ item.missing }}]{% endfor %}")
+      )
+      .isEqualTo("[][]");
+    assertThat(interpreter.getErrorsCopy())
+      .extracting(error -> error.getItem())
+      .containsExactly(ErrorItem.PROPERTY, ErrorItem.PROPERTY);
+  }
+
+  public static class First {
+
+    public String getName() {
+      return "first";
+    }
+  }
+
+  public static class Second {
+
+    public String getName() {
+      return "second";
+    }
+  }
+
+  public static class Third {
+
+    public String getName() {
+      return "third";
+    }
+  }
+
+  public static class Fourth {
+
+    public String getName() {
+      return "fourth";
+    }
+  }
+
+  public static class Fifth {
+
+    public String getName() {
+      return "fifth";
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.hubspot.jinjava.el.expr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.BaseInterpretingTest;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.tree.Node;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExprTreeTest extends BaseInterpretingTest {
+  private Node node;
+  private int seenErrors;
+
+  @Before
+  public void setup() {
+    node = interpreter.parse("{{ x }}").getChildren().get(0);
+    context.put(
+      "page",
+      ImmutableMap.of(
+        "title",
+        "hello",
+        "tags",
+        ImmutableList.of("a", "b"),
+        "meta",
+        ImmutableMap.of("key-name", "value"),
+        "count",
+        1
+      )
+    );
+  }
+
+  @Test
+  public void itEvaluatesPropertiesLiteralsFiltersAndTestsDirectly() {
+    assertThat(exprOf("page.title")).isPresent();
+    assertThat(exprOf("page.meta['key-name']")).isPresent();
+    assertThat(exprOf("page.tags[0]|upper")).isPresent();
+    assertThat(exprOf("page.title|replace('l', 'L', count=1)")).isPresent();
+    assertThat(exprOf("(page.title) is string")).isPresent();
+    assertThat(exprOf("'text'|default(page.title)")).isPresent();
+  }
+
+  @Test
+  public void itLeavesOtherExpressionsToJuel() {
+    assertThat(exprOf("page.title ~ '!'")).isEmpty();
+    assertThat(exprOf("page.tags[index]")).isEmpty();
+    assertThat(exprOf("page.title.upper()")).isEmpty();
+    assertThat(exprOf("range(3)")).isEmpty();
+    assertThat(exprOf("[page.title]|first")).isEmpty();
+  }
+
+  @Test
+  public void itEvaluatesLikeJuel() {
+    for (String expression : ImmutableList.of(
+      "page.title",
+      "page.meta['key-name']",
+      "page.tags[-1]|upper",
+      "page.tags[5]",
+      "page.missing.deeper",
+      "missing|default('fallback')",
+      "page.title|replace('l', 'L', count=1)",
+      "page.title is not string",
+      "page.title|nosuchfilter",
+      "page.count|divide(0)",
+      "null",
+      "true"
+    )) {
+      Object direct = interpreter.resolveELExpression(expression, node);
+      List<String> directErrors = errors();
+      Object juel = interpreter.resolveELExpression(expression, -1);
+      List<String> juelErrors = errors();
+
+      assertThat(direct).as(expression).isEqualTo(juel);
+      assertThat(directErrors).as(expression).isEqualTo(juelErrors);
+    }
+    assertThat(seenErrors).isGreaterThan(0);
+  }
+
+  private Optional<Expr> exprOf(String expression) {
+    return ((ExprTree) interpreter.getExpressionTree(expression, node)).getExpr();
+  }
+
+  private List<String> errors() {
+    List<String> messages = interpreter
+      .getErrorsCopy()
+      .stream()
+      .skip(seenErrors)
+      .map(TemplateError::getMessage)
+      .collect(Collectors.toList());
+    seenErrors += messages.size();
+    return messages;
+  }
+}
@@ -105,6 +105,33 @@ public class ExtendedParserTest {
     assertForExpression(right, "c", "d", "exptest:equalto");
   }
 
+  @Test
+  public void itParsesFiltersIntoFilterNodes() {
+    AstNode astNode = buildExpressionNodes("#{'a'|replace('a', new='b')|upper}");
+
+    assertThat(astNode).isInstanceOf(AstFilter.class);
+    assertThat(((AstFilter) astNode).getName()).isEqualTo("upper");
+
+    AstNode replace = (AstNode) astNode.getChild(1).getChild(0);
+    assertThat(replace).isInstanceOf(AstFilter.class);
+    assertThat(((AstFilter) replace).getName()).isEqualTo("replace");
+    assertThat(((AstIdentifier) replace.getChild(0).getChild(0)).getName())
+      .isEqualTo("filter:replace");
+    assertThat(replace.getChild(1).getCardinality()).isEqualTo(4);
+    assertThat(replace.getChild(1).getChild(3)).isInstanceOf(AstNamedParameter.class);
+  }
+
+  @Test
+  public void itParsesExpTestsIntoExpTestNodes() {
+    AstNode astNode = buildExpressionNodes("#{'a' is not equalto 'b'}");
+
+    assertThat(astNode).isInstanceOf(AstExpTest.class);
+    assertThat(((AstExpTest) astNode).getName()).isEqualTo("equalto");
+    assertThat(((AstExpTest) astNode).isNegated()).isTrue();
+    assertThat(((AstExpTest) buildExpressionNodes("#{'a' is string}")).isNegated())
+      .isFalse();
+  }
+
   private void assertForExpression(
     AstNode astNode,
     String leftExpected,
@@ -0,0 +1,95 @@
+package com.hubspot.jinjava.el.ext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.BaseJinjavaTest;
+import com.hubspot.jinjava.interpret.RenderResult;
+import org.junit.Test;
+
+public class JinjavaBeanELResolverTest extends BaseJinjavaTest {
+
+  @Test
+  public void itReadsPropertiesByCamelAndSnakeCaseNames() {
+    assertThat(
+        jinjava.render(
+          "{{ bean.firstName }} {{ bean.first_name }} {{ bean.url }}",
+          ImmutableMap.of("bean", new Bean("Jane"))
+        )
+      )
+      .isEqualTo("Jane Jane http://example.com");
+  }
+
+  @Test
+  public void itDoesNotExposeRestrictedProperties() {
+    assertThat(
+        jinjava.render("{{ bean.class }}", ImmutableMap.of("bean", new Bean("Jane")))
+      )
+      .isEmpty();
+    assertThat(BeanAccessors.forClass(Bean.class).getGetter("class")).isEmpty();
+  }
+
+  @Test
+  public void itReadsPropertiesThroughPublicInterfaces() {
+    assertThat(
+        jinjava.render("{{ named.name }}", ImmutableMap.of("named", new HiddenNamed()))
+      )
+      .isEqualTo("hidden");
+  }
+
+  @Test
+  public void itReportsExceptionsThrownByGetters() {
+    RenderResult result = jinjava.renderForResult(
+      "{{ bean.broken }}",
+      ImmutableMap.of("bean", new Bean("Jane"))
+    );
+
+    assertThat(result.getOutput()).isEmpty();
+    assertThat(result.getErrors()).hasSize(1);
+    assertThat(result.getErrors().get(0).getMessage()).contains("broken getter");
+  }
+
+  @Test
+  public void itUnpacksBeanPropertiesInForLoops() {
+    assertThat(
+        jinjava.render(
+          "{% for first_name, url in beans %}{{ first_name }}:{{ url }} {% endfor %}",
+          ImmutableMap.of("beans", ImmutableList.of(new Bean("a"), new Bean("b")))
+        )
+      )
+      .isEqualTo("a:http://example.com b:http://example.com ");
+  }
+
+  public static class Bean {
+    private final String firstName;
+
+    public Bean(String firstName) {
+      this.firstName = firstName;
+    }
+
+    public String getFirstName() {
+      return firstName;
+    }
+
+    public String getUrl() {
+      return "http://example.com";
+    }
+
+    public String getBroken() {
+      throw new IllegalStateException("broken getter");
+    }
+  }
+
+  public interface Named {
+    String getName();
+  }
+
+  private static class HiddenNamed implements Named {
+
+    @Override
+    public String getName() {
+      return "hidden";
+    }
+  }
+}
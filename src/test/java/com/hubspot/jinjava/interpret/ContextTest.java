@@ -1,9 +1,17 @@
 package com.hubspot.jinjava.interpret;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.lib.filter.Filter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -65,4 +73,111 @@ public class ContextTest {
     assertThat(globalContext.getResolvedExpressions()).isEmpty();
     assertThat(globalContext.getResolvedValues()).isEmpty();
   }
+
+  @Test
+  public void itSharesTheGlobalContextSnapshotBetweenRenders() {
+    Jinjava jinjava = new Jinjava();
+
+    Context first = jinjava.renderForResult("{{ 1 }}", ImmutableMap.of()).getContext();
+    Context second = jinjava.renderForResult("{{ 2 }}", ImmutableMap.of()).getContext();
+
+    assertThat(first.getParent()).isSameAs(second.getParent());
+    assertThat(first.getParent().getResolvedExpressions()).isEmpty();
+  }
+
+  @Test
+  public void itKeepsWhatConcurrentRendersResolvedOnTheirOwnContexts() throws Exception {
+    Jinjava jinjava = new Jinjava();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<RenderResult>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        String name = "var" + (i % 10);
+        results.add(
+          executor.submit(
+            () ->
+              jinjava.renderForResult("{{ " + name + " }}", ImmutableMap.of(name, name))
+          )
+        );
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        RenderResult result = results.get(i).get();
+        assertThat(result.getOutput()).isEqualTo("var" + (i % 10));
+        assertThat(result.getContext().getResolvedValues())
+          .containsOnly("var" + (i % 10));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(jinjava.getGlobalContext().getResolvedValues()).isEmpty();
+    assertThat(jinjava.getGlobalContext().getResolvedExpressions()).isEmpty();
+  }
+
+  @Test
+  public void itRebuildsTheGlobalContextSnapshotWhenALibraryChanges() {
+    Jinjava jinjava = new Jinjava();
+    Context first = jinjava.renderForResult("{{ 1 }}", ImmutableMap.of()).getContext();
+
+    jinjava.getGlobalContext().registerFilter(new ReturnHelloFilter());
+    jinjava.getGlobalContext().put("name", "world");
+    RenderResult result = jinjava.renderForResult("{{ name|hello }}", ImmutableMap.of());
+
+    assertThat(result.getOutput()).isEqualTo("hello world");
+    assertThat(result.getContext().getParent()).isNotSameAs(first.getParent());
+  }
+
+  @Test
+  public void itDoesNotCreateMacroMapsWhenLookingUpGlobalMacros() {
+    Context child = new Context(context);
+
+    assertThat(child.getGlobalMacro("missing")).isNull();
+    assertThat(context.getSessionBindings()).isEmpty();
+  }
+
+  @Test
+  public void itRejectsLibraryEntriesDisabledInAChildScope() {
+    Context child = new Context(
+      context,
+      null,
+      ImmutableMap.of(Context.Library.FILTER, ImmutableSet.of("upper"))
+    );
+
+    assertThat(child.getFilter("lower")).isNotNull();
+    assertThatThrownBy(() -> child.getFilter("upper"))
+      .isInstanceOf(DisabledException.class);
+  }
+
+  @Test
+  public void itRegistersLibraryEntriesOnAChildScope() {
+    Context child = new Context(context);
+    child.registerFilter(new ReturnHelloFilter());
+
+    assertThat(child.getFilter("hello")).isInstanceOf(ReturnHelloFilter.class);
+    assertThat(context.getFilter("hello")).isNull();
+    assertThat(child.getAllFilters()).hasSize(context.getAllFilters().size() + 1);
+  }
+
+  @Test
+  public void itSeesCallStacksOfParentScopes() {
+    context.getCurrentPathStack().push("parent.jinja", 1, 1);
+    Context child = new Context(new Context(context));
+
+    assertThat(child.getCurrentPathStack().peek()).contains("parent.jinja");
+    assertThat(child.getDependencies().isEmpty()).isTrue();
+    assertThat(child.getResolvedValues()).isEmpty();
+  }
+
+  private static class ReturnHelloFilter implements Filter {
+
+    @Override
+    public Object filter(Object var, JinjavaInterpreter interpreter, String... args) {
+      return "hello " + var;
+    }
+
+    @Override
+    public String getName() {
+      return "hello";
+    }
+  }
 }
@@ -0,0 +1,53 @@
+package com.hubspot.jinjava.interpret;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hubspot.jinjava.BaseInterpretingTest;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.JinjavaConfig;
+import java.util.Optional;
+import org.junit.Test;
+
+public class ControlFlowExceptionTest extends BaseInterpretingTest {
+
+  @Test
+  public void itLeavesOutStackTracesWhileRendering() {
+    assertThat(new DeferredValueException("foo", 1, 2).getStackTrace()).isEmpty();
+    assertThat(
+        TagCycleException
+          .create(
+            IncludeTagCycleException.class,
+            "a.jinja",
+            Optional.of(1),
+            Optional.empty()
+          )
+          .getStackTrace()
+      )
+      .isEmpty();
+  }
+
+  @Test
+  public void itKeepsStackTracesWhenEnabled() {
+    Jinjava debugging = new Jinjava(
+      JinjavaConfig.newBuilder().withControlFlowStackTracesEnabled(true).build()
+    );
+    JinjavaInterpreter.pushCurrent(debugging.newInterpreter());
+    try {
+      assertThat(new DeferredValueException("foo", 1, 2).getStackTrace()).isNotEmpty();
+      assertThat(new ImportTagCycleException("a.jinja", 1, 2).getStackTrace())
+        .isNotEmpty();
+    } finally {
+      JinjavaInterpreter.popCurrent();
+    }
+  }
+
+  @Test
+  public void itKeepsStackTracesOutsideOfRendering() {
+    JinjavaInterpreter.popCurrent();
+    try {
+      assertThat(new DeferredValueException("foo").getStackTrace()).isNotEmpty();
+    } finally {
+      JinjavaInterpreter.pushCurrent(interpreter);
+    }
+  }
+}
@@ -1,18 +1,23 @@
 package com.hubspot.jinjava.interpret;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.Lists;
 import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.JinjavaConfig;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter.InterpreterScopeClosable;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
 import com.hubspot.jinjava.tree.TextNode;
 import com.hubspot.jinjava.tree.output.BlockInfo;
+import com.hubspot.jinjava.tree.output.OutputSizeUnit;
 import com.hubspot.jinjava.tree.parse.TextToken;
 import com.hubspot.jinjava.tree.parse.TokenScannerSymbols;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
@@ -224,6 +229,30 @@ public class JinjavaInterpreterTest {
     assertThat(renderResult.getOutput()).isEqualTo(" 0  1  2  ");
   }
 
+  @Test
+  public void itLimitsOutputSizeInConfiguredUnit() {
+    String output = "\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9";
+
+    RenderResult renderResult = new Jinjava(
+      JinjavaConfig.newBuilder().withMaxOutputSize(10).build()
+    )
+    .renderForResult(output, new HashMap<>());
+    assertThat(renderResult.getErrors().get(0).getMessage())
+      .contains("OutputTooBigException");
+
+    renderResult =
+      new Jinjava(
+        JinjavaConfig
+          .newBuilder()
+          .withMaxOutputSize(10)
+          .withOutputSizeUnit(OutputSizeUnit.CHARS)
+          .build()
+      )
+      .renderForResult(output, new HashMap<>());
+    assertThat(renderResult.getOutput()).isEqualTo(output);
+    assertThat(renderResult.hasErrors()).isFalse();
+  }
+
   @Test
   public void itLimitsOutputSizeWhenSumOfNodeSizesExceedsMax() {
     JinjavaConfig outputSizeLimitedConfig = JinjavaConfig
@@ -262,4 +291,122 @@ public class JinjavaInterpreterTest {
     assertThat(renderResult.getOutput()).isEqualTo(preservedOutput);
     assertThat(renderResult.hasErrors()).isFalse();
   }
+
+  @Test
+  public void itStreamsTopLevelNodesAsTheyAreRendered() throws Exception {
+    List<String> writes = new ArrayList<>();
+    interpreter.render(interpreter.parse("a{{ 'b' }}c"), new RecordingAppendable(writes));
+
+    assertThat(writes).containsExactly("a", "b", "c", "");
+  }
+
+  @Test
+  public void itHoldsBackStreamedOutputFollowingABlock() throws Exception {
+    List<String> writes = new ArrayList<>();
+    interpreter.render(
+      interpreter.parse("a{% block b %}b{% endblock %}c"),
+      new RecordingAppendable(writes)
+    );
+
+    assertThat(writes).containsExactly("a", "bc");
+  }
+
+  @Test
+  public void itStreamsTheSameOutputForExtendedTemplates() throws Exception {
+    String template =
+      "{% extends 'tags/extendstag/super-base.html' %}{% block sidebar %}side{% endblock %}";
+    StringBuilder out = new StringBuilder();
+    jinjava.render(template, new HashMap<>(), out);
+
+    assertThat(out.toString())
+      .contains("side")
+      .isEqualTo(jinjava.render(template, new HashMap<>()));
+  }
+
+  @Test
+  public void itStreamsTheChildrenOfForAndIfTagsAsTheyAreRendered() throws Exception {
+    List<String> writes = new ArrayList<>();
+    interpreter.render(
+      interpreter.parse(
+        "{% for i in [1, 2] %}{% if i > 1 %}b{{ i }}{% else %}a{% endif %}{% endfor %}"
+      ),
+      new RecordingAppendable(writes)
+    );
+
+    assertThat(writes).containsExactly("a", "b", "2", "");
+  }
+
+  @Test
+  public void itStreamsMacrosCalledOnTheirOwn() throws Exception {
+    JinjavaInterpreter interpreter = new Jinjava(
+      JinjavaConfig.newBuilder().withNestedInterpretationEnabled(false).build()
+    )
+    .newInterpreter();
+    interpreter.getContext().put("name", "x");
+    String template =
+      "{% macro m(n) %}<{{ n }}>{% for i in [1, 2] %}{{ i }}{% endfor %}{% endmacro %}" +
+      "{{ m(name) }}{{ m(name)|upper }}";
+
+    List<String> writes = new ArrayList<>();
+    JinjavaInterpreter.pushCurrent(interpreter);
+    try {
+      interpreter.render(interpreter.parse(template), new RecordingAppendable(writes));
+      assertThat(String.join("", writes)).isEqualTo(interpreter.render(template));
+    } finally {
+      JinjavaInterpreter.popCurrent();
+    }
+
+    assertThat(writes).containsExactly("", "<", "x", ">", "1", "2", "", "<X>12", "");
+  }
+
+  @Test
+  public void itRendersTagsInFullWhenValuesMayBeDeferred() throws Exception {
+    interpreter.getContext().put("deferred", DeferredValue.instance());
+    String template =
+      "{% for i in [1, 2] %}{{ i }}{% if i > 1 %}{{ deferred }}{% endif %}{% endfor %}";
+
+    List<String> writes = new ArrayList<>();
+    interpreter.render(interpreter.parse(template), new RecordingAppendable(writes));
+
+    assertThat(writes).containsExactly(template, "");
+    assertThat(interpreter.render(template)).isEqualTo(template);
+  }
+
+  @Test
+  public void itFailsOnBlocksNestedInTagsWhenStreaming() {
+    String template = "a{% if true %}{% block b %}b{% endblock %}{% endif %}c";
+
+    RenderResult result = jinjava.renderForResult(template, new HashMap<>());
+    assertThat(result.getErrors())
+      .extracting(TemplateError::getSeverity)
+      .containsExactly(ErrorType.FATAL);
+    assertThatThrownBy(
+        () -> jinjava.render(template, new HashMap<>(), new StringBuilder())
+      )
+      .isInstanceOf(FatalTemplateErrorsException.class);
+  }
+
+  private static class RecordingAppendable implements Appendable {
+    private final List<String> writes;
+
+    RecordingAppendable(List<String> writes) {
+      this.writes = writes;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) {
+      writes.add(csq.toString());
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      return append(csq.subSequence(start, end));
+    }
+
+    @Override
+    public Appendable append(char c) {
+      return append(String.valueOf(c));
+    }
+  }
 }
@@ -0,0 +1,159 @@
+package com.hubspot.jinjava.interpret;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.Jinjava;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.loader.ResourceLocator;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelRenderTest {
+  private static final Map<String, ?> BINDINGS = ImmutableMap.of(
+    "title",
+    "Hello",
+    "items",
+    ImmutableMap.of("a", 1, "b", 2)
+  );
+
+  private final Map<String, String> templates = new HashMap<>();
+  private final AtomicInteger tasks = new AtomicInteger();
+
+  private Jinjava sequential;
+  private Jinjava parallel;
+
+  @Before
+  public void setup() {
+    templates.put("header.jinja", "<h1>{{ title|upper }}</h1>");
+    templates.put(
+      "list.jinja",
+      "{% for k, v in items.items() %}{{ k }}={{ v }}{% endfor %}"
+    );
+    templates.put("footer.jinja", "{% include 'copyright.jinja' %}");
+    templates.put(
+      "copyright.jinja",
+      "(c) {% for i in range(3) %}{{ i }}{% if not loop.last %},{% endif %}{% endfor %}"
+    );
+    templates.put("broken.jinja", "\n{{ 2|divide(0) }}");
+    templates.put("sets.jinja", "{% set title = 'Changed' %}");
+    templates.put(
+      "base.jinja",
+      "{% block one %}1{% endblock %}|{% block two %}2{% endblock %}|{% block three %}3{% endblock %}"
+    );
+
+    sequential = newJinjava(JinjavaConfig.newBuilder().build());
+    Executor executor = command -> {
+      tasks.incrementAndGet();
+      ForkJoinPool.commonPool().execute(command);
+    };
+    parallel =
+      newJinjava(JinjavaConfig.newBuilder().withParallelRenderExecutor(executor).build());
+  }
+
+  @Test
+  public void itRendersIndependentIncludesConcurrently() {
+    RenderResult result = renderBoth(
+      "{% include 'header.jinja' %}\n{% include 'list.jinja' %}\n{% include 'footer.jinja' %}"
+    );
+
+    assertThat(result.getOutput()).isEqualTo("<h1>HELLO</h1>\na=1b=2\n(c) 0,1,2");
+    assertThat(tasks.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void itKeepsErrorsAndDependenciesInTemplateOrder() {
+    String template =
+      "{{ 1|divide(0) }}{% include 'broken.jinja' %}{% include 'header.jinja' %}{{ 3|divide(0) }}";
+    RenderResult result = renderBoth(template);
+
+    assertThat(tasks.get()).isEqualTo(2);
+    assertThat(describe(result.getErrors()))
+      .containsExactly("1|divide(0):1:", "2|divide(0):1:broken.jinja", "3|divide(0):1:")
+      .isEqualTo(describe(sequential.renderForResult(template, BINDINGS).getErrors()));
+    assertThat(result.getContext().getDependencies().get("coded_files"))
+      .containsExactlyInAnyOrder("broken.jinja", "header.jinja");
+  }
+
+  @Test
+  public void itRendersIncludesWhichSetVariablesInOrder() {
+    RenderResult result = renderBoth(
+      "{% include 'header.jinja' %}{% include 'sets.jinja' %}{% include 'header.jinja' %}"
+    );
+
+    assertThat(result.getOutput()).isEqualTo("<h1>HELLO</h1><h1>CHANGED</h1>");
+    assertThat(tasks.get()).isZero();
+  }
+
+  @Test
+  public void itResolvesIndependentBlocksConcurrently() {
+    RenderResult result = renderBoth(
+      "{% extends 'base.jinja' %}{% block one %}{{ title }}{% endblock %}{% block three %}{% include 'header.jinja' %}{% endblock %}"
+    );
+
+    assertThat(result.getOutput()).isEqualTo("Hello|2|<h1>HELLO</h1>");
+    assertThat(tasks.get()).isEqualTo(3);
+  }
+
+  private RenderResult renderBoth(String template) {
+    // the first render parses the included templates, which can then be analysed
+    parallel.renderForResult(template, BINDINGS);
+    tasks.set(0);
+
+    RenderResult result = parallel.renderForResult(template, BINDINGS);
+    assertThat(result.getOutput())
+      .isEqualTo(sequential.renderForResult(template, BINDINGS).getOutput());
+    return result;
+  }
+
+  private static List<String> describe(List<TemplateError> errors) {
+    return errors
+      .stream()
+      .map(
+        e ->
+          e.getFieldName() + ":" + e.getLineno() + ":" + e.getSourceTemplate().orElse("")
+      )
+      .collect(Collectors.toList());
+  }
+
+  private Jinjava newJinjava(JinjavaConfig config) {
+    Jinjava jinjava = new Jinjava(config);
+    jinjava.setResourceLocator(
+      new ResourceLocator() {
+
+        @Override
+        public String getString(
+          String fullName,
+          Charset encoding,
+          JinjavaInterpreter interpreter
+        )
+          throws IOException {
+          String template = templates.get(fullName);
+          if (template == null) {
+            throw new IOException("No template " + fullName);
+          }
+          return template;
+        }
+
+        @Override
+        public Optional<String> getVersion(
+          String fullName,
+          JinjavaInterpreter interpreter
+        ) {
+          return Optional.of("1");
+        }
+      }
+    );
+    return jinjava;
+  }
+}
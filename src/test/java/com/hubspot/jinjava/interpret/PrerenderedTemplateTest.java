@@ -0,0 +1,87 @@
+package com.hubspot.jinjava.interpret;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.BaseJinjavaTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+
+public class PrerenderedTemplateTest extends BaseJinjavaTest {
+  private static final String TEMPLATE =
+    "{% set name = 'World' %}Hello {{ name }}! " +
+    "{% if deferred %}{{ name|upper }}{% else %}nobody{% endif %} bye";
+
+  @Test
+  public void itRendersOnlyTheDeferredParts() {
+    PrerenderedTemplate prerendered = jinjava.prerender(
+      TEMPLATE,
+      ImmutableMap.of("deferred", DeferredValue.instance())
+    );
+
+    assertThat(prerendered.isFullyRendered()).isFalse();
+    assertThat(prerendered.getImage())
+      .isEqualTo(
+        "Hello World! {% if deferred %}{{ name|upper }}{% else %}nobody{% endif %} bye"
+      );
+    assertThat(prerendered.getBindings()).containsEntry("name", "World");
+
+    assertThat(jinjava.render(prerendered, ImmutableMap.of("deferred", true)))
+      .isEqualTo("Hello World! WORLD bye");
+    assertThat(jinjava.render(prerendered, ImmutableMap.of("deferred", false)))
+      .isEqualTo("Hello World! nobody bye");
+  }
+
+  @Test
+  public void itPrefersBindingsOfTheSecondPass() {
+    PrerenderedTemplate prerendered = jinjava.prerender(
+      TEMPLATE,
+      ImmutableMap.of("deferred", DeferredValue.instance())
+    );
+
+    assertThat(
+        jinjava.render(prerendered, ImmutableMap.of("deferred", true, "name", "you"))
+      )
+      .isEqualTo("Hello World! YOU bye");
+  }
+
+  @Test
+  public void itIsFullyRenderedWithoutDeferredValues() {
+    PrerenderedTemplate prerendered = jinjava.prerender(
+      TEMPLATE,
+      ImmutableMap.of("deferred", true)
+    );
+
+    assertThat(prerendered.isFullyRendered()).isTrue();
+    assertThat(prerendered.getBindings()).isEmpty();
+    assertThat(jinjava.render(prerendered, ImmutableMap.of()))
+      .isEqualTo("Hello World! WORLD bye");
+  }
+
+  @Test
+  public void itSurvivesSerialization() throws Exception {
+    PrerenderedTemplate prerendered = jinjava.prerender(
+      TEMPLATE,
+      ImmutableMap.of("deferred", DeferredValue.instance())
+    );
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(prerendered);
+    }
+    PrerenderedTemplate copy;
+    try (
+      ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())
+      )
+    ) {
+      copy = (PrerenderedTemplate) in.readObject();
+    }
+
+    assertThat(jinjava.render(copy, ImmutableMap.of("deferred", true)))
+      .isEqualTo("Hello World! WORLD bye");
+  }
+}
@@ -0,0 +1,125 @@
+package com.hubspot.jinjava.interpret.profile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.BaseJinjavaTest;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.RenderResult;
+import com.hubspot.jinjava.loader.ResourceLocator;
+import java.nio.charset.Charset;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RenderProfileTest extends BaseJinjavaTest {
+  private static final Map<String, String> TEMPLATES = ImmutableMap.of(
+    "partial.jinja",
+    "{% for item in items %}{{ item|upper }}{% endfor %}"
+  );
+
+  private JinjavaConfig config;
+
+  @Before
+  public void setup() {
+    config = JinjavaConfig.newBuilder().withProfilingEnabled(true).build();
+    jinjava.setResourceLocator(
+      new ResourceLocator() {
+
+        @Override
+        public String getString(
+          String fullName,
+          Charset encoding,
+          JinjavaInterpreter interpreter
+        ) {
+          return TEMPLATES.get(fullName);
+        }
+      }
+    );
+  }
+
+  @Test
+  public void itDoesNotProfileByDefault() {
+    RenderResult result = jinjava.renderForResult("{{ 'a'|upper }}", ImmutableMap.of());
+
+    assertThat(result.getOutput()).isEqualTo("A");
+    assertThat(result.getProfile()).isEmpty();
+  }
+
+  @Test
+  public void itAggregatesTagsFiltersAndExpressions() {
+    RenderResult result = jinjava.renderForResult(
+      "{% for item in items %}\n{{ item|upper }}{% endfor %}",
+      ImmutableMap.of("items", ImmutableList.of("a", "b", "c")),
+      config
+    );
+
+    assertThat(result.getOutput()).isEqualTo("\nA\nB\nC");
+    ProfileNode forTag = result.getProfile().get().getRoot().getChildren().get(0);
+    assertThat(forTag.getKind()).isEqualTo(ProfileKind.TAG);
+    assertThat(forTag.getName()).isEqualTo("for");
+    assertThat(forTag.getCount()).isEqualTo(1);
+    assertThat(forTag.getOutputSize()).isEqualTo(6);
+
+    ProfileNode expression = forTag.getChildren().get(0);
+    assertThat(expression.getKind()).isEqualTo(ProfileKind.EXPRESSION);
+    assertThat(expression.getLineNumber()).isEqualTo(2);
+    assertThat(expression.getCount()).isEqualTo(3);
+    assertThat(expression.getOutputSize()).isEqualTo(3);
+
+    ProfileNode filter = expression.getChildren().get(0);
+    assertThat(filter.getKind()).isEqualTo(ProfileKind.FILTER);
+    assertThat(filter.getName()).isEqualTo("upper");
+    assertThat(filter.getCount()).isEqualTo(3);
+    assertThat(forTag.getTotalNanos())
+      .isGreaterThanOrEqualTo(expression.getTotalNanos())
+      .isGreaterThanOrEqualTo(filter.getTotalNanos());
+  }
+
+  @Test
+  public void itRecordsTemplatePathsOfIncludes() {
+    RenderResult result = jinjava.renderForResult(
+      "{% include 'partial.jinja' %}",
+      ImmutableMap.of("items", ImmutableList.of("a", "b")),
+      config
+    );
+
+    assertThat(result.getOutput()).isEqualTo("AB");
+    ProfileNode include = result.getProfile().get().getRoot().getChildren().get(0);
+    assertThat(include.getName()).isEqualTo("include");
+    assertThat(include.getTemplate()).isEmpty();
+
+    ProfileNode forTag = include.getChildren().get(0);
+    assertThat(forTag.getName()).isEqualTo("for");
+    assertThat(forTag.getTemplate()).isEqualTo("partial.jinja");
+    assertThat(result.getProfile().get().dump())
+      .contains("TAG include (:1) count=1")
+      .contains("  TAG for (partial.jinja:1) count=1");
+  }
+
+  @Test
+  public void itProfilesMacroCalls() {
+    RenderResult result = jinjava.renderForResult(
+      "{% macro greet(name) %}hi {{ name }}{% endmacro %}{{ greet('a') }}{{ greet('b') }}",
+      ImmutableMap.of(),
+      config
+    );
+
+    assertThat(result.getOutput()).isEqualTo("hi ahi b");
+    ProfileNode macro = result
+      .getProfile()
+      .get()
+      .getRoot()
+      .getChildren()
+      .stream()
+      .flatMap(node -> node.getChildren().stream())
+      .filter(node -> node.getKind() == ProfileKind.MACRO)
+      .findFirst()
+      .get();
+    assertThat(macro.getName()).isEqualTo("greet");
+    assertThat(macro.getCount()).isEqualTo(1);
+    assertThat(macro.getOutputSize()).isEqualTo(4);
+  }
+}
@@ -260,7 +260,7 @@ public class ForTagTest extends BaseInterpretingTest {
       )
         .buildTree()
         .getChildren()
-        .getFirst();
+        .get(0);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -112,7 +112,7 @@ public class IfTagTest extends BaseInterpretingTest {
       )
         .buildTree()
         .getChildren()
-        .getFirst();
+        .get(0);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -344,7 +344,7 @@ public class MacroTagTest extends BaseInterpretingTest {
   }
 
   private Node snippet(String jinja) {
-    return new TreeParser(interpreter, jinja).buildTree().getChildren().getFirst();
+    return new TreeParser(interpreter, jinja).buildTree().getChildren().get(0);
   }
 
   private String fixtureText(String name) {
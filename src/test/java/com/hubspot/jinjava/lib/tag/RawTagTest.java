@@ -12,7 +12,6 @@ import com.hubspot.jinjava.tree.TagNode;
 import com.hubspot.jinjava.tree.TreeParser;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
@@ -149,14 +148,14 @@ public class RawTagTest extends BaseInterpretingTest {
       (TagNode) new TreeParser(preserveInterpreter, preservedResult)
         .buildTree()
         .getChildren()
-        .getFirst(),
+        .get(0),
       preserveInterpreter
     );
     String secondPass = tag.interpret(
       (TagNode) new TreeParser(interpreter, preservedResult)
         .buildTree()
         .getChildren()
-        .getFirst(),
+        .get(0),
       interpreter
     );
 
@@ -165,10 +164,10 @@ public class RawTagTest extends BaseInterpretingTest {
   }
 
   private TagNode fixture(String name) {
-    return (TagNode) fixtures(name).getFirst();
+    return (TagNode) fixtures(name).get(0);
   }
 
-  private LinkedList<Node> fixtures(String name) {
+  private List<Node> fixtures(String name) {
     try {
       return new TreeParser(
         interpreter,
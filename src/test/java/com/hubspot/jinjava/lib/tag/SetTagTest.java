@@ -242,7 +242,7 @@ public class SetTagTest extends BaseInterpretingTest {
       )
         .buildTree()
         .getChildren()
-        .getFirst();
+        .get(0);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -44,7 +44,7 @@ public class UnlessTagTest extends BaseInterpretingTest {
       )
         .buildTree()
         .getChildren()
-        .getFirst();
+        .get(0);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
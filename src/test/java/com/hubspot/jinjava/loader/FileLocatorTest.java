@@ -9,6 +9,7 @@ import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -82,6 +83,38 @@ public class FileLocatorTest extends BaseInterpretingTest {
       .isEqualTo("first");
   }
 
+  @Test
+  public void itVersionsFilesByTheirContents() throws Exception {
+    String version = locatorTmpDir.getVersion("foo/first.jinja", interpreter).get();
+    long lastModified = first.lastModified();
+
+    Files.write("fir$t", first, StandardCharsets.UTF_8);
+    first.setLastModified(lastModified);
+
+    assertThat(locatorTmpDir.getVersion("foo/first.jinja", interpreter))
+      .isPresent()
+      .isNotEqualTo(Optional.of(version));
+    assertThat(locatorTmpDir.getVersion("foo/missing.jinja", interpreter)).isEmpty();
+  }
+
+  @Test
+  public void itOnlyHashesSettledFilesAgainWhenTheirTimestampOrLengthChanges()
+    throws Exception {
+    long lastModified = System.currentTimeMillis() - 60_000;
+    first.setLastModified(lastModified);
+    String version = locatorTmpDir.getVersion("foo/first.jinja", interpreter).get();
+
+    Files.write("fir$t", first, StandardCharsets.UTF_8);
+    first.setLastModified(lastModified);
+    assertThat(locatorTmpDir.getVersion("foo/first.jinja", interpreter))
+      .contains(version);
+
+    first.setLastModified(lastModified + 1000);
+    assertThat(locatorTmpDir.getVersion("foo/first.jinja", interpreter))
+      .isPresent()
+      .isNotEqualTo(Optional.of(version));
+  }
+
   @Test(expected = FileNotFoundException.class)
   public void testInvalidBaseDir() throws Exception {
     new FileLocator(new File("/blarghhh"));
@@ -10,6 +10,8 @@ import com.hubspot.jinjava.JinjavaConfig;
 import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.interpret.UnknownTokenException;
+import com.hubspot.jinjava.tree.parse.ExpressionToken;
+import de.odysseus.el.tree.Tree;
 import java.nio.charset.StandardCharsets;
 import org.junit.Test;
 
@@ -191,6 +193,45 @@ public class ExpressionNodeTest extends BaseInterpretingTest {
     assertThat(val("{{ a }}")).isEqualTo("foo &lt; bar");
   }
 
+  @Test
+  public void itReusesTheExpressionTreeAcrossRenders() throws Exception {
+    ExpressionNode node = parse("{{ a + 1 }}");
+    String expression = ((ExpressionToken) node.getMaster()).getExpr();
+
+    context.put("a", 1);
+    assertThat(node.render(interpreter).getValue()).isEqualTo("2");
+    Tree tree = node.getExpressionTree(
+      expression,
+      e -> {
+        throw new AssertionError("tree should already have been built");
+      }
+    );
+
+    context.put("a", 2);
+    assertThat(node.render(interpreter).getValue()).isEqualTo("3");
+    assertThat(node.getExpressionTree(expression, e -> null)).isSameAs(tree);
+  }
+
+  @Test
+  public void itReusesExpressionTreesBeyondThoseStoredOnTheNode() throws Exception {
+    ExpressionNode node = parse("{{ a }}");
+    for (int i = 0; i < 20; i++) {
+      interpreter.getExpressionTree("a + " + i, node);
+    }
+
+    assertThat(interpreter.getExpressionTree("a + 19", node))
+      .isSameAs(interpreter.getExpressionTree("a + 19", node));
+  }
+
+  @Test
+  public void itBindsCachedExpressionTreesToMacrosDefinedLater() throws Exception {
+    ExpressionNode node = parse("{{ greet('bob') }}");
+    node.render(interpreter);
+
+    interpreter.render("{% macro greet(name) %}hi {{ name }}{% endmacro %}");
+    assertThat(node.render(interpreter).getValue()).isEqualTo("hi bob");
+  }
+
   private String val(String jinja) {
     return parse(jinja).render(interpreter).getValue();
   }
@@ -199,7 +240,7 @@ public class ExpressionNodeTest extends BaseInterpretingTest {
     return (ExpressionNode) new TreeParser(interpreter, jinja)
       .buildTree()
       .getChildren()
-      .getFirst();
+      .get(0);
   }
 
   private ExpressionNode fixture(String name) {
@@ -0,0 +1,125 @@
+package com.hubspot.jinjava.tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hubspot.jinjava.BaseInterpretingTest;
+import org.junit.Test;
+
+public class TreeAnalyzerTest extends BaseInterpretingTest {
+
+  @Test
+  public void itTreatsTextAndLiteralExpressionsAsConstant() {
+    NodeAnalysis analysis = analyze("hello {{ 'world'|upper }}");
+
+    assertThat(analysis.isPure()).isTrue();
+    assertThat(analysis.isConstant()).isTrue();
+    assertThat(analysis.getVariablesRead()).isEmpty();
+  }
+
+  @Test
+  public void itCollectsTopLevelNamesRead() {
+    NodeAnalysis analysis = analyze(
+      "{{ user.name|default(fallback) }}{% if items is defined %}{{ items.values()|length }}{% endif %}"
+    );
+
+    assertThat(analysis.isPure()).isTrue();
+    assertThat(analysis.isConstant()).isFalse();
+    assertThat(analysis.getVariablesRead())
+      .containsExactlyInAnyOrder("user", "fallback", "items");
+  }
+
+  @Test
+  public void itExcludesLoopVariablesFromNamesRead() {
+    NodeAnalysis analysis = analyze(
+      "{% for k, v in pairs %}{{ loop.index }}{{ k }}={{ v }}{{ sep }}{% endfor %}"
+    );
+
+    assertThat(analysis.isPure()).isTrue();
+    assertThat(analysis.getVariablesRead()).containsExactlyInAnyOrder("pairs", "sep");
+    assertThat(analyze("{% for i in range(3) %}{{ i }}{% endfor %}").isConstant())
+      .isTrue();
+  }
+
+  @Test
+  public void itTreatsImpureCallsAsImpure() {
+    assertThat(analyze("{{ items|random }}").isPure()).isFalse();
+    assertThat(analyze("{{ list.append(1) }}").isPure()).isFalse();
+    assertThat(analyze("{{ some_macro() }}").isPure()).isFalse();
+    assertThat(analyze("{% do list.append(1) %}").isPure()).isFalse();
+    assertThat(analyze("{{ foo( }}").isPure()).isFalse();
+  }
+
+  @Test
+  public void itCollectsVariablesWritten() {
+    NodeAnalysis analysis = analyze(
+      "{% set a, b = x, y %}{% set c.d = 1 %}{% from 'macros.jinja' import one, two as three %}{% import 'lib.jinja' as lib %}{% macro greet(name, greeting='hi') %}{{ greeting }} {{ name }}{{ other }}{% endmacro %}"
+    );
+
+    assertThat(analysis.isPure()).isFalse();
+    assertThat(analysis.getVariablesWritten())
+      .containsExactlyInAnyOrder("a", "b", "c", "one", "three", "lib", "greet");
+    assertThat(analysis.getVariablesRead()).containsExactlyInAnyOrder("x", "y", "other");
+    assertThat(analysis.getResources()).containsExactly("macros.jinja", "lib.jinja");
+  }
+
+  @Test
+  public void itKeepsLiteralIncludesPure() {
+    NodeAnalysis analysis = analyze(
+      "{% include 'header.jinja' %}{% include \"footer.jinja\" %}"
+    );
+
+    assertThat(analysis.isPure()).isTrue();
+    assertThat(analysis.isConstant()).isFalse();
+    assertThat(analysis.getResources()).containsExactly("header.jinja", "footer.jinja");
+    assertThat(analyze("{% include path %}").isPure()).isFalse();
+  }
+
+  @Test
+  public void itCollectsNamesReadByTagsWithTheirOwnHelperSyntax() {
+    NodeAnalysis analysis = analyze(
+      "{% cycle first,second as pair %}{% ifchanged current %}x{% endifchanged %}" +
+      "{% autoescape escaping %}y{% endautoescape %}{% call wrapper(arg) %}z{% endcall %}" +
+      "{% include path %}{% import lib_path as lib %}{% from from_path import one %}"
+    );
+
+    assertThat(analysis.isPure()).isFalse();
+    assertThat(analysis.getVariablesRead())
+      .containsExactlyInAnyOrder(
+        "first",
+        "second",
+        "current",
+        "escaping",
+        "arg",
+        "path",
+        "lib_path",
+        "from_path"
+      );
+    assertThat(analysis.getVariablesWritten())
+      .containsExactlyInAnyOrder("pair", "lib", "one");
+  }
+
+  @Test
+  public void itRecordsWhetherATreeExtendsAnother() {
+    assertThat(analyze("{% if a %}{% extends 'base.jinja' %}{% endif %}").isExtending())
+      .isTrue();
+    assertThat(analyze("{% include 'base.jinja' %}{{ a }}").isExtending()).isFalse();
+    assertThat(NodeAnalysis.UNKNOWN.isExtending()).isTrue();
+  }
+
+  @Test
+  public void itAnnotatesEveryNode() {
+    Node root = new TreeParser(interpreter, "{% if a %}{% set b = 1 %}{% endif %}{{ c }}")
+    .buildTree();
+
+    Node ifNode = root.getChildren().get(0);
+    assertThat(ifNode.getAnalysis().isPure()).isFalse();
+    assertThat(ifNode.getChildren().get(0).getAnalysis().getVariablesWritten())
+      .containsExactly("b");
+    assertThat(root.getChildren().get(1).getAnalysis().getVariablesRead())
+      .containsExactly("c");
+  }
+
+  private NodeAnalysis analyze(String template) {
+    return new TreeParser(interpreter, template).buildTree().getAnalysis();
+  }
+}
@@ -0,0 +1,209 @@
+package com.hubspot.jinjava.tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.hubspot.jinjava.BaseInterpretingTest;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context.Library;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.RenderResult;
+import com.hubspot.jinjava.interpret.TemplateError;
+import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
+import com.hubspot.jinjava.lib.filter.Filter;
+import com.hubspot.jinjava.lib.filter.ReverseFilter;
+import com.hubspot.jinjava.lib.tag.MacroTag;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class TreeOptimizerTest extends BaseInterpretingTest {
+
+  @Test
+  public void itMergesAdjacentTextNodes() {
+    Node root = parse("one {# comment #}two {# another #}three{{ x }}four");
+
+    assertThat(root.getChildren()).hasSize(3);
+    assertThat(root.getChildren().get(0)).isInstanceOf(TextNode.class);
+    assertThat(root.getChildren().get(0).render(interpreter).getValue())
+      .isEqualTo("one two three");
+    assertThat(root.getChildren().get(0).getAnalysis().isConstant()).isTrue();
+    assertThat(interpreter.render(root)).isEqualTo("one two threefour");
+  }
+
+  @Test
+  public void itFoldsConstantExpressions() {
+    Node root = parse("{{ 'hello'|upper }}{% if 1 > 2 %}no{% endif %}{{ name|upper }}");
+
+    assertThat(root.getChildren().get(0).getConstantValue("'hello'|upper", interpreter))
+      .isEqualTo("HELLO");
+    TagNode ifNode = (TagNode) root.getChildren().get(1);
+    assertThat(ifNode.getConstantValue(ifNode.getHelpers(), interpreter))
+      .isEqualTo(false);
+    assertThat(root.getChildren().get(2).getConstantValue("name|upper", interpreter))
+      .isNull();
+
+    context.put("name", "world");
+    assertThat(interpreter.render(root)).isEqualTo("HELLOWORLD");
+    assertThat(context.wasExpressionResolved("'hello'|upper")).isTrue();
+  }
+
+  @Test
+  public void itFoldsMacroDefaultArguments() {
+    TagNode macro = (TagNode) parse(
+        "{% macro greet(name, greeting='hi'|upper, tags=[1, 2]) %}{{ greeting }} {{ name }}{% endmacro %}"
+      )
+      .getChildren()
+      .get(0);
+
+    assertThat(macro.getTag()).isInstanceOf(MacroTag.class);
+    assertThat(macro.getConstantValue("'hi'|upper", interpreter)).isEqualTo("HI");
+    assertThat(macro.getConstantValue("[1, 2]", interpreter)).isNull();
+  }
+
+  @Test
+  public void itLeavesMutableValuesAndErrorsToTheRender() {
+    Node root = parse("{% set items = [1, 2] %}{% do items.append(3) %}{{ items }}");
+    assertThat(root.getChildren().get(0).getConstantValue(" [1, 2]", interpreter))
+      .isNull();
+    assertThat(interpreter.render(root)).isEqualTo("[1, 2, 3]");
+
+    root = parse("{{ 1|divide(0) }}");
+    assertThat(root.getChildren().get(0).getConstantValue("1|divide(0)", interpreter))
+      .isNull();
+    assertThat(interpreter.getErrorsCopy()).isEmpty();
+    interpreter.render(root);
+    assertThat(interpreter.getErrorsCopy()).hasSize(1);
+  }
+
+  @Test
+  public void itStillEscapesFoldedOutput() {
+    Node root = parse("{% autoescape %}{{ '<b>' }}{% endautoescape %}{{ '<b>' }}");
+
+    assertThat(interpreter.render(root)).isEqualTo("&lt;b&gt;<b>");
+  }
+
+  @Test
+  public void itOnlyUsesFoldedValuesWithTheLibrariesAndConfigTheyWereFoldedWith() {
+    String template = "{{ 'abc'|upper }}{{ 3 is odd }}";
+    Map<Library, Set<String>> disabled = ImmutableMap.of(
+      Library.FILTER,
+      ImmutableSet.of("upper"),
+      Library.EXP_TEST,
+      ImmutableSet.of("odd")
+    );
+
+    // renders nested in another render use its config
+    JinjavaInterpreter.popCurrent();
+    try {
+      assertThat(jinjava.render(template, new HashMap<>())).isEqualTo("ABCtrue");
+
+      RenderResult result = jinjava.renderForResult(
+        template,
+        new HashMap<>(),
+        JinjavaConfig.newBuilder().withDisabled(disabled).build()
+      );
+      assertThat(result.getOutput()).isEmpty();
+      assertThat(result.getErrors())
+        .extracting(TemplateError::getReason)
+        .containsExactly(ErrorReason.DISABLED, ErrorReason.DISABLED);
+
+      jinjava
+        .getGlobalContext()
+        .registerFilter(
+          new ReverseFilter() {
+
+            @Override
+            public String getName() {
+              return "upper";
+            }
+          }
+        );
+      assertThat(jinjava.render(template, new HashMap<>())).isEqualTo("cbatrue");
+    } finally {
+      JinjavaInterpreter.pushCurrent(interpreter);
+    }
+  }
+
+  @Test
+  public void itLeavesFiltersWhichRenderTheirInputToTheRender() {
+    JinjavaInterpreter.popCurrent();
+    try {
+      String template = "{{ '{{ foo }}'|striptags }}";
+      assertThat(jinjava.render(template, ImmutableMap.of("foo", "alice")))
+        .isEqualTo("alice");
+      assertThat(jinjava.render(template, ImmutableMap.of("foo", "bob")))
+        .isEqualTo("bob");
+
+      assertThat(
+          jinjava.render(
+            "{% set x = 'v' %}{{ '<b>{{ x }}</b>'|striptags }}",
+            new HashMap<>()
+          )
+        )
+        .isEqualTo("v");
+    } finally {
+      JinjavaInterpreter.pushCurrent(interpreter);
+    }
+  }
+
+  @Test
+  public void itFoldsWithoutTheValuesOfTheRenderBuildingTheTree() {
+    jinjava
+      .getGlobalContext()
+      .registerFilter(
+        new Filter() {
+
+          @Override
+          public Object filter(
+            Object var,
+            JinjavaInterpreter interpreter,
+            String... args
+          ) {
+            return interpreter.getContext().get("secret");
+          }
+
+          @Override
+          public String getName() {
+            return "leaky";
+          }
+
+          @Override
+          public boolean isPure() {
+            return true;
+          }
+        }
+      );
+
+    JinjavaInterpreter.popCurrent();
+    try {
+      String template = "{{ 'x'|leaky }}";
+      assertThat(jinjava.render(template, ImmutableMap.of("secret", "alice")))
+        .isEqualTo("alice");
+      assertThat(jinjava.render(template, ImmutableMap.of("secret", "bob")))
+        .isEqualTo("bob");
+    } finally {
+      JinjavaInterpreter.pushCurrent(interpreter);
+    }
+  }
+
+  @Test
+  public void itRecordsWhatFoldedExpressionsResolved() {
+    String template = "{{ 'abc'|upper }}";
+    jinjava.render(template, new HashMap<>());
+
+    assertThat(
+        jinjava
+          .renderForResult(template, new HashMap<>())
+          .getContext()
+          .getResolvedValues()
+      )
+      .contains("filter:upper", "filter");
+  }
+
+  private Node parse(String template) {
+    return new TreeParser(interpreter, template).buildTree();
+  }
+}
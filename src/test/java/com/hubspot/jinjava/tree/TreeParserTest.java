@@ -1,12 +1,18 @@
 package com.hubspot.jinjava.tree;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 import com.google.common.io.Resources;
 import com.hubspot.jinjava.BaseInterpretingTest;
 import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.JinjavaConfig;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.interpret.TemplateSyntaxException;
+import com.hubspot.jinjava.lib.tag.CycleTag;
+import com.hubspot.jinjava.lib.tag.ForTag;
+import com.hubspot.jinjava.lib.tag.FromTag;
 import java.nio.charset.StandardCharsets;
 import org.junit.Test;
 
@@ -138,6 +144,55 @@ public class TreeParserTest extends BaseInterpretingTest {
     assertThat(interpreter.getErrors().get(1).getLineno()).isEqualTo(1);
   }
 
+  @Test
+  public void itFreezesChildrenOfParsedTrees() {
+    Node tree = new TreeParser(interpreter, "a{% if true %}b{{ c }}{% endif %}")
+    .buildTree();
+
+    assertThat(tree.getChildren()).hasSize(2);
+    assertThat(tree.getChildren().get(1).getChildren()).hasSize(2);
+    assertThatThrownBy(() -> tree.getChildren().add(tree.getChildren().get(0)))
+      .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> tree.getChildren().get(1).getChildren().clear())
+      .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void itParsesTagHelpersWhenBuildingTheTree() {
+    Node tree = new TreeParser(
+      interpreter,
+      "{% for k, v in pairs %}{% cycle 'a','b' %}{% endfor %}{% from 'macros.jinja' import one, two as three %}"
+    )
+    .buildTree();
+
+    TagNode forNode = (TagNode) tree.getChildren().get(0);
+    ForTag.Helpers forHelpers = forNode.getDescriptor(ForTag.Helpers.class);
+    assertThat(forHelpers.getLoopVars()).containsExactly("k", "v");
+    assertThat(forHelpers.getLoopExpression()).isEqualTo("pairs");
+    assertThat(forNode.getDescriptor(ForTag.Helpers.class)).isSameAs(forHelpers);
+
+    CycleTag.Helpers cycleHelpers =
+      ((TagNode) forNode.getChildren().get(0)).getDescriptor(CycleTag.Helpers.class);
+    assertThat(cycleHelpers.getValues()).containsExactly("'a'", "'b'");
+    assertThat(cycleHelpers.getVar()).isEmpty();
+
+    FromTag.Helpers fromHelpers =
+      ((TagNode) tree.getChildren().get(1)).getDescriptor(FromTag.Helpers.class);
+    assertThat(fromHelpers.getPath().getLiteral()).contains("macros.jinja");
+    assertThat(fromHelpers.getImports())
+      .containsExactly(entry("one", "one"), entry("two", "three"));
+  }
+
+  @Test
+  public void itReportsInvalidTagHelpersWhenRendering() {
+    Node tree = new TreeParser(interpreter, "{% for x %}{% endfor %}").buildTree();
+
+    assertThat(interpreter.getErrorsCopy()).isEmpty();
+    assertThatThrownBy(() -> interpreter.render(tree))
+      .isInstanceOf(TemplateSyntaxException.class)
+      .hasMessageContaining("Tag 'for' expects valid 'in' clause");
+  }
+
   Node parse(String fixture) {
     try {
       return new TreeParser(
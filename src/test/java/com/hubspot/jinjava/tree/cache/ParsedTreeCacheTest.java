@@ -0,0 +1,187 @@
+package com.hubspot.jinjava.tree.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.hubspot.jinjava.BaseJinjavaTest;
+import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.interpret.RenderResult;
+import com.hubspot.jinjava.lib.tag.Tag;
+import com.hubspot.jinjava.loader.ResourceLocator;
+import com.hubspot.jinjava.tree.TagNode;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+
+public class ParsedTreeCacheTest extends BaseJinjavaTest {
+
+  @Test
+  public void itReusesTheParsedTreeForTheSameTemplate() {
+    String template = "{% for i in items %}{{ i }}{% endfor %}";
+
+    assertThat(jinjava.render(template, ImmutableMap.of("items", ImmutableList.of(1, 2))))
+      .isEqualTo("12");
+    assertThat(jinjava.render(template, ImmutableMap.of("items", ImmutableList.of(3))))
+      .isEqualTo("3");
+
+    assertThat(jinjava.getParsedTreeCache().getStats().missCount()).isEqualTo(1);
+    assertThat(jinjava.getParsedTreeCache().getStats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void itDoesNotShareTreesAcrossParseSettings() {
+    String template = "{% if true %}\nfoo{% endif %}";
+
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("\nfoo");
+    assertThat(
+        jinjava
+          .renderForResult(
+            template,
+            ImmutableMap.of(),
+            JinjavaConfig.newBuilder().withTrimBlocks(true).build()
+          )
+          .getOutput()
+      )
+      .isEqualTo("foo");
+    assertThat(jinjava.getParsedTreeCache().getStats().hitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void itReportsParseErrorsOnEveryRender() {
+    String template = "{% unknowntag %}";
+
+    RenderResult first = jinjava.renderForResult(template, ImmutableMap.of());
+    RenderResult second = jinjava.renderForResult(template, ImmutableMap.of());
+
+    assertThat(first.getErrors()).hasSize(1);
+    assertThat(second.getErrors()).hasSize(1);
+    assertThat(jinjava.getParsedTreeCache().getStats().hitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void itInvalidatesWhenATagIsRegistered() {
+    String template = "{% shout %}";
+    jinjava.registerTag(new ShoutTag("hi"));
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("hi");
+
+    jinjava.registerTag(new ShoutTag("hello"));
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("hello");
+  }
+
+  @Test
+  public void itCanBeDisabled() {
+    jinjava.setParsedTreeCache(
+      DefaultParsedTreeCache.newBuilder().withMaximumSize(0).build()
+    );
+
+    jinjava.render("{{ 1 }}", ImmutableMap.of());
+    jinjava.render("{{ 1 }}", ImmutableMap.of());
+
+    assertThat(jinjava.getParsedTreeCache().getStats().hitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void itParsesVersionedResourcesOnce() {
+    TestResourceLocator locator = new TestResourceLocator("1");
+    locator.resources.put("footer.jinja", "<footer>{{ i }}</footer>");
+    jinjava.setResourceLocator(locator);
+
+    String template = "{% for i in items %}{% include 'footer.jinja' %}{% endfor %}";
+    assertThat(jinjava.render(template, ImmutableMap.of("items", ImmutableList.of(1, 2))))
+      .isEqualTo("<footer>1</footer><footer>2</footer>");
+    assertThat(locator.loads).isEqualTo(1);
+  }
+
+  @Test
+  public void itReparsesWhenTheResourceVersionChanges() {
+    TestResourceLocator locator = new TestResourceLocator("1");
+    locator.resources.put("footer.jinja", "old");
+    jinjava.setResourceLocator(locator);
+
+    String template = "{% include 'footer.jinja' %}";
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("old");
+
+    locator.resources.put("footer.jinja", "new");
+    locator.version = "2";
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("new");
+    assertThat(locator.loads).isEqualTo(2);
+  }
+
+  @Test
+  public void itReparsesResourcesAfterTheLocatorChanges() {
+    TestResourceLocator locator = new TestResourceLocator("1");
+    locator.resources.put("footer.jinja", "old");
+    jinjava.setResourceLocator(locator);
+
+    String template = "{% include 'footer.jinja' %}";
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("old");
+
+    TestResourceLocator other = new TestResourceLocator("1");
+    other.resources.put("footer.jinja", "new");
+    jinjava.setResourceLocator(other);
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("new");
+  }
+
+  @Test
+  public void itLoadsUnversionedResourcesOnEveryUse() {
+    TestResourceLocator locator = new TestResourceLocator(null);
+    locator.resources.put("footer.jinja", "footer");
+    jinjava.setResourceLocator(locator);
+
+    String template = "{% include 'footer.jinja' %}{% include 'footer.jinja' %}";
+    assertThat(jinjava.render(template, ImmutableMap.of())).isEqualTo("footerfooter");
+    assertThat(locator.loads).isEqualTo(2);
+  }
+
+  private static class TestResourceLocator implements ResourceLocator {
+    private final Map<String, String> resources = new HashMap<>();
+    private String version;
+    private int loads = 0;
+
+    TestResourceLocator(String version) {
+      this.version = version;
+    }
+
+    @Override
+    public String getString(
+      String fullName,
+      Charset encoding,
+      JinjavaInterpreter interpreter
+    ) {
+      loads++;
+      return resources.get(fullName);
+    }
+
+    @Override
+    public Optional<String> getVersion(String fullName, JinjavaInterpreter interpreter) {
+      return Optional.ofNullable(version);
+    }
+  }
+
+  private static class ShoutTag implements Tag {
+    private final String text;
+
+    ShoutTag(String text) {
+      this.text = text;
+    }
+
+    @Override
+    public String interpret(TagNode tagNode, JinjavaInterpreter interpreter) {
+      return text;
+    }
+
+    @Override
+    public String getEndTagName() {
+      return null;
+    }
+
+    @Override
+    public String getName() {
+      return "shout";
+    }
+  }
+}
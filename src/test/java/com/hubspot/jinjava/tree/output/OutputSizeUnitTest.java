@@ -0,0 +1,54 @@
+package com.hubspot.jinjava.tree.output;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class OutputSizeUnitTest {
+
+  @Test
+  public void itMatchesEncodedUtf8Length() {
+    String[] values = {
+      "",
+      "plain ascii",
+      "café naïve",
+      "€中文",
+      "emoji 😀 pair",
+      "lone \ud83d high",
+      "lone \ude00 low",
+      "trailing \ud83d"
+    };
+
+    for (String value : values) {
+      assertThat(OutputSizeUnit.UTF8_BYTES.sizeOf(value))
+        .as(value)
+        .isEqualTo(value.getBytes(StandardCharsets.UTF_8).length);
+    }
+  }
+
+  @Test
+  public void itCountsChars() {
+    assertThat(OutputSizeUnit.CHARS.sizeOf("café 😀")).isEqualTo(7);
+    assertThat(OutputSizeUnit.CHARS.sizeOf(null)).isEqualTo(0);
+  }
+
+  @Test
+  public void itMeasuresNodesInEitherUnit() {
+    RenderedOutputNode node = new RenderedOutputNode("€1");
+
+    assertThat(node.getSize()).isEqualTo(4);
+    assertThat(node.getSize(OutputSizeUnit.UTF8_BYTES)).isEqualTo(4);
+    assertThat(node.getSize(OutputSizeUnit.CHARS)).isEqualTo(2);
+  }
+
+  @Test
+  public void itRemeasuresResolvedBlockPlaceholders() {
+    BlockPlaceholderOutputNode node = new BlockPlaceholderOutputNode("content");
+    assertThat(node.getSize()).isEqualTo(0);
+
+    node.resolve("é");
+    assertThat(node.getSize()).isEqualTo(2);
+    assertThat(node.getSize(OutputSizeUnit.CHARS)).isEqualTo(1);
+  }
+}
@@ -286,6 +286,34 @@ public class TokenScannerTest {
     assertThat(tokens).isNotEmpty();
   }
 
+  @Test
+  public void itTracksPositionsAcrossLongTextRuns() {
+    script =
+      "<style>\n.a { margin: 0 }\n</style>\n{{ x }} {% raw %}\n{{ y }}\n{% endraw %}\n" +
+      "{# note\n#}\n  {% if z %}end";
+    List<Token> tokens = Lists.newArrayList(new TokenScanner(script, config));
+
+    assertThat(
+        tokens
+          .stream()
+          .map(t -> t.getImage() + "@" + t.getLineNumber() + ":" + t.getStartPosition())
+          .collect(Collectors.toList())
+      )
+      .containsExactly(
+        "<style>\n.a { margin: 0 }\n</style>\n@4:-33",
+        "{{ x }}@4:1",
+        " @4:8",
+        "{% raw %}@4:9",
+        "\n{{ y }}\n@6:-8",
+        "{% endraw %}@6:1",
+        "\n@7:0",
+        "{# note\n#}@8:-7",
+        "\n  @9:0",
+        "{% if z %}@9:3",
+        "end@9:13"
+      );
+  }
+
   private List<Token> tokens(String fixture) {
     TokenScanner t = fixture(fixture);
     return Lists.newArrayList(t);
@@ -2,27 +2,21 @@ package com.hubspot.jinjava.util;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
-import static org.mockito.Mockito.*;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.DeferredValue;
-import com.hubspot.jinjava.tree.ExpressionNode;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
 import com.hubspot.jinjava.tree.Node;
-import com.hubspot.jinjava.tree.TagNode;
-import com.hubspot.jinjava.tree.parse.Token;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.junit.MockitoJUnitRunner;
 
-@RunWith(MockitoJUnitRunner.class)
 public class DeferredValueUtilsTest {
 
   @Test
@@ -31,10 +25,7 @@ public class DeferredValueUtilsTest {
     context.put("java_bean", getPopulatedJavaBean());
 
     context =
-      getContext(
-        Lists.newArrayList(getNodeForClass(TagNode.class, "{% if java_bean %}")),
-        Optional.of(context)
-      );
+      getContext(Lists.newArrayList(getNode("{% if java_bean %}")), Optional.of(context));
 
     Set<String> deferredProperties = DeferredValueUtils.findAndMarkDeferredProperties(
       context
@@ -45,9 +36,7 @@ public class DeferredValueUtilsTest {
 
   @Test
   public void itDefersWholePropertyOnArrayAccess() {
-    Context context = getContext(
-      Lists.newArrayList(getNodeForClass(TagNode.class, "{{ array[0] }}"))
-    );
+    Context context = getContext(Lists.newArrayList(getNode("{{ array[0] }}")));
     context.put("array", Lists.newArrayList("a", "b", "c"));
 
     Set<String> deferredProperties = DeferredValueUtils.findAndMarkDeferredProperties(
@@ -58,9 +47,7 @@ public class DeferredValueUtilsTest {
 
   @Test
   public void itDefersWholePropertyOnDictAccess() {
-    Context context = getContext(
-      Lists.newArrayList(getNodeForClass(TagNode.class, "{{ dict['a'] }}"))
-    );
+    Context context = getContext(Lists.newArrayList(getNode("{{ dict['a'] }}")));
     context.put("dict", Collections.singletonMap("a", "x"));
 
     Set<String> deferredProperties = DeferredValueUtils.findAndMarkDeferredProperties(
@@ -76,14 +63,7 @@ public class DeferredValueUtilsTest {
 
     context =
       getContext(
-        Lists.newArrayList(
-          getNodeForClass(
-            TagNode.class,
-            "{% if java_bean.property_one %}",
-            Optional.empty(),
-            Optional.empty()
-          )
-        ),
+        Lists.newArrayList(getNode("{% if java_bean.property_one %}")),
         Optional.of(context)
       );
 
@@ -98,16 +78,7 @@ public class DeferredValueUtilsTest {
 
   @Test
   public void itHandlesCaseWhereValueIsNull() {
-    Context context = getContext(
-      Lists.newArrayList(
-        getNodeForClass(
-          TagNode.class,
-          "{% if property.id %}",
-          Optional.empty(),
-          Optional.empty()
-        )
-      )
-    );
+    Context context = getContext(Lists.newArrayList(getNode("{% if property.id %}")));
     context.put("property", null);
     DeferredValueUtils.findAndMarkDeferredProperties(context);
 
@@ -116,16 +87,7 @@ public class DeferredValueUtilsTest {
 
   @Test
   public void itPreservesNonDeferredProperties() {
-    Context context = getContext(
-      Lists.newArrayList(
-        getNodeForClass(
-          TagNode.class,
-          "{% if deferred %}",
-          Optional.empty(),
-          Optional.empty()
-        )
-      )
-    );
+    Context context = getContext(Lists.newArrayList(getNode("{% if deferred %}")));
     context.put("deferred", "deferred");
     context.put("not_deferred", "test_value");
 
@@ -133,6 +95,37 @@ public class DeferredValueUtilsTest {
     assertThat(context.get("not_deferred")).isEqualTo("test_value");
   }
 
+  @Test
+  public void itOnlyTreatsNamesInSetTagsAsSetProperties() {
+    Context context = getContext(
+      Lists.newArrayList(
+        getNode("{% set assigned = source %}"),
+        getNode("{% if unrelated %}")
+      )
+    );
+
+    assertThat(context.get("assigned")).isInstanceOf(DeferredValue.class);
+    assertThat(context.containsKey("unrelated")).isFalse();
+  }
+
+  @Test
+  public void itPropagatesDeferredPropertiesToParentContexts() {
+    Context parent = new Context();
+    parent.put("bar", "bar");
+    Context child = new Context(parent);
+    child.put("foo", "foo");
+
+    Context grandchild = getContext(
+      Lists.newArrayList(getNode("{{ foo ~ bar }}")),
+      Optional.of(new Context(child))
+    );
+
+    assertThat(grandchild.get("foo")).isInstanceOf(DeferredValue.class);
+    assertThat(child.get("foo")).isInstanceOf(DeferredValue.class);
+    assertThat(child.get("bar")).isInstanceOf(DeferredValue.class);
+    assertThat(child.getDeferredNodes()).hasSize(1);
+  }
+
   @Test
   public void itRestoresContextSuccessfully() {
     Context context = new Context();
@@ -179,6 +172,36 @@ public class DeferredValueUtilsTest {
     assertThat(result).isEmpty();
   }
 
+  @Test
+  public void itAnalyzesTemplateSourceWithoutACurrentInterpreter() {
+    Context context = new Context();
+    context.put("foo", "bar");
+
+    assertThat(DeferredValueUtils.getPropertiesUsedInDeferredNodes(context, "{{ foo }}"))
+      .containsExactly("foo");
+    assertThat(DeferredValueUtils.getPropertiesSetInDeferredNodes("{% set baz = 1 %}"))
+      .containsExactly("baz");
+  }
+
+  @Test
+  public void itDoesNotAddErrorsFromTemplateSourceToTheCurrentRender() {
+    JinjavaInterpreter interpreter = new Jinjava().newInterpreter();
+    interpreter.getContext().put("foo", "bar");
+    JinjavaInterpreter.pushCurrent(interpreter);
+    try {
+      assertThat(
+          DeferredValueUtils.getPropertiesUsedInDeferredNodes(
+            interpreter.getContext(),
+            "{{ foo }}{% endif %}"
+          )
+        )
+        .containsExactly("foo");
+    } finally {
+      JinjavaInterpreter.popCurrent();
+    }
+    assertThat(interpreter.getErrors()).isEmpty();
+  }
+
   private Context getContext(List<? extends Node> nodes) {
     return getContext(nodes, Optional.empty());
   }
@@ -198,34 +221,8 @@ public class DeferredValueUtilsTest {
     return context;
   }
 
-  private <T extends Node> T getNodeForClass(Class<T> clazz, String image) {
-    return getNodeForClass(clazz, image, Optional.empty(), Optional.empty());
-  }
-
-  private <T extends Node> T getNodeForClass(
-    Class<T> clazz,
-    String image,
-    Optional<List<Node>> childNodes,
-    Optional<String> endName
-  ) {
-    T node = mock(clazz);
-    Token token = mock(Token.class);
-    if (childNodes.isPresent()) {
-      LinkedList<Node> children = new LinkedList<>();
-      children.addAll(childNodes.get());
-      when(node.getChildren()).thenReturn(children);
-    }
-    when(token.getImage()).thenReturn(image);
-    when(node.getMaster()).thenReturn(token);
-    if (node instanceof ExpressionNode) {
-      when(node.toString()).thenReturn(image);
-    }
-    if (node instanceof TagNode && endName.isPresent()) {
-      TagNode tagNode = (TagNode) node;
-      when(tagNode.getEndName()).thenReturn(endName.get());
-      when(tagNode.reconstructEnd()).thenReturn("{% " + endName.get() + " %}");
-    }
-    return node;
+  private Node getNode(String image) {
+    return new Jinjava().newInterpreter().parse(image).getChildren().get(0);
   }
 
   private JavaBean getPopulatedJavaBean() {